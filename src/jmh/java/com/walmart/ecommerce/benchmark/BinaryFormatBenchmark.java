@@ -0,0 +1,97 @@
+package com.walmart.ecommerce.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.ecommerce.application.dto.PageResponse;
+import com.walmart.ecommerce.application.dto.ProductMapper;
+import com.walmart.ecommerce.application.dto.ProductResponse;
+import com.walmart.ecommerce.benchmark.support.SyntheticCatalog;
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.CountStrategy;
+import com.walmart.ecommerce.domain.repositories.CountedPage;
+import com.walmart.ecommerce.infrastructure.config.CborConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compara JSON contra CBOR (con y sin stringref) para una página de búsqueda: tiempo de serializar
+ * y de leer del lado del consumidor. El tamaño de cada payload (plano y con gzip) se imprime al
+ * preparar el estado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+    private static final TypeReference<PageResponse<ProductResponse>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "cbor-stringref"})
+    private String format;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper mapper;
+    private PageResponse<ProductResponse> page;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Mismos mappers que la aplicación: inclusión non_null y, para CBOR, la configuración de CborConfig
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL);
+        mapper = format.startsWith("cbor")
+                ? new CborConfig().cborHttpMessageConverter(builder, format.endsWith("stringref")).getObjectMapper()
+                : builder.build();
+
+        List<Product> products = SyntheticCatalog.generate(pageSize);
+        Instant now = Instant.now();
+        products.forEach(product -> product.setLastModified(now));
+        page = new ProductMapper().toPageResponse(new CountedPage<>(products, PageRequest.of(0, pageSize), 10_000,
+                CountStrategy.EXACT));
+        payload = mapper.writeValueAsBytes(page);
+
+        System.out.printf("%n%s, %d productos: %d bytes, %d bytes con gzip%n",
+                format, pageSize, payload.length, gzip(payload).length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PageResponse<ProductResponse> decode() throws Exception {
+        return mapper.readValue(payload, PAGE_TYPE);
+    }
+
+    private static byte[] gzip(byte[] body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,67 @@
+package com.walmart.ecommerce.benchmark;
+
+import com.walmart.ecommerce.application.dto.PageResponse;
+import com.walmart.ecommerce.application.dto.ProductMapper;
+import com.walmart.ecommerce.application.dto.ProductResponse;
+import com.walmart.ecommerce.benchmark.support.SyntheticCatalog;
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.CountStrategy;
+import com.walmart.ecommerce.domain.repositories.CountedPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el mapeo de entidades a DTOs que se ejecuta en cada respuesta de búsqueda.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMapperBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    // false: documentos sin modelo de lectura, el descuento se calcula en cada mapeo
+    @Param({"false", "true"})
+    private boolean readModel;
+
+    private final ProductMapper mapper = new ProductMapper();
+    private Product product;
+    private CountedPage<Product> page;
+
+    @Setup
+    public void setUp() {
+        List<Product> products = SyntheticCatalog.generate(pageSize);
+        if (readModel) {
+            products.forEach(Product::refreshReadModel);
+        }
+        product = products.get(0);
+        page = new CountedPage<>(products, PageRequest.of(0, pageSize), 10_000, CountStrategy.EXACT);
+    }
+
+    @Benchmark
+    public ProductResponse toResponse() {
+        return mapper.toResponse(product);
+    }
+
+    @Benchmark
+    public PageResponse<ProductResponse> toPageResponse() {
+        return mapper.toPageResponse(page);
+    }
+}
@@ -0,0 +1,70 @@
+package com.walmart.ecommerce.benchmark;
+
+import com.walmart.ecommerce.application.dto.ProductSearchFilter;
+import com.walmart.ecommerce.domain.entities.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide los cálculos del modelo que se repiten por producto o por request:
+ * el porcentaje de descuento y la detección de filtros.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductModelBenchmark {
+
+    private Product discounted;
+    private Product fullPrice;
+    private ProductSearchFilter emptyFilter;
+    private ProductSearchFilter tagsOnlyFilter;
+
+    @Setup
+    public void setUp() {
+        discounted = Product.builder()
+                .price(new BigDecimal("79.99"))
+                .oldPrice(new BigDecimal("99.99"))
+                .build();
+        fullPrice = Product.builder()
+                .price(new BigDecimal("79.99"))
+                .build();
+        emptyFilter = new ProductSearchFilter();
+        // Peor caso: todas las comparaciones previas fallan y se evalúan los tags
+        tagsOnlyFilter = ProductSearchFilter.builder().tags(List.of("running")).build();
+    }
+
+    @Benchmark
+    public Integer discountPercentage() {
+        return discounted.getDiscountPercentage();
+    }
+
+    @Benchmark
+    public Integer discountPercentageWithoutDiscount() {
+        return fullPrice.getDiscountPercentage();
+    }
+
+    @Benchmark
+    public boolean hasFiltersEmpty() {
+        return emptyFilter.hasFilters();
+    }
+
+    @Benchmark
+    public boolean hasFiltersTagsOnly() {
+        return tagsOnlyFilter.hasFilters();
+    }
+}
@@ -0,0 +1,91 @@
+package com.walmart.ecommerce.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.ecommerce.application.cache.CatalogVersion;
+import com.walmart.ecommerce.application.cache.SearchResultCache;
+import com.walmart.ecommerce.application.dto.PageResponse;
+import com.walmart.ecommerce.application.dto.ProductMapper;
+import com.walmart.ecommerce.application.dto.ProductResponse;
+import com.walmart.ecommerce.application.dto.ProductSearchFilter;
+import com.walmart.ecommerce.application.service.ProductCursorCodec;
+import com.walmart.ecommerce.application.service.ProductQueryPlanner;
+import com.walmart.ecommerce.application.service.ProductService;
+import com.walmart.ecommerce.benchmark.support.InMemoryProductRepository;
+import com.walmart.ecommerce.benchmark.support.SyntheticCatalog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide ProductService.searchProducts de punta a punta contra un repositorio sintético en memoria:
+ * clave de cache, filtrado, ordenamiento, paginación y mapeo a DTOs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int catalogSize;
+
+    @Param({"false", "true"})
+    private boolean searchCache;
+
+    private ProductService productService;
+    private ProductSearchFilter noFilters;
+    private ProductSearchFilter categoryAndPrice;
+    private ProductSearchFilter text;
+
+    @Setup
+    public void setUp() {
+        productService = new ProductService(
+                new InMemoryProductRepository(SyntheticCatalog.generate(catalogSize)),
+                new ProductMapper(),
+                new ProductCursorCodec(new ObjectMapper()),
+                new SearchResultCache(searchCache, 5_000, Duration.ofMinutes(10)),
+                new CatalogVersion(),
+                new ProductQueryPlanner(100, 10_000, 1_000),
+                new SimpleMeterRegistry(),
+                "exact",
+                100);
+        noFilters = new ProductSearchFilter();
+        categoryAndPrice = ProductSearchFilter.builder()
+                .category("Electrónica")
+                .minPrice(new BigDecimal("100"))
+                .maxPrice(new BigDecimal("1000"))
+                .inStock(true)
+                .build();
+        text = ProductSearchFilter.builder().searchText("auriculares").build();
+    }
+
+    @Benchmark
+    public PageResponse<ProductResponse> firstPageNoFilters() {
+        return productService.searchProducts(noFilters, 0, 20, "name", "asc");
+    }
+
+    @Benchmark
+    public PageResponse<ProductResponse> categoryAndPriceByPrice() {
+        return productService.searchProducts(categoryAndPrice, 0, 20, "price", "desc");
+    }
+
+    @Benchmark
+    public PageResponse<ProductResponse> textSearch() {
+        return productService.searchProducts(text, 0, 20, "name", "asc");
+    }
+}
@@ -0,0 +1,74 @@
+package com.walmart.ecommerce.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.ecommerce.application.cache.CatalogVersion;
+import com.walmart.ecommerce.application.dto.PageResponse;
+import com.walmart.ecommerce.application.dto.ProductMapper;
+import com.walmart.ecommerce.application.dto.ProductResponse;
+import com.walmart.ecommerce.benchmark.support.SyntheticCatalog;
+import com.walmart.ecommerce.domain.repositories.CountStrategy;
+import com.walmart.ecommerce.domain.repositories.CountedPage;
+import com.walmart.ecommerce.infrastructure.cache.EncodedResponse;
+import com.walmart.ecommerce.infrastructure.cache.EncodedResponseCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el costo de serializar una página de búsqueda con Jackson en cada respuesta
+ * contra servirla desde el cache de respuestas ya serializadas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+
+    private static final String KEY = EncodedResponseCache.searchKey("bench");
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private EncodedResponseCache responseCache;
+    private PageResponse<ProductResponse> page;
+
+    @Setup
+    public void setUp() {
+        // Misma inclusión que spring.jackson.default-property-inclusion
+        objectMapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        responseCache = new EncodedResponseCache(objectMapper, new MappingJackson2CborHttpMessageConverter(),
+                new CatalogVersion(), true, DataSize.ofMegabytes(64), Duration.ofMinutes(10), DataSize.ofKilobytes(1));
+        page = new ProductMapper().toPageResponse(new CountedPage<>(SyntheticCatalog.generate(pageSize),
+                PageRequest.of(0, pageSize), 10_000, CountStrategy.EXACT));
+        responseCache.get(KEY, () -> page);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] cachedPage() {
+        EncodedResponse response = responseCache.get(KEY, () -> page);
+        return response.getBody();
+    }
+}
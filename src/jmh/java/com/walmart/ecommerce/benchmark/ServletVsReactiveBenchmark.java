@@ -0,0 +1,123 @@
+package com.walmart.ecommerce.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.ecommerce.application.cache.CatalogVersion;
+import com.walmart.ecommerce.application.cache.SearchResultCache;
+import com.walmart.ecommerce.application.dto.ProductMapper;
+import com.walmart.ecommerce.application.dto.ProductSearchFilter;
+import com.walmart.ecommerce.application.service.ProductCursorCodec;
+import com.walmart.ecommerce.application.service.ProductQueryPlanner;
+import com.walmart.ecommerce.application.service.ProductService;
+import com.walmart.ecommerce.application.service.ReactiveProductService;
+import com.walmart.ecommerce.benchmark.support.LatencyProductRepository;
+import com.walmart.ecommerce.benchmark.support.LatencyReactiveProductRepository;
+import com.walmart.ecommerce.benchmark.support.SyntheticCatalog;
+import com.walmart.ecommerce.domain.entities.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la API bloqueante (un hilo por petición, pool del tamaño por defecto de Tomcat)
+ * con la reactiva cuando llegan muchas búsquedas a la vez y MongoDB tarda en responder.
+ * Cada operación es una ráfaga de {@code concurrency} búsquedas; el tiempo reportado es lo
+ * que tarda en completarse la ráfaga entera (throughput = concurrency / tiempo).
+ * La latencia de la base se simula: el resultado mide el modelo de hilos y el conteo
+ * en paralelo, no el costo real de las queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServletVsReactiveBenchmark {
+
+    /**
+     * server.tomcat.threads.max por defecto
+     */
+    private static final int SERVLET_THREADS = 200;
+
+    @Param({"200", "1000", "5000"})
+    private int concurrency;
+
+    @Param({"5"})
+    private int mongoLatencyMillis;
+
+    private ExecutorService servletThreads;
+    private ProductService productService;
+    private ReactiveProductService reactiveProductService;
+    private List<ProductSearchFilter> filters;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Product> catalog = SyntheticCatalog.generate(200);
+        Duration latency = Duration.ofMillis(mongoLatencyMillis);
+        ProductCursorCodec cursorCodec = new ProductCursorCodec(new ObjectMapper());
+
+        // Sin cache de búsquedas: cada petición llega a la base
+        ProductQueryPlanner queryPlanner = new ProductQueryPlanner(100, 10_000, 1_000);
+        productService = new ProductService(
+                new LatencyProductRepository(catalog, latency), new ProductMapper(), cursorCodec,
+                new SearchResultCache(false, 1, Duration.ofMinutes(1)), new CatalogVersion(), queryPlanner,
+                new SimpleMeterRegistry(), "exact", 100);
+        reactiveProductService = new ReactiveProductService(
+                new LatencyReactiveProductRepository(catalog, latency), new ProductMapper(), cursorCodec,
+                new SearchResultCache(false, 1, Duration.ofMinutes(1)), new CatalogVersion(), queryPlanner,
+                "exact", 100);
+
+        servletThreads = Executors.newFixedThreadPool(SERVLET_THREADS);
+        filters = new ArrayList<>();
+        for (String category : SyntheticCatalog.CATEGORIES) {
+            filters.add(ProductSearchFilter.builder().category(category).build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        servletThreads.shutdownNow();
+    }
+
+    @Benchmark
+    public int servlet() {
+        List<CompletableFuture<Integer>> requests = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            ProductSearchFilter filter = filters.get(i % filters.size());
+            int page = i % 5;
+            requests.add(CompletableFuture.supplyAsync(
+                    () -> productService.searchProducts(filter, page, 20, "price", "asc").getContent().size(),
+                    servletThreads));
+        }
+        return requests.stream().mapToInt(CompletableFuture::join).sum();
+    }
+
+    @Benchmark
+    public int reactive() {
+        return Flux.range(0, concurrency)
+                .flatMap(i -> reactiveProductService.searchProducts(
+                        filters.get(i % filters.size()), i % 5, 20, "price", "asc", null), concurrency)
+                .map(page -> page.getContent().size())
+                .reduce(0, Integer::sum)
+                .block();
+    }
+}
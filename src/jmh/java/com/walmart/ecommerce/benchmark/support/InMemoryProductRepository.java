@@ -0,0 +1,207 @@
+package com.walmart.ecommerce.benchmark.support;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.CountStrategy;
+import com.walmart.ecommerce.domain.repositories.CountedPage;
+import com.walmart.ecommerce.domain.repositories.FacetCount;
+import com.walmart.ecommerce.domain.repositories.FacetField;
+import com.walmart.ecommerce.domain.repositories.ProductCriteria;
+import com.walmart.ecommerce.domain.repositories.ProductCursor;
+import com.walmart.ecommerce.domain.repositories.ProductRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio sintético en memoria para medir la capa de aplicación sin MongoDB.
+ * Filtra por recorrido lineal y ordena en memoria; no pretende igualar el costo
+ * de la base de datos sino aislar el overhead de servicio, mapeo y cache.
+ */
+public class InMemoryProductRepository implements ProductRepository {
+
+    private final Map<String, Product> products = new LinkedHashMap<>();
+
+    public InMemoryProductRepository(List<Product> catalog) {
+        saveAll(catalog);
+    }
+
+    @Override
+    public Product save(Product product) {
+        products.put(product.getId(), product);
+        return product;
+    }
+
+    @Override
+    public List<Product> saveAll(List<Product> catalog) {
+        catalog.forEach(this::save);
+        return catalog;
+    }
+
+    @Override
+    public int bulkUpsert(List<Product> catalog) {
+        saveAll(catalog);
+        return catalog.size();
+    }
+
+    @Override
+    public Optional<Product> findById(String id) {
+        return Optional.ofNullable(products.get(id));
+    }
+
+    @Override
+    public List<Product> findAllById(Collection<String> ids) {
+        return ids.stream().map(products::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public CountedPage<Product> findAll(Pageable pageable, CountStrategy countStrategy) {
+        return findByFilters(ProductCriteria.empty(), pageable, countStrategy);
+    }
+
+    @Override
+    public CountedPage<Product> searchByText(String searchText, Pageable pageable, CountStrategy countStrategy) {
+        return findByFilters(ProductCriteria.builder().searchText(searchText).build(), pageable, countStrategy);
+    }
+
+    @Override
+    public CountedPage<Product> findByFilters(ProductCriteria criteria, Pageable pageable,
+                                              CountStrategy countStrategy) {
+        List<Product> matches = products.values().stream()
+                .filter(matcher(criteria))
+                .sorted(comparator(pageable.getSort()))
+                .toList();
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new CountedPage<>(matches.subList(from, to), pageable, matches.size(), CountStrategy.EXACT);
+    }
+
+    @Override
+    public Slice<Product> findByCriteriaAfter(ProductCriteria criteria, ProductCursor after, int size, Sort sort) {
+        // El benchmark de servicio mide paginación por offset; el cursor se resuelve por id
+        List<Product> matches = products.values().stream()
+                .filter(matcher(criteria))
+                .filter(product -> after == null || product.getId().compareTo(after.getLastId()) > 0)
+                .sorted(Comparator.comparing(Product::getId))
+                .limit(size + 1L)
+                .toList();
+        boolean hasNext = matches.size() > size;
+        return new SliceImpl<>(hasNext ? matches.subList(0, size) : matches, Pageable.ofSize(size), hasNext);
+    }
+
+    @Override
+    public Stream<Product> streamByCriteria(ProductCriteria criteria, Sort sort) {
+        return products.values().stream().filter(matcher(criteria)).sorted(comparator(sort));
+    }
+
+    @Override
+    public Map<FacetField, List<FacetCount>> computeFacets(ProductCriteria criteria, Set<FacetField> facets) {
+        Map<FacetField, List<FacetCount>> result = new EnumMap<>(FacetField.class);
+        if (facets.contains(FacetField.CATEGORY)) {
+            result.put(FacetField.CATEGORY, countBy(criteria, Product::getCategory));
+        }
+        if (facets.contains(FacetField.BRAND)) {
+            result.put(FacetField.BRAND, countBy(criteria, Product::getBrand));
+        }
+        return result;
+    }
+
+    @Override
+    public long count() {
+        return products.size();
+    }
+
+    @Override
+    public void deleteAll() {
+        products.clear();
+    }
+
+    @Override
+    public List<String> findDistinctCategories() {
+        return products.values().stream().map(Product::getCategory).distinct().sorted().toList();
+    }
+
+    @Override
+    public List<String> findDistinctBrands() {
+        return products.values().stream().map(Product::getBrand).distinct().sorted().toList();
+    }
+
+    private List<FacetCount> countBy(ProductCriteria criteria, Function<Product, String> key) {
+        return products.values().stream()
+                .filter(matcher(criteria))
+                .collect(Collectors.groupingBy(key, Collectors.counting()))
+                .entrySet().stream()
+                .map(entry -> new FacetCount(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(FacetCount::getCount).reversed())
+                .toList();
+    }
+
+    private static Predicate<Product> matcher(ProductCriteria criteria) {
+        List<Predicate<Product>> predicates = new ArrayList<>();
+        if (criteria.getSearchText() != null && !criteria.getSearchText().isEmpty()) {
+            String text = criteria.getSearchText().toLowerCase(Locale.ROOT);
+            predicates.add(product -> product.getName().toLowerCase(Locale.ROOT).contains(text)
+                    || product.getDescription().toLowerCase(Locale.ROOT).contains(text));
+        }
+        if (criteria.getCategory() != null) {
+            predicates.add(product -> criteria.getCategory().equals(product.getCategory()));
+        }
+        if (criteria.getBrand() != null) {
+            predicates.add(product -> criteria.getBrand().equals(product.getBrand()));
+        }
+        if (criteria.getMinPrice() != null) {
+            predicates.add(product -> product.getPrice().compareTo(criteria.getMinPrice()) >= 0);
+        }
+        if (criteria.getMaxPrice() != null) {
+            predicates.add(product -> product.getPrice().compareTo(criteria.getMaxPrice()) <= 0);
+        }
+        if (Boolean.TRUE.equals(criteria.getInStock())) {
+            predicates.add(Product::isAvailable);
+        }
+        if (criteria.getTags() != null && !criteria.getTags().isEmpty()) {
+            predicates.add(product -> product.getTags().stream().anyMatch(criteria.getTags()::contains));
+        }
+        if (Boolean.TRUE.equals(criteria.getOnSale())) {
+            predicates.add(Product::hasDiscount);
+        }
+        if (criteria.getMinDiscount() != null) {
+            predicates.add(product -> product.getDiscountPercentage() >= criteria.getMinDiscount());
+        }
+        return predicates.stream().reduce(product -> true, Predicate::and);
+    }
+
+    private static Comparator<Product> comparator(Sort sort) {
+        Comparator<Product> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Product> next = switch (order.getProperty()) {
+                case "price" -> Comparator.comparing(Product::getPrice);
+                case "name" -> Comparator.comparing(Product::getName);
+                case "stock" -> Comparator.comparing(Product::getStock);
+                case "category" -> Comparator.comparing(Product::getCategory);
+                case "brand" -> Comparator.comparing(Product::getBrand);
+                case "discountPercentage" -> Comparator.comparing(Product::getDiscountPercentage);
+                default -> Comparator.comparing(Product::getId);
+            };
+            next = order.isDescending() ? next.reversed() : next;
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<Product> byId = Comparator.comparing(Product::getId);
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+}
@@ -0,0 +1,41 @@
+package com.walmart.ecommerce.benchmark.support;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.CountStrategy;
+import com.walmart.ecommerce.domain.repositories.CountedPage;
+import com.walmart.ecommerce.domain.repositories.ProductCriteria;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Repositorio en memoria que simula la latencia de red de MongoDB bloqueando el hilo,
+ * como el driver sincrónico: una espera para la página y otra para el conteo, en serie.
+ */
+public class LatencyProductRepository extends InMemoryProductRepository {
+
+    private final Duration latency;
+
+    public LatencyProductRepository(List<Product> catalog, Duration latency) {
+        super(catalog);
+        this.latency = latency;
+    }
+
+    @Override
+    public CountedPage<Product> findByFilters(ProductCriteria criteria, Pageable pageable,
+                                              CountStrategy countStrategy) {
+        roundTrip();
+        roundTrip();
+        return super.findByFilters(criteria, pageable, countStrategy);
+    }
+
+    private void roundTrip() {
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.walmart.ecommerce.benchmark.support;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.CountStrategy;
+import com.walmart.ecommerce.domain.repositories.CountedPage;
+import com.walmart.ecommerce.domain.repositories.FacetCount;
+import com.walmart.ecommerce.domain.repositories.FacetField;
+import com.walmart.ecommerce.domain.repositories.ProductCriteria;
+import com.walmart.ecommerce.domain.repositories.ProductCursor;
+import com.walmart.ecommerce.domain.repositories.ReactiveProductRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Contraparte reactiva de LatencyProductRepository: la latencia se simula con un temporizador
+ * sin ocupar hilos y la página y el conteo viajan en paralelo, como en el adaptador reactivo.
+ */
+public class LatencyReactiveProductRepository implements ReactiveProductRepository {
+
+    private final InMemoryProductRepository products;
+    private final Duration latency;
+
+    public LatencyReactiveProductRepository(List<Product> catalog, Duration latency) {
+        this.products = new InMemoryProductRepository(catalog);
+        this.latency = latency;
+    }
+
+    @Override
+    public Mono<Product> findById(String id) {
+        return Mono.delay(latency).flatMap(tick -> Mono.justOrEmpty(products.findById(id)));
+    }
+
+    @Override
+    public Flux<Product> findAllById(Collection<String> ids) {
+        return Mono.delay(latency).flatMapIterable(tick -> products.findAllById(ids));
+    }
+
+    @Override
+    public Mono<CountedPage<Product>> findByFilters(ProductCriteria criteria, Pageable pageable,
+                                                    CountStrategy countStrategy) {
+        return Mono.zip(Mono.delay(latency), Mono.delay(latency))
+                .map(ticks -> products.findByFilters(criteria, pageable, countStrategy));
+    }
+
+    @Override
+    public Mono<Slice<Product>> findByCriteriaAfter(ProductCriteria criteria, ProductCursor after, int size,
+                                                    Sort sort) {
+        return Mono.delay(latency).map(tick -> products.findByCriteriaAfter(criteria, after, size, sort));
+    }
+
+    @Override
+    public Flux<Product> streamByCriteria(ProductCriteria criteria, Sort sort) {
+        return Mono.delay(latency).flatMapMany(tick -> Flux.fromStream(products.streamByCriteria(criteria, sort)));
+    }
+
+    @Override
+    public Mono<Map<FacetField, List<FacetCount>>> computeFacets(ProductCriteria criteria, Set<FacetField> facets) {
+        return Mono.delay(latency).map(tick -> products.computeFacets(criteria, facets));
+    }
+
+    @Override
+    public Flux<String> findDistinctCategories() {
+        return Flux.fromIterable(products.findDistinctCategories());
+    }
+
+    @Override
+    public Flux<String> findDistinctBrands() {
+        return Flux.fromIterable(products.findDistinctBrands());
+    }
+}
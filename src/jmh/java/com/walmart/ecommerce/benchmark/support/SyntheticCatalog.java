@@ -0,0 +1,62 @@
+package com.walmart.ecommerce.benchmark.support;
+
+import com.walmart.ecommerce.domain.entities.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Genera catálogos sintéticos reproducibles para los benchmarks.
+ * La semilla fija hace que cada corrida mida exactamente los mismos datos.
+ */
+public final class SyntheticCatalog {
+
+    public static final String[] CATEGORIES = {
+        "Electrónica", "Calzado", "Ropa", "Hogar", "Cocina", "Audio", "Gaming", "Oficina", "Wearables", "Tablets"
+    };
+    public static final String[] BRANDS = {
+        "SportCo", "Apple", "Samsung", "Sony", "Adidas", "Dell", "Logitech", "Bose", "Garmin", "HomeBrew",
+        "ASUS", "Canon"
+    };
+    public static final String[] TAGS = {
+        "running", "outdoor", "wireless", "gaming", "premium", "oferta", "nuevo", "eco", "portable", "smart"
+    };
+    private static final String[] NOUNS = {
+        "Zapatillas", "Auriculares", "Notebook", "Monitor", "Cafetera", "Mochila", "Reloj", "Teclado", "Parlante",
+        "Camisa"
+    };
+
+    private SyntheticCatalog() {
+    }
+
+    public static List<Product> generate(int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String noun = NOUNS[random.nextInt(NOUNS.length)];
+            String brand = BRANDS[random.nextInt(BRANDS.length)];
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(500, 250_000), 2);
+            // Un tercio de los productos tiene precio anterior (descuento)
+            BigDecimal oldPrice = random.nextInt(3) == 0
+                    ? price.multiply(BigDecimal.valueOf(random.nextInt(105, 160), 2)).setScale(2, RoundingMode.HALF_UP)
+                    : null;
+
+            products.add(Product.builder()
+                    .id(String.format("p-%07d", i))
+                    .name(noun + " " + brand + " " + i)
+                    .description(noun + " de " + brand + " para uso diario, modelo " + i)
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .brand(brand)
+                    .price(price)
+                    .oldPrice(oldPrice)
+                    .stock(random.nextInt(5) == 0 ? 0 : random.nextInt(1, 200))
+                    .tags(List.of(TAGS[random.nextInt(TAGS.length)], TAGS[random.nextInt(TAGS.length)]))
+                    .imageUrl("https://example.com/img/p-" + i + ".jpg")
+                    .build());
+        }
+        return products;
+    }
+}
@@ -0,0 +1,71 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.walmart.ecommerce.domain.repositories.ProductCriteria;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la construcción de la query de filtros de MongoDB, sin ejecutarla.
+ * Está en el paquete del adaptador porque buildFilterQuery no es pública.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterQueryBenchmark {
+
+    private ProductCriteria empty;
+    private ProductCriteria category;
+    private ProductCriteria allFilters;
+
+    @Setup
+    public void setUp() {
+        empty = ProductCriteria.empty();
+        category = ProductCriteria.builder().category("Electrónica").build();
+        allFilters = ProductCriteria.builder()
+                .searchText("zapatillas running")
+                .category("Calzado")
+                .brand("SportCo")
+                .minPrice(new BigDecimal("50"))
+                .maxPrice(new BigDecimal("150"))
+                .inStock(true)
+                .tags(List.of("running", "outdoor"))
+                .build();
+    }
+
+    @Benchmark
+    public Query emptyCriteria() {
+        return ProductRepositoryAdapter.buildFilterQuery(empty);
+    }
+
+    @Benchmark
+    public Query categoryOnly() {
+        return ProductRepositoryAdapter.buildFilterQuery(category);
+    }
+
+    @Benchmark
+    public Query allFilters() {
+        return ProductRepositoryAdapter.buildFilterQuery(allFilters);
+    }
+
+    @Benchmark
+    public String allFiltersToDocument() {
+        // Incluye la conversión a Document que hace el driver al enviar la query
+        return ProductRepositoryAdapter.buildFilterQuery(allFilters).getQueryObject().toJson();
+    }
+}
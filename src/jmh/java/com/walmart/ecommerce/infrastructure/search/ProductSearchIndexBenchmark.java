@@ -0,0 +1,90 @@
+package com.walmart.ecommerce.infrastructure.search;
+
+import com.walmart.ecommerce.benchmark.support.SyntheticCatalog;
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.ProductCriteria;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mide el índice de búsqueda en memoria con catálogos grandes: filtros por bitmap,
+ * rango de precio, texto con ranking BM25 y orden por precio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductSearchIndexBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int catalogSize;
+
+    private ProductSearchIndex index;
+    private ProductCriteria categoryBrandInStock;
+    private ProductCriteria categoryAndPrice;
+    private ProductCriteria text;
+    private ProductCriteria textPrefixAndCategory;
+
+    @Setup
+    public void setUp() {
+        List<Product> catalog = SyntheticCatalog.generate(catalogSize);
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenAnswer(invocation -> catalog.stream());
+        index = new ProductSearchIndex(mongoTemplate, 20, List.of(
+                new BigDecimal("0"), new BigDecimal("25"), new BigDecimal("50"), new BigDecimal("100"),
+                new BigDecimal("250"), new BigDecimal("500")));
+        index.rebuild();
+
+        categoryBrandInStock = ProductCriteria.builder().category("Audio").brand("Sony").inStock(true).build();
+        categoryAndPrice = ProductCriteria.builder()
+                .category("Electrónica")
+                .minPrice(new BigDecimal("100"))
+                .maxPrice(new BigDecimal("500"))
+                .build();
+        text = ProductCriteria.builder().searchText("auriculares sony").build();
+        textPrefixAndCategory = ProductCriteria.builder().searchText("cafet").category("Cocina").build();
+    }
+
+    @Benchmark
+    public ProductSearchIndex.SearchHits bitmapFilters() {
+        return index.search(categoryBrandInStock, Sort.unsorted(), 0, 20);
+    }
+
+    @Benchmark
+    public ProductSearchIndex.SearchHits priceRangeSortedByPrice() {
+        return index.search(categoryAndPrice, Sort.by(Sort.Direction.ASC, "price"), 0, 20);
+    }
+
+    @Benchmark
+    public ProductSearchIndex.SearchHits textRankedByRelevance() {
+        return index.search(text, Sort.unsorted(), 0, 20);
+    }
+
+    @Benchmark
+    public ProductSearchIndex.SearchHits textPrefixWithCategory() {
+        return index.search(textPrefixAndCategory, Sort.unsorted(), 0, 20);
+    }
+}
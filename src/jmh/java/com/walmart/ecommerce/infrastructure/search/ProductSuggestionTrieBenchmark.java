@@ -0,0 +1,79 @@
+package com.walmart.ecommerce.infrastructure.search;
+
+import com.walmart.ecommerce.benchmark.support.SyntheticCatalog;
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.Suggestion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mide la latencia del autocompletado por prefijo (con percentiles) y el costo
+ * de mantener el trie cuando cambia el stock de un producto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductSuggestionTrieBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int catalogSize;
+
+    @Param({"a", "auric", "zapatillas so"})
+    private String prefix;
+
+    private ProductSuggestionTrie trie;
+    private Product product;
+    private Product restocked;
+
+    @Setup
+    public void setUp() {
+        List<Product> catalog = SyntheticCatalog.generate(catalogSize);
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenAnswer(invocation -> catalog.stream());
+        trie = new ProductSuggestionTrie(mongoTemplate, 10, 24);
+        trie.rebuild();
+
+        product = catalog.get(catalogSize / 2);
+        restocked = Product.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .category(product.getCategory())
+                .brand(product.getBrand())
+                .tags(product.getTags())
+                .stock(product.getStock() + 1000)
+                .build();
+    }
+
+    @Benchmark
+    public List<Suggestion> suggest() {
+        return trie.findByPrefix(prefix, 10);
+    }
+
+    @Benchmark
+    public void updateStock() {
+        trie.onProductSaved(product, restocked);
+        trie.onProductSaved(restocked, product);
+    }
+}
@@ -0,0 +1,30 @@
+package com.walmart.ecommerce.application.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión del catálogo en esta instancia. Se incrementa con cada escritura a través
+ * del repositorio y forma parte de las claves de cache, de modo que una escritura
+ * invalida de una vez todos los resultados derivados del catálogo anterior.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Versión actual
+     */
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Incrementa la versión y retorna el nuevo valor
+     */
+    public long bump() {
+        return version.incrementAndGet();
+    }
+}
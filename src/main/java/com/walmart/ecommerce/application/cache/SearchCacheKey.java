@@ -0,0 +1,126 @@
+package com.walmart.ecommerce.application.cache;
+
+import com.walmart.ecommerce.application.dto.ProductSearchFilter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Construye la forma canónica de una búsqueda para usarla como clave de cache.
+ * Dos búsquedas equivalentes (texto con distinto espaciado o mayúsculas, tags en otro
+ * orden, grupos anyOf en otro orden, precios con distinta escala) producen la misma clave.
+ * Los valores libres se escapan antes de unirse, así que búsquedas distintas nunca comparten clave.
+ */
+public final class SearchCacheKey {
+
+    private SearchCacheKey() {
+    }
+
+    public static String of(long catalogVersion, ProductSearchFilter filter,
+                            int page, int size, String sortBy, String sortDirection, String variant) {
+        return "v" + catalogVersion + "|" + canonical(filter, page, size, sortBy, sortDirection, variant);
+    }
+
+    /**
+     * Forma canónica sin la versión del catálogo, para identificar la búsqueda en un ETag
+     */
+    public static String canonical(ProductSearchFilter filter,
+                                   int page, int size, String sortBy, String sortDirection, String variant) {
+        StringJoiner key = new StringJoiner("|");
+        addFilter(key, filter);
+        key.add(Integer.toString(page));
+        key.add(Integer.toString(size));
+        key.add(escape(sortBy));
+        key.add(sortBy == null || sortBy.isEmpty() ? "" : normalizeText(sortDirection));
+        key.add(escape(variant));
+        return key.toString();
+    }
+
+    private static void addFilter(StringJoiner key, ProductSearchFilter filter) {
+        key.add(normalizeText(filter.getSearchText()));
+        key.add(escape(filter.getCategory()));
+        key.add(normalizeValues(filter.getCategories()));
+        key.add(escape(filter.getBrand()));
+        key.add(normalizeValues(filter.getBrands()));
+        key.add(normalizePrice(filter.getMinPrice()));
+        key.add(normalizePrice(filter.getMaxPrice()));
+        key.add(filter.getInStock() == null ? "" : filter.getInStock().toString());
+        key.add(normalizeValues(filter.getTags()));
+        key.add(filter.getTagMatch() == null ? "" : filter.getTagMatch().name());
+        key.add(filter.getOnSale() == null ? "" : filter.getOnSale().toString());
+        key.add(filter.getMinDiscount() == null ? "" : filter.getMinDiscount().toString());
+        key.add(normalizeGroups(filter.getAnyOf()));
+    }
+
+    /**
+     * Los grupos anyOf se combinan con OR: su orden no cambia el resultado
+     */
+    private static String normalizeGroups(List<ProductSearchFilter> groups) {
+        if (groups == null || groups.isEmpty()) {
+            return "";
+        }
+        return String.join(",", groups.stream()
+                .map(group -> {
+                    StringJoiner key = new StringJoiner("|", "(", ")");
+                    addFilter(key, group);
+                    return key.toString();
+                })
+                .distinct()
+                .sorted()
+                .toList());
+    }
+
+    private static String normalizeText(String text) {
+        if (text == null) {
+            return "";
+        }
+        return escape(text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT));
+    }
+
+    private static String normalizePrice(BigDecimal price) {
+        return price == null ? "" : price.stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Orden y repetidos no cambian un $in o $all; los valores se conservan tal cual porque la consulta
+     * los compara sin recortar y " a" y "a" traen resultados distintos
+     */
+    private static String normalizeValues(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return "";
+        }
+        return String.join(",", values.stream()
+                .filter(Objects::nonNull)
+                .map(SearchCacheKey::escape)
+                .distinct()
+                .sorted()
+                .toList());
+    }
+
+    /**
+     * Antepone una barra invertida a los separadores de la clave y a la propia barra: así tags ["a,b"]
+     * y ["a","b"], o un texto que contenga "|", siguen dando claves distintas
+     */
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '|' || c == ',' || c == '(' || c == ')') {
+                if (escaped == null) {
+                    escaped = new StringBuilder(value.length() + 8).append(value, 0, i);
+                }
+                escaped.append('\\');
+            }
+            if (escaped != null) {
+                escaped.append(c);
+            }
+        }
+        return escaped == null ? value : escaped.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.walmart.ecommerce.application.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache de resultados de búsqueda por clave canónica.
+ * Las cargas concurrentes de una misma clave se agrupan (single-flight): el cache guarda el future de
+ * la carga en curso de forma atómica, solo el primer llamador ejecuta la consulta y el resto recibe
+ * ese mismo future. Las cargas que fallan o no retornan resultado no quedan en el cache.
+ */
+@Component
+public class SearchResultCache {
+
+    private final boolean enabled;
+    private final AsyncCache<String, Object> results;
+    private final LongAdder coalesced = new LongAdder();
+
+    public SearchResultCache(
+            @Value("${app.cache.search.enabled:true}") boolean enabled,
+            @Value("${app.cache.search.max-size:5000}") long maxSize,
+            @Value("${app.cache.search.ttl:60s}") Duration ttl) {
+        this.enabled = enabled;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Retorna el resultado cacheado para la clave o lo carga una única vez.
+     * La consulta corre en el hilo que llama, fuera del cómputo atómico del cache
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> future = results.get(key, (k, executor) -> mine);
+        if (future == mine) {
+            try {
+                mine.complete(loader.get());
+            } catch (RuntimeException e) {
+                mine.completeExceptionally(e);
+                throw e;
+            }
+        } else if (!future.isDone()) {
+            coalesced.increment();
+        }
+
+        try {
+            return (T) future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Variante no bloqueante de get: el cargador retorna un future y quienes piden
+     * la misma clave mientras se carga reciben ese mismo future en lugar de esperarlo
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> getAsync(String key, Supplier<CompletableFuture<T>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        boolean[] loaded = {false};
+        CompletableFuture<Object> future = results.get(key, (k, executor) -> {
+            loaded[0] = true;
+            return (CompletableFuture<Object>) loader.get();
+        });
+        if (!loaded[0] && !future.isDone()) {
+            coalesced.increment();
+        }
+        return (CompletableFuture<T>) future.thenApply(value -> value);
+    }
+
+    /**
+     * Estadísticas del cache
+     */
+    public CacheStats stats() {
+        return results.synchronous().stats();
+    }
+
+    /**
+     * Cantidad de cargas que se resolvieron esperando una carga en curso
+     */
+    public long coalescedLoads() {
+        return coalesced.sum();
+    }
+}
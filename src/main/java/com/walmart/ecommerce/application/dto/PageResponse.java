@@ -1,17 +1,19 @@
 package com.walmart.ecommerce.application.dto;
 
+import com.walmart.ecommerce.domain.repositories.FacetCount;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * DTO genérico para respuestas paginadas
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class PageResponse<T> {
@@ -19,8 +21,23 @@ public class PageResponse<T> {
     private List<T> content;
     private int page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
     private boolean first;
     private boolean last;
+
+    /**
+     * Estrategia con la que se obtuvo totalElements (exact, estimated, cached, none)
+     */
+    private String countStrategy;
+
+    /**
+     * Cursor opaco para pedir la página siguiente (solo en paginación por cursor)
+     */
+    private String nextCursor;
+
+    /**
+     * Conteos por valor de las facetas solicitadas, calculados sobre los mismos filtros
+     */
+    private Map<String, List<FacetCount>> facets;
 }
@@ -0,0 +1,28 @@
+package com.walmart.ecommerce.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta para la consulta de varios productos por ID
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchResponse {
+
+    /**
+     * Productos encontrados, en el orden en que se pidieron
+     */
+    private List<ProductResponse> products;
+
+    /**
+     * IDs pedidos que no existen
+     */
+    private List<String> missing;
+}
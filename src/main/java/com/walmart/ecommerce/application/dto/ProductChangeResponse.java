@@ -0,0 +1,35 @@
+package com.walmart.ecommerce.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO de un cambio del catálogo tal como se envía a los suscriptores externos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductChangeResponse {
+
+    private long sequence;
+
+    /**
+     * upsert, delete o reset
+     */
+    private String type;
+    private String productId;
+
+    /**
+     * Estado actual del producto (solo en upsert)
+     */
+    private ProductResponse product;
+    private Instant timestamp;
+    private String source;
+}
@@ -0,0 +1,64 @@
+package com.walmart.ecommerce.application.dto;
+
+import com.walmart.ecommerce.domain.repositories.TagMatch;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Grupo de filtros del cuerpo de POST /v1/products/search; todos sus filtros se combinan con AND.
+ * Las listas de categorías y marcas aceptan cualquiera de sus valores ($in).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFilterGroup {
+
+    private List<String> categories;
+    private List<String> brands;
+    private List<String> tags;
+
+    /**
+     * any (por defecto): alguno de los tags; all: todos
+     */
+    private String tagMatch;
+
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Boolean inStock;
+    private Boolean onSale;
+    private Integer minDiscount;
+
+    /**
+     * Filtro equivalente para la capa de aplicación
+     */
+    public ProductSearchFilter toFilter() {
+        return ProductSearchFilter.builder()
+                .categories(clean(categories))
+                .brands(clean(brands))
+                .tags(clean(tags))
+                .tagMatch(tagMatch != null ? TagMatch.from(tagMatch) : null)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStock(inStock)
+                .onSale(onSale)
+                .minDiscount(minDiscount)
+                .build();
+    }
+
+    private static List<String> clean(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        return values.stream()
+                .filter(value -> value != null && !value.isBlank())
+                .map(String::trim)
+                .distinct()
+                .toList();
+    }
+}
@@ -1,15 +1,27 @@
 package com.walmart.ecommerce.application.dto;
 
 import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.events.ProductChanged;
+import com.walmart.ecommerce.domain.repositories.CountedPage;
+import com.walmart.ecommerce.domain.repositories.ProductCriteria;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Mapper para convertir entre entidades de dominio y DTOs
  */
 @Component
 public class ProductMapper {
 
+    /**
+     * Límites de la búsqueda compuesta: cada grupo y cada valor agregan una rama al plan de MongoDB
+     */
+    static final int MAX_ANY_OF_GROUPS = 10;
+    static final int MAX_FILTER_VALUES = 100;
+
     /**
      * Convierte una entidad Product a ProductResponse
      */
@@ -31,6 +43,21 @@ public class ProductMapper {
                 .imageUrl(product.getImageUrl())
                 .available(product.isAvailable())
                 .discountPercentage(product.hasDiscount() ? product.getDiscountPercentage() : null)
+                .lastModified(product.getLastModified())
+                .build();
+    }
+
+    /**
+     * Convierte un cambio del catálogo a ProductChangeResponse
+     */
+    public ProductChangeResponse toChangeResponse(ProductChanged change) {
+        return ProductChangeResponse.builder()
+                .sequence(change.getSequence())
+                .type(change.getType().getKey())
+                .productId(change.getProductId())
+                .product(toResponse(change.getProduct()))
+                .timestamp(change.getTimestamp())
+                .source(change.getSource())
                 .build();
     }
 
@@ -48,6 +75,80 @@ public class ProductMapper {
                 .totalPages(page.getTotalPages())
                 .first(page.isFirst())
                 .last(page.isLast())
+                .countStrategy(page instanceof CountedPage<?> counted
+                        ? counted.getCountStrategy().name().toLowerCase()
+                        : null)
                 .build();
     }
+
+    /**
+     * Convierte una porción obtenida por cursor a PageResponse (sin totales)
+     */
+    public PageResponse<ProductResponse> toCursorPageResponse(Slice<Product> slice, boolean first, String nextCursor) {
+        return PageResponse.<ProductResponse>builder()
+                .content(slice.getContent().stream()
+                        .map(this::toResponse)
+                        .toList())
+                .size(slice.getSize())
+                .first(first)
+                .last(!slice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Convierte los filtros de búsqueda a criterios del dominio
+     */
+    public ProductCriteria toCriteria(ProductSearchFilter filter) {
+        Integer minDiscount = filter.getMinDiscount();
+        if (minDiscount != null && (minDiscount < 0 || minDiscount > 100)) {
+            throw new IllegalArgumentException("Descuento mínimo inválido: " + minDiscount + " (debe estar entre 0 y 100)");
+        }
+        checkValues("categories", filter.getCategories());
+        checkValues("brands", filter.getBrands());
+        checkValues("tags", filter.getTags());
+
+        List<ProductCriteria> anyOf = null;
+        if (filter.getAnyOf() != null && !filter.getAnyOf().isEmpty()) {
+            if (filter.getAnyOf().size() > MAX_ANY_OF_GROUPS) {
+                throw new IllegalArgumentException("anyOf admite como máximo " + MAX_ANY_OF_GROUPS + " grupos");
+            }
+            anyOf = filter.getAnyOf().stream().map(this::toGroupCriteria).toList();
+        }
+
+        return ProductCriteria.builder()
+                .searchText(filter.getSearchText())
+                .category(filter.getCategory())
+                .categories(filter.getCategories())
+                .brand(filter.getBrand())
+                .brands(filter.getBrands())
+                .minPrice(filter.getMinPrice())
+                .maxPrice(filter.getMaxPrice())
+                .inStock(filter.getInStock())
+                .tags(filter.getTags())
+                .tagMatch(filter.getTagMatch())
+                .onSale(filter.getOnSale())
+                .minDiscount(filter.getMinDiscount())
+                .anyOf(anyOf)
+                .build();
+    }
+
+    /**
+     * Un grupo de anyOf solo admite filtros simples: el texto y los grupos anidados van en el nivel superior
+     */
+    private ProductCriteria toGroupCriteria(ProductSearchFilter group) {
+        if (group == null || !group.hasFilters()) {
+            throw new IllegalArgumentException("Cada grupo de anyOf debe tener al menos un filtro");
+        }
+        if (group.getSearchText() != null || (group.getAnyOf() != null && !group.getAnyOf().isEmpty())) {
+            throw new IllegalArgumentException("Los grupos de anyOf no admiten search ni anyOf anidados");
+        }
+        return toCriteria(group);
+    }
+
+    private static void checkValues(String name, List<String> values) {
+        if (values != null && values.size() > MAX_FILTER_VALUES) {
+            throw new IllegalArgumentException(name + " admite como máximo " + MAX_FILTER_VALUES + " valores");
+        }
+    }
 }
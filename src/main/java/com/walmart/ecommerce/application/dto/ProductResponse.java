@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -31,4 +32,5 @@ public class ProductResponse {
     private String imageUrl;
     private Boolean available;
     private Integer discountPercentage;
+    private Instant lastModified;
 }
@@ -1,5 +1,6 @@
 package com.walmart.ecommerce.application.dto;
 
+import com.walmart.ecommerce.domain.repositories.TagMatch;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,7 +10,8 @@ import java.math.BigDecimal;
 import java.util.List;
 
 /**
- * DTO para recibir filtros de búsqueda de productos
+ * DTO para recibir filtros de búsqueda de productos.
+ * Los filtros se combinan con AND; anyOf agrega grupos de los que el producto debe cumplir al menos uno.
  */
 @Data
 @Builder
@@ -19,11 +21,17 @@ public class ProductSearchFilter {
 
     private String searchText;
     private String category;
+    private List<String> categories;
     private String brand;
+    private List<String> brands;
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
     private Boolean inStock;
     private List<String> tags;
+    private TagMatch tagMatch;
+    private Boolean onSale;
+    private Integer minDiscount;
+    private List<ProductSearchFilter> anyOf;
 
     /**
      * Verifica si hay filtros aplicados
@@ -31,10 +39,15 @@ public class ProductSearchFilter {
     public boolean hasFilters() {
         return searchText != null
             || category != null
+            || (categories != null && !categories.isEmpty())
             || brand != null
+            || (brands != null && !brands.isEmpty())
             || minPrice != null
             || maxPrice != null
             || inStock != null
-            || (tags != null && !tags.isEmpty());
+            || (tags != null && !tags.isEmpty())
+            || onSale != null
+            || minDiscount != null
+            || (anyOf != null && !anyOf.isEmpty());
     }
 }
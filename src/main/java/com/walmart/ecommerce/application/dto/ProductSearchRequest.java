@@ -0,0 +1,52 @@
+package com.walmart.ecommerce.application.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Cuerpo de POST /v1/products/search: filtros de nivel superior (AND), texto opcional y grupos anyOf
+ * de los que el producto debe cumplir al menos uno. Se compila a una única consulta, así que reemplaza
+ * las varias búsquedas GET que haría falta combinar en el cliente.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class ProductSearchRequest extends ProductFilterGroup {
+
+    private String search;
+    private List<ProductFilterGroup> anyOf;
+
+    private int page = 0;
+    private int size = 20;
+    private String sortBy;
+    private String sortDirection = "asc";
+    private String pagination = "offset";
+    private String cursor;
+    private String count;
+    private List<String> facets;
+
+    /**
+     * Filtro equivalente, con los grupos anyOf ya traducidos
+     */
+    @Override
+    public ProductSearchFilter toFilter() {
+        ProductSearchFilter filter = super.toFilter();
+        filter.setSearchText(search != null && !search.isBlank() ? search : null);
+        if (anyOf != null) {
+            filter.setAnyOf(anyOf.stream()
+                    .map(group -> {
+                        if (group == null) {
+                            throw new IllegalArgumentException("Los grupos de anyOf no pueden ser null");
+                        }
+                        return group.toFilter();
+                    })
+                    .toList());
+        }
+        return filter;
+    }
+}
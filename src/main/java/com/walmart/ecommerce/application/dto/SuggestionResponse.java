@@ -0,0 +1,26 @@
+package com.walmart.ecommerce.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de respuesta para una sugerencia de autocompletado
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionResponse {
+
+    /**
+     * Texto sugerido, tal como figura en el catálogo
+     */
+    private String text;
+
+    /**
+     * Origen de la sugerencia: product, brand, category o tag
+     */
+    private String type;
+}
@@ -0,0 +1,135 @@
+package com.walmart.ecommerce.application.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.ProductCursor;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Codifica y decodifica cursores opacos para la paginación keyset.
+ * El cursor es JSON en Base64 URL-safe con el campo de orden, la dirección,
+ * el valor tipado de la clave y el ID del último producto entregado.
+ */
+@Component
+public class ProductCursorCodec {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ObjectMapper objectMapper;
+
+    public ProductCursorCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Construye el cursor que apunta al producto dado según el ordenamiento solicitado
+     */
+    public ProductCursor cursorAfter(Product product, Sort sort) {
+        Sort.Order order = sort.stream().findFirst().orElse(null);
+        if (order == null) {
+            return new ProductCursor(null, Sort.Direction.ASC, null, product.getId());
+        }
+
+        String field = order.getProperty();
+        BeanWrapper wrapper = new BeanWrapperImpl(product);
+        // Un campo desconocido se comporta en MongoDB como ausente (null) en todos los documentos
+        Object value = wrapper.isReadableProperty(field) ? wrapper.getPropertyValue(field) : null;
+        if (value instanceof Collection<?>) {
+            throw new IllegalArgumentException("No se puede paginar por cursor ordenando por un campo multivalor: " + field);
+        }
+
+        return new ProductCursor(field, order.getDirection(), value, product.getId());
+    }
+
+    /**
+     * Serializa un cursor a su representación opaca
+     */
+    public String encode(ProductCursor cursor) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("f", cursor.getSortField());
+        node.put("d", cursor.getDirection().name());
+        node.put("id", cursor.getLastId());
+
+        Object value = cursor.getLastValue();
+        if (value == null) {
+            node.put("t", "N");
+        } else if (value instanceof BigDecimal decimal) {
+            node.put("t", "D").put("v", decimal.toPlainString());
+        } else if (value instanceof Integer number) {
+            node.put("t", "I").put("v", number.toString());
+        } else if (value instanceof Long number) {
+            node.put("t", "L").put("v", number.toString());
+        } else if (value instanceof Boolean flag) {
+            node.put("t", "B").put("v", flag.toString());
+        } else if (value instanceof Instant instant) {
+            node.put("t", "T").put("v", instant.toString());
+        } else {
+            node.put("t", "S").put("v", value.toString());
+        }
+
+        try {
+            return ENCODER.encodeToString(objectMapper.writeValueAsBytes(node));
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudo codificar el cursor", e);
+        }
+    }
+
+    /**
+     * Decodifica un cursor opaco y valida que corresponda al ordenamiento actual
+     */
+    public ProductCursor decode(String token, Sort sort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        ProductCursor cursor;
+        try {
+            JsonNode node = objectMapper.readTree(new String(DECODER.decode(token), StandardCharsets.UTF_8));
+            String field = node.path("f").isNull() ? null : node.path("f").asText(null);
+            Sort.Direction direction = Sort.Direction.valueOf(node.path("d").asText());
+            String id = node.path("id").asText(null);
+            String text = node.path("v").asText(null);
+
+            Object value = switch (node.path("t").asText()) {
+                case "N" -> null;
+                case "D" -> new BigDecimal(text);
+                case "I" -> Integer.valueOf(text);
+                case "L" -> Long.valueOf(text);
+                case "B" -> Boolean.valueOf(text);
+                case "T" -> Instant.parse(text);
+                case "S" -> text;
+                default -> throw new IllegalArgumentException("tipo desconocido");
+            };
+
+            if (id == null) {
+                throw new IllegalArgumentException("sin ID");
+            }
+            cursor = new ProductCursor(field, direction, value, id);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Cursor inválido: " + token);
+        }
+
+        Sort.Order order = sort.stream().findFirst().orElse(null);
+        String expectedField = order != null ? order.getProperty() : null;
+        Sort.Direction expectedDirection = order != null ? order.getDirection() : Sort.Direction.ASC;
+        if (!Objects.equals(expectedField, cursor.getSortField())
+                || expectedDirection != cursor.getDirection()) {
+            throw new IllegalArgumentException("El cursor no corresponde al ordenamiento solicitado");
+        }
+
+        return cursor;
+    }
+}
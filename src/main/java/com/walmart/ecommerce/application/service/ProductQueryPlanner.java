@@ -0,0 +1,125 @@
+package com.walmart.ecommerce.application.service;
+
+import com.walmart.ecommerce.application.dto.ProductSearchFilter;
+import com.walmart.ecommerce.domain.repositories.SortField;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Planifica el orden y la paginación de las búsquedas antes de que lleguen al repositorio.
+ * Solo acepta claves de orden con índice (o relevance con texto), acota el tamaño de página y
+ * rechaza los saltos (skip) que obligarían a MongoDB a recorrer y descartar demasiados documentos.
+ */
+@Component
+@Slf4j
+public class ProductQueryPlanner {
+
+    private final int maxPageSize;
+    private final long maxOffset;
+    private final long maxUnindexedOffset;
+
+    public ProductQueryPlanner(
+            @Value("${app.pagination.max-page-size:100}") int maxPageSize,
+            @Value("${app.pagination.max-offset:10000}") long maxOffset,
+            @Value("${app.pagination.max-unindexed-offset:1000}") long maxUnindexedOffset) {
+        this.maxPageSize = maxPageSize;
+        this.maxOffset = maxOffset;
+        this.maxUnindexedOffset = maxUnindexedOffset;
+    }
+
+    /**
+     * Página y orden de una búsqueda paginada por offset, validando su costo
+     */
+    public Pageable planPage(ProductSearchFilter filter, int page, int size, String sortBy, String sortDirection) {
+        checkSize(size);
+        if (page < 0) {
+            throw new IllegalArgumentException("page no puede ser negativo");
+        }
+
+        Sort sort = planSort(filter, sortBy, sortDirection);
+        long offset = (long) page * size;
+        long limit = isUnindexed(filter, sort) ? maxUnindexedOffset : maxOffset;
+        if (offset > limit) {
+            throw new IllegalArgumentException("La página " + page + " salta " + offset
+                    + " productos y el máximo para esta búsqueda es " + limit
+                    + "; usa pagination=cursor para recorrer resultados más profundos");
+        }
+        return PageRequest.of(page, size, sort);
+    }
+
+    /**
+     * Orden de una búsqueda paginada por cursor; la relevancia no tiene un valor estable para el cursor
+     */
+    public Sort planCursorSort(ProductSearchFilter filter, int size, String sortBy, String sortDirection) {
+        checkSize(size);
+        Sort sort = planSort(filter, sortBy, sortDirection);
+        if (SortField.isRelevance(sort)) {
+            throw new IllegalArgumentException("sortBy=relevance no admite pagination=cursor");
+        }
+        return sort;
+    }
+
+    /**
+     * Traduce sortBy a su campo indexado. relevance sin texto de búsqueda no tiene puntuación
+     * y se reescribe al orden por defecto
+     */
+    public Sort planSort(ProductSearchFilter filter, String sortBy, String sortDirection) {
+        if (sortBy == null || sortBy.isBlank()) {
+            return Sort.unsorted();
+        }
+
+        SortField field = SortField.from(sortBy);
+        if (field == SortField.RELEVANCE) {
+            if (!hasSearchText(filter)) {
+                log.debug("sortBy=relevance sin texto de búsqueda: se usa el orden por defecto");
+                return Sort.unsorted();
+            }
+            return SortField.relevance();
+        }
+
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortDirection)
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+        return Sort.by(direction, field.getPath());
+    }
+
+    private void checkSize(int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("size debe estar entre 1 y " + maxPageSize);
+        }
+    }
+
+    /**
+     * true si MongoDB no puede apoyarse en un índice para acotar el salto: la búsqueda de texto ordenada
+     * por un campo ordena en memoria todas las coincidencias, los grupos anyOf unen varias ramas que
+     * se ordenan en memoria, y tags es el único filtro sin índice
+     */
+    private static boolean isUnindexed(ProductSearchFilter filter, Sort sort) {
+        if (hasSearchText(filter)) {
+            return sort.isSorted() && !SortField.isRelevance(sort);
+        }
+        if (filter.getAnyOf() != null && !filter.getAnyOf().isEmpty()) {
+            return true;
+        }
+        boolean onlyTags = filter.getTags() != null && !filter.getTags().isEmpty()
+                && filter.getCategory() == null && filter.getBrand() == null
+                && isEmpty(filter.getCategories()) && isEmpty(filter.getBrands())
+                && filter.getMinPrice() == null && filter.getMaxPrice() == null
+                && filter.getInStock() == null && filter.getOnSale() == null && filter.getMinDiscount() == null;
+        return onlyTags;
+    }
+
+    private static boolean isEmpty(List<String> values) {
+        return values == null || values.isEmpty();
+    }
+
+    private static boolean hasSearchText(ProductSearchFilter filter) {
+        return filter.getSearchText() != null && !filter.getSearchText().isBlank();
+    }
+}
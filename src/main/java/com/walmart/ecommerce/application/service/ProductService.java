@@ -1,22 +1,39 @@
 package com.walmart.ecommerce.application.service;
 
+import com.walmart.ecommerce.application.cache.CatalogVersion;
+import com.walmart.ecommerce.application.cache.SearchCacheKey;
+import com.walmart.ecommerce.application.cache.SearchResultCache;
 import com.walmart.ecommerce.application.dto.PageResponse;
+import com.walmart.ecommerce.application.dto.ProductBatchResponse;
 import com.walmart.ecommerce.application.dto.ProductMapper;
 import com.walmart.ecommerce.application.dto.ProductResponse;
 import com.walmart.ecommerce.application.dto.ProductSearchFilter;
 import com.walmart.ecommerce.domain.entities.Product;
 import com.walmart.ecommerce.domain.exceptions.ProductNotFoundException;
+import com.walmart.ecommerce.domain.repositories.CountStrategy;
+import com.walmart.ecommerce.domain.repositories.FacetCount;
+import com.walmart.ecommerce.domain.repositories.FacetField;
+import com.walmart.ecommerce.domain.repositories.ProductCursor;
 import com.walmart.ecommerce.domain.repositories.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 /**
  * Servicio de aplicación que orquesta la lógica de negocio del ecommerce.
  */
@@ -27,10 +44,40 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final ProductCursorCodec cursorCodec;
+    private final SearchResultCache searchResultCache;
+    private final CatalogVersion catalogVersion;
+    private final ProductQueryPlanner queryPlanner;
+    private final CountStrategy defaultCountStrategy;
+    private final int maxBatchSize;
+    private final Timer pageMapperTimer;
+    private final Timer cursorMapperTimer;
 
-    public ProductService(ProductRepository productRepository, ProductMapper productMapper) {
+    public ProductService(ProductRepository productRepository, ProductMapper productMapper,
+                          ProductCursorCodec cursorCodec, SearchResultCache searchResultCache,
+                          CatalogVersion catalogVersion, ProductQueryPlanner queryPlanner,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.search.count-strategy:exact}") String defaultCountStrategy,
+                          @Value("${app.batch.max-size:100}") int maxBatchSize) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
+        this.cursorCodec = cursorCodec;
+        this.searchResultCache = searchResultCache;
+        this.catalogVersion = catalogVersion;
+        this.queryPlanner = queryPlanner;
+        this.defaultCountStrategy = defaultCountStrategy != null
+                ? CountStrategy.from(defaultCountStrategy)
+                : CountStrategy.EXACT;
+        this.maxBatchSize = maxBatchSize;
+        this.pageMapperTimer = mapperTimer(meterRegistry, "page");
+        this.cursorMapperTimer = mapperTimer(meterRegistry, "cursor");
+    }
+
+    private static Timer mapperTimer(MeterRegistry meterRegistry, String pagination) {
+        return Timer.builder("catalog.mapper")
+                .description("Duración del mapeo de una página de productos a DTOs")
+                .tag("pagination", pagination)
+                .register(meterRegistry);
     }
 
     /**
@@ -45,6 +92,60 @@ public class ProductService {
         return productMapper.toResponse(product);
     }
 
+    /**
+     * Obtiene varios productos por ID en una sola consulta.
+     * Respeta el orden pedido e informa los IDs inexistentes sin fallar.
+     */
+    public ProductBatchResponse findByIds(List<String> ids) {
+        List<String> requested = requestedIds(ids, maxBatchSize);
+
+        log.debug("Buscando {} productos por ID", requested.size());
+
+        return toBatchResponse(requested, productRepository.findAllById(requested), productMapper);
+    }
+
+    /**
+     * IDs pedidos sin vacíos ni duplicados, validando el máximo por consulta
+     */
+    static List<String> requestedIds(List<String> ids, int maxBatchSize) {
+        List<String> requested = ids.stream()
+                .filter(id -> id != null && !id.isBlank())
+                .map(String::trim)
+                .distinct()
+                .toList();
+
+        if (requested.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                    "Se pidieron " + requested.size() + " productos; el máximo por consulta es " + maxBatchSize);
+        }
+        return requested;
+    }
+
+    /**
+     * Arma la respuesta del lote en el orden pedido, informando los IDs que no se encontraron
+     */
+    static ProductBatchResponse toBatchResponse(List<String> requested, Iterable<Product> foundProducts,
+                                                ProductMapper productMapper) {
+        Map<String, Product> found = new HashMap<>();
+        foundProducts.forEach(product -> found.put(product.getId(), product));
+
+        List<ProductResponse> products = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : requested) {
+            Product product = found.get(id);
+            if (product != null) {
+                products.add(productMapper.toResponse(product));
+            } else {
+                missing.add(id);
+            }
+        }
+
+        return ProductBatchResponse.builder()
+                .products(products)
+                .missing(missing)
+                .build();
+    }
+
     /**
      * Busca productos aplicando filtros y paginación
      */
@@ -54,31 +155,107 @@ public class ProductService {
             int size,
             String sortBy,
             String sortDirection) {
+        return searchProducts(filter, page, size, sortBy, sortDirection, null);
+    }
+
+    /**
+     * Busca productos aplicando filtros y paginación con la estrategia de conteo indicada;
+     * si es null se usa la configurada en app.search.count-strategy
+     */
+    public PageResponse<ProductResponse> searchProducts(
+            ProductSearchFilter filter,
+            int page,
+            int size,
+            String sortBy,
+            String sortDirection,
+            CountStrategy countStrategy) {
         
+        CountStrategy strategy = countStrategy != null ? countStrategy : defaultCountStrategy;
+        // Las búsquedas con orden no indexado o saltos demasiado profundos se rechazan antes de consultar
+        Pageable pageable = queryPlanner.planPage(filter, page, size, sortBy, sortDirection);
+
+        // La versión se lee antes de consultar: si hay una escritura durante la carga,
+        // el resultado queda bajo la versión anterior y no se vuelve a servir
+        String key = SearchCacheKey.of(catalogVersion.current(), filter, page, size, sortBy, sortDirection,
+                strategy.name());
+
+        return searchResultCache.get(key, () -> loadProducts(filter, pageable, strategy));
+    }
+
+    /**
+     * Ejecuta la búsqueda contra el repositorio
+     */
+    private PageResponse<ProductResponse> loadProducts(
+            ProductSearchFilter filter,
+            Pageable pageable,
+            CountStrategy strategy) {
+
         log.debug("Buscando productos con filtros: {}", filter);
 
-        Pageable pageable = createPageable(page, size, sortBy, sortDirection);
-        
         Page<Product> productPage;
         
         if (filter.hasFilters()) {
-            productPage = productRepository.findByFilters(
-                    filter.getSearchText(),
-                    filter.getCategory(),
-                    filter.getBrand(),
-                    filter.getMinPrice(),
-                    filter.getMaxPrice(),
-                    filter.getInStock(),
-                    filter.getTags(),
-                    pageable
-            );
+            productPage = productRepository.findByFilters(productMapper.toCriteria(filter), pageable, strategy);
         } else {
-            productPage = productRepository.findAll(pageable);
+            productPage = productRepository.findAll(pageable, strategy);
         }
 
         log.debug("Se encontraron {} productos", productPage.getTotalElements());
         
-        return productMapper.toPageResponse(productPage);
+        return pageMapperTimer.record(() -> productMapper.toPageResponse(productPage));
+    }
+
+    /**
+     * Busca productos con paginación por cursor (keyset).
+     * El costo de cada página es independiente de su profundidad porque no usa skip.
+     */
+    public PageResponse<ProductResponse> searchProductsByCursor(
+            ProductSearchFilter filter,
+            String cursor,
+            int size,
+            String sortBy,
+            String sortDirection) {
+
+        log.debug("Buscando productos por cursor con filtros: {}", filter);
+
+        Sort sort = queryPlanner.planCursorSort(filter, size, sortBy, sortDirection);
+        ProductCursor after = cursorCodec.decode(cursor, sort);
+
+        Slice<Product> slice = productRepository.findByCriteriaAfter(
+                productMapper.toCriteria(filter), after, size, sort);
+
+        String nextCursor = null;
+        if (slice.hasNext() && slice.hasContent()) {
+            List<Product> content = slice.getContent();
+            nextCursor = cursorCodec.encode(cursorCodec.cursorAfter(content.get(content.size() - 1), sort));
+        }
+
+        String next = nextCursor;
+        return cursorMapperTimer.record(() -> productMapper.toCursorPageResponse(slice, after == null, next));
+    }
+
+    /**
+     * Recorre todos los productos que cumplen los filtros para exportarlos sin paginar.
+     * El stream mantiene abierto un cursor de MongoDB y debe cerrarse al terminar.
+     */
+    public Stream<ProductResponse> exportProducts(ProductSearchFilter filter, String sortBy, String sortDirection) {
+        log.debug("Exportando productos con filtros: {}", filter);
+
+        return productRepository.streamByCriteria(productMapper.toCriteria(filter),
+                        queryPlanner.planSort(filter, sortBy, sortDirection))
+                .map(productMapper::toResponse);
+    }
+
+    /**
+     * Calcula los conteos de las facetas solicitadas para los filtros de la búsqueda
+     */
+    public Map<String, List<FacetCount>> getFacets(ProductSearchFilter filter, Set<FacetField> facets) {
+        log.debug("Calculando facetas {} con filtros: {}", facets, filter);
+
+        Map<String, List<FacetCount>> result = new LinkedHashMap<>();
+        productRepository.computeFacets(productMapper.toCriteria(filter), facets)
+                .forEach((field, counts) -> result.put(field.getKey(), counts));
+        return result;
     }
 
     /**
@@ -95,22 +272,6 @@ public class ProductService {
         return productRepository.findDistinctBrands();
     }
 
-    /**
-     * Crea un Pageable con ordenamiento
-     */
-    private Pageable createPageable(int page, int size, String sortBy, String sortDirection) {
-        Sort sort = Sort.unsorted();
-        
-        if (sortBy != null && !sortBy.isEmpty()) {
-            Sort.Direction direction = "desc".equalsIgnoreCase(sortDirection) 
-                    ? Sort.Direction.DESC 
-                    : Sort.Direction.ASC;
-            sort = Sort.by(direction, sortBy);
-        }
-        
-        return PageRequest.of(page, size, sort);
-    }
-
     /**
      * Excepción personalizada para producto no encontrado
      */
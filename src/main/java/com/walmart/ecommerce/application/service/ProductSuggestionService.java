@@ -0,0 +1,48 @@
+package com.walmart.ecommerce.application.service;
+
+import com.walmart.ecommerce.application.dto.SuggestionResponse;
+import com.walmart.ecommerce.domain.repositories.SuggestionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Servicio de aplicación para el autocompletado del buscador.
+ */
+@Service
+@Slf4j
+public class ProductSuggestionService {
+
+    private final SuggestionRepository suggestionRepository;
+    private final int maxResults;
+
+    public ProductSuggestionService(SuggestionRepository suggestionRepository,
+                                    @Value("${app.search.suggest.max-results:10}") int maxResults) {
+        this.suggestionRepository = suggestionRepository;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Sugerencias para el texto ingresado hasta el momento, de la más a la menos popular
+     */
+    public List<SuggestionResponse> suggest(String query, int limit) {
+        if (limit < 1 || limit > maxResults) {
+            throw new IllegalArgumentException(
+                    "La cantidad de sugerencias debe estar entre 1 y " + maxResults + ": " + limit);
+        }
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+
+        log.debug("Sugerencias para: {}", query);
+
+        return suggestionRepository.findByPrefix(query, limit).stream()
+                .map(suggestion -> SuggestionResponse.builder()
+                        .text(suggestion.getText())
+                        .type(suggestion.getType().getKey())
+                        .build())
+                .toList();
+    }
+}
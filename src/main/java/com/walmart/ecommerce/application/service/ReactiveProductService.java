@@ -0,0 +1,189 @@
+package com.walmart.ecommerce.application.service;
+
+import com.walmart.ecommerce.application.cache.CatalogVersion;
+import com.walmart.ecommerce.application.cache.SearchCacheKey;
+import com.walmart.ecommerce.application.cache.SearchResultCache;
+import com.walmart.ecommerce.application.dto.PageResponse;
+import com.walmart.ecommerce.application.dto.ProductBatchResponse;
+import com.walmart.ecommerce.application.dto.ProductMapper;
+import com.walmart.ecommerce.application.dto.ProductResponse;
+import com.walmart.ecommerce.application.dto.ProductSearchFilter;
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.CountStrategy;
+import com.walmart.ecommerce.domain.repositories.FacetCount;
+import com.walmart.ecommerce.domain.repositories.FacetField;
+import com.walmart.ecommerce.domain.repositories.ProductCursor;
+import com.walmart.ecommerce.domain.repositories.ReactiveProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Servicio de aplicación de la API reactiva: mismas reglas que ProductService
+ * (cache de búsquedas, cursor, lotes) sobre el repositorio no bloqueante.
+ */
+@Service
+@Profile("reactive")
+@Slf4j
+public class ReactiveProductService {
+
+    private final ReactiveProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ProductCursorCodec cursorCodec;
+    private final SearchResultCache searchResultCache;
+    private final CatalogVersion catalogVersion;
+    private final ProductQueryPlanner queryPlanner;
+    private final CountStrategy defaultCountStrategy;
+    private final int maxBatchSize;
+
+    public ReactiveProductService(ReactiveProductRepository productRepository, ProductMapper productMapper,
+                                  ProductCursorCodec cursorCodec, SearchResultCache searchResultCache,
+                                  CatalogVersion catalogVersion, ProductQueryPlanner queryPlanner,
+                                  @Value("${app.search.count-strategy:exact}") String defaultCountStrategy,
+                                  @Value("${app.batch.max-size:100}") int maxBatchSize) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.cursorCodec = cursorCodec;
+        this.searchResultCache = searchResultCache;
+        this.catalogVersion = catalogVersion;
+        this.queryPlanner = queryPlanner;
+        this.defaultCountStrategy = defaultCountStrategy != null
+                ? CountStrategy.from(defaultCountStrategy)
+                : CountStrategy.EXACT;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Obtiene un producto por su ID
+     */
+    public Mono<ProductResponse> findById(String id) {
+        log.debug("Buscando producto con ID: {}", id);
+
+        return productRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ProductService.ProductNotFoundException(
+                        "Producto no encontrado: " + id)))
+                .map(productMapper::toResponse);
+    }
+
+    /**
+     * Obtiene varios productos por ID en una sola consulta, en el orden pedido
+     */
+    public Mono<ProductBatchResponse> findByIds(List<String> ids) {
+        return Mono.fromCallable(() -> ProductService.requestedIds(ids, maxBatchSize))
+                .flatMap(requested -> productRepository.findAllById(requested)
+                        .collectList()
+                        .map(found -> ProductService.toBatchResponse(requested, found, productMapper)));
+    }
+
+    /**
+     * Busca productos aplicando filtros y paginación con la estrategia de conteo indicada;
+     * las búsquedas iguales en curso comparten una única consulta
+     */
+    public Mono<PageResponse<ProductResponse>> searchProducts(
+            ProductSearchFilter filter,
+            int page,
+            int size,
+            String sortBy,
+            String sortDirection,
+            CountStrategy countStrategy) {
+
+        CountStrategy strategy = countStrategy != null ? countStrategy : defaultCountStrategy;
+
+        return Mono.defer(() -> {
+            Pageable pageable = queryPlanner.planPage(filter, page, size, sortBy, sortDirection);
+            String key = SearchCacheKey.of(catalogVersion.current(), filter, page, size, sortBy, sortDirection,
+                    strategy.name());
+            return Mono.fromFuture(() -> searchResultCache.getAsync(key,
+                    () -> loadProducts(filter, pageable, strategy).toFuture()));
+        });
+    }
+
+    private Mono<PageResponse<ProductResponse>> loadProducts(
+            ProductSearchFilter filter,
+            Pageable pageable,
+            CountStrategy strategy) {
+
+        log.debug("Buscando productos con filtros: {}", filter);
+
+        return productRepository.findByFilters(productMapper.toCriteria(filter), pageable, strategy)
+                .map(productMapper::toPageResponse);
+    }
+
+    /**
+     * Busca productos con paginación por cursor (keyset)
+     */
+    public Mono<PageResponse<ProductResponse>> searchProductsByCursor(
+            ProductSearchFilter filter,
+            String cursor,
+            int size,
+            String sortBy,
+            String sortDirection) {
+
+        log.debug("Buscando productos por cursor con filtros: {}", filter);
+
+        return Mono.defer(() -> {
+            Sort sort = queryPlanner.planCursorSort(filter, size, sortBy, sortDirection);
+            ProductCursor after = cursorCodec.decode(cursor, sort);
+
+            return productRepository.findByCriteriaAfter(productMapper.toCriteria(filter), after, size, sort)
+                    .map(slice -> {
+                        String nextCursor = null;
+                        if (slice.hasNext() && slice.hasContent()) {
+                            List<Product> content = slice.getContent();
+                            nextCursor = cursorCodec.encode(
+                                    cursorCodec.cursorAfter(content.get(content.size() - 1), sort));
+                        }
+                        return productMapper.toCursorPageResponse(slice, after == null, nextCursor);
+                    });
+        });
+    }
+
+    /**
+     * Emite todos los productos que cumplen los filtros, al ritmo en que el cliente los consume
+     */
+    public Flux<ProductResponse> exportProducts(ProductSearchFilter filter, String sortBy, String sortDirection) {
+        log.debug("Exportando productos con filtros: {}", filter);
+
+        return Flux.defer(() -> productRepository.streamByCriteria(productMapper.toCriteria(filter),
+                        queryPlanner.planSort(filter, sortBy, sortDirection)))
+                .map(productMapper::toResponse);
+    }
+
+    /**
+     * Calcula los conteos de las facetas solicitadas para los filtros de la búsqueda
+     */
+    public Mono<Map<String, List<FacetCount>>> getFacets(ProductSearchFilter filter, Set<FacetField> facets) {
+        log.debug("Calculando facetas {} con filtros: {}", facets, filter);
+
+        return productRepository.computeFacets(productMapper.toCriteria(filter), facets)
+                .map(counts -> {
+                    Map<String, List<FacetCount>> result = new LinkedHashMap<>();
+                    counts.forEach((field, values) -> result.put(field.getKey(), values));
+                    return result;
+                });
+    }
+
+    /**
+     * Obtiene todas las categorías disponibles
+     */
+    public Mono<List<String>> getCategories() {
+        return productRepository.findDistinctCategories().collectList();
+    }
+
+    /**
+     * Obtiene todas las marcas disponibles
+     */
+    public Mono<List<String>> getBrands() {
+        return productRepository.findDistinctBrands().collectList();
+    }
+}
@@ -8,8 +8,12 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -26,6 +30,10 @@ public class Product {
     @Id
     private String id;
 
+    /**
+     * Además del índice de texto, un índice simple para ordenar por nombre
+     */
+    @Indexed
     @TextIndexed(weight = 2)
     private String name;
 
@@ -38,8 +46,15 @@ public class Product {
     @Indexed
     private String brand;
 
+    /**
+     * Los precios se guardan como Decimal128 (por defecto BigDecimal se guardaría como texto):
+     * los rangos y el orden por precio son numéricos y usan el índice
+     */
+    @Indexed
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal price;
 
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal oldPrice;
 
     @Indexed
@@ -49,6 +64,21 @@ public class Product {
 
     private String imageUrl;
 
+    /**
+     * Modelo de lectura: se calculan al guardar a partir de price y oldPrice
+     * para poder filtrar y ordenar por ofertas con índices
+     */
+    @Indexed
+    private Boolean onSale;
+
+    @Indexed
+    private Integer discountPercentage;
+
+    /**
+     * Momento de la última escritura del producto
+     */
+    private Instant lastModified;
+
     /**
      * Verifica si el producto está disponible en stock
      */
@@ -60,19 +90,35 @@ public class Product {
      * Verifica si el producto tiene descuento
      */
     public boolean hasDiscount() {
-        return oldPrice != null && oldPrice.compareTo(price) > 0;
+        return onSale != null ? onSale : computeHasDiscount();
     }
 
     /**
-     * Calcula el porcentaje de descuento
+     * Porcentaje de descuento guardado; los documentos anteriores al modelo de lectura lo calculan
      */
     public Integer getDiscountPercentage() {
-        if (!hasDiscount()) {
+        return discountPercentage != null ? discountPercentage : computeDiscountPercentage();
+    }
+
+    /**
+     * Recalcula los campos derivados del precio antes de guardar el producto
+     */
+    public void refreshReadModel() {
+        onSale = computeHasDiscount();
+        discountPercentage = computeDiscountPercentage();
+    }
+
+    private boolean computeHasDiscount() {
+        return oldPrice != null && price != null && oldPrice.compareTo(price) > 0;
+    }
+
+    private int computeDiscountPercentage() {
+        if (!computeHasDiscount()) {
             return 0;
         }
         BigDecimal discount = oldPrice.subtract(price);
         return discount.multiply(BigDecimal.valueOf(100))
-                .divide(oldPrice, 0, BigDecimal.ROUND_HALF_UP)
+                .divide(oldPrice, 0, RoundingMode.HALF_UP)
                 .intValue();
     }
 }
@@ -0,0 +1,35 @@
+package com.walmart.ecommerce.domain.events;
+
+/**
+ * Tipo de cambio sobre el catálogo.
+ */
+public enum ProductChangeType {
+
+    /**
+     * Producto creado o reemplazado; el evento lleva su estado actual
+     */
+    UPSERT("upsert"),
+
+    /**
+     * Producto eliminado
+     */
+    DELETE("delete"),
+
+    /**
+     * El catálogo se vació o se perdió la continuidad: los consumidores deben resincronizar
+     */
+    RESET("reset");
+
+    private final String key;
+
+    ProductChangeType(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Nombre del tipo tal como se expone en la API
+     */
+    public String getKey() {
+        return key;
+    }
+}
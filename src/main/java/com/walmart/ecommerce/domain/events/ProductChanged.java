@@ -0,0 +1,45 @@
+package com.walmart.ecommerce.domain.events;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Cambio sobre un producto del catálogo. Los eventos se emiten en orden de sequence y el
+ * resumeToken permite a un suscriptor retomar el flujo después del último evento que procesó.
+ */
+@Value
+@Builder
+public class ProductChanged {
+
+    /**
+     * Posición del evento en el flujo de esta instancia
+     */
+    long sequence;
+
+    /**
+     * Token para retomar después de este evento: el de MongoDB si viene de un change stream
+     */
+    String resumeToken;
+
+    ProductChangeType type;
+
+    /**
+     * null en los eventos RESET
+     */
+    String productId;
+
+    /**
+     * Estado actual del producto; solo en los eventos UPSERT
+     */
+    Product product;
+
+    Instant timestamp;
+
+    /**
+     * Origen del evento: change-stream (cualquier instancia) o adapter (escrituras de esta instancia)
+     */
+    String source;
+}
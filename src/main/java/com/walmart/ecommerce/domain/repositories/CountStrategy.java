@@ -0,0 +1,42 @@
+package com.walmart.ecommerce.domain.repositories;
+
+import java.util.Locale;
+
+/**
+ * Estrategia para obtener el total de elementos de una búsqueda paginada.
+ */
+public enum CountStrategy {
+
+    /**
+     * Conteo exacto con una consulta count sobre los mismos filtros
+     */
+    EXACT,
+
+    /**
+     * Conteo aproximado desde la metadata de la colección; solo aplica sin filtros
+     * y en otro caso se resuelve como EXACT
+     */
+    ESTIMATED,
+
+    /**
+     * Conteo exacto cacheado por filtro normalizado durante un TTL
+     */
+    CACHED,
+
+    /**
+     * Sin conteo: se pide un elemento extra para saber si hay página siguiente
+     * y el total informado es una cota inferior
+     */
+    NONE;
+
+    /**
+     * Obtiene la estrategia a partir de su nombre, sin distinguir mayúsculas
+     */
+    public static CountStrategy from(String value) {
+        try {
+            return CountStrategy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Estrategia de conteo inválida: " + value);
+        }
+    }
+}
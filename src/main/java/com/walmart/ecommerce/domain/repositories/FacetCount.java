@@ -0,0 +1,14 @@
+package com.walmart.ecommerce.domain.repositories;
+
+import lombok.Value;
+
+/**
+ * Cantidad de productos que tienen un valor de faceta.
+ * Para la faceta de precio el valor es el rango del bucket (por ejemplo "25-50").
+ */
+@Value
+public class FacetCount {
+
+    String value;
+    long count;
+}
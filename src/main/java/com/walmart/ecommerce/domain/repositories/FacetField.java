@@ -0,0 +1,40 @@
+package com.walmart.ecommerce.domain.repositories;
+
+import java.util.Locale;
+
+/**
+ * Campos sobre los que se pueden calcular conteos de facetas.
+ */
+public enum FacetField {
+
+    CATEGORY("category"),
+    BRAND("brand"),
+    TAGS("tags"),
+    PRICE("price");
+
+    private final String key;
+
+    FacetField(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Nombre de la faceta tal como se expone en la API
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Obtiene la faceta a partir de su nombre, sin distinguir mayúsculas
+     */
+    public static FacetField from(String value) {
+        String normalized = value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+        for (FacetField field : values()) {
+            if (field.key.equals(normalized)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Faceta inválida: " + value);
+    }
+}
@@ -0,0 +1,96 @@
+package com.walmart.ecommerce.domain.repositories;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Criterios de filtrado de productos expresados en términos del dominio.
+ * Permite que el repositorio reciba los filtros sin depender de los DTOs de la aplicación.
+ * Los filtros se combinan con AND; anyOf agrega grupos de los que el producto debe cumplir al menos uno.
+ */
+@Value
+@Builder(toBuilder = true)
+public class ProductCriteria {
+
+    String searchText;
+    String category;
+    List<String> categories;
+    String brand;
+    List<String> brands;
+    BigDecimal minPrice;
+    BigDecimal maxPrice;
+    Boolean inStock;
+    List<String> tags;
+    TagMatch tagMatch;
+    Boolean onSale;
+    Integer minDiscount;
+    List<ProductCriteria> anyOf;
+
+    /**
+     * Criterios vacíos (sin filtros)
+     */
+    public static ProductCriteria empty() {
+        return ProductCriteria.builder().build();
+    }
+
+    /**
+     * Categorías aceptadas, uniendo category y categories sin repetidos
+     */
+    public List<String> categoryValues() {
+        return values(category, categories);
+    }
+
+    /**
+     * Marcas aceptadas, uniendo brand y brands sin repetidos
+     */
+    public List<String> brandValues() {
+        return values(brand, brands);
+    }
+
+    /**
+     * true si el producto debe tener todos los tags y no solo alguno
+     */
+    public boolean matchAllTags() {
+        return tagMatch == TagMatch.ALL;
+    }
+
+    /**
+     * true si hay grupos alternativos (OR)
+     */
+    public boolean hasAnyOf() {
+        return anyOf != null && !anyOf.isEmpty();
+    }
+
+    /**
+     * Verifica si hay filtros aplicados
+     */
+    public boolean hasFilters() {
+        return searchText != null
+            || !categoryValues().isEmpty()
+            || !brandValues().isEmpty()
+            || minPrice != null
+            || maxPrice != null
+            || inStock != null
+            || (tags != null && !tags.isEmpty())
+            || onSale != null
+            || minDiscount != null
+            || hasAnyOf();
+    }
+
+    private static List<String> values(String single, List<String> many) {
+        Set<String> values = new LinkedHashSet<>();
+        if (single != null && !single.isEmpty()) {
+            values.add(single);
+        }
+        if (many != null) {
+            many.stream().filter(value -> value != null && !value.isEmpty()).forEach(values::add);
+        }
+        return new ArrayList<>(values);
+    }
+}
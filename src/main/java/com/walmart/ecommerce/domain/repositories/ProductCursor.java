@@ -0,0 +1,27 @@
+package com.walmart.ecommerce.domain.repositories;
+
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Posición dentro de un listado ordenado para paginación por cursor (keyset).
+ * Guarda el valor de la clave de ordenamiento y el ID del último producto entregado,
+ * de modo que la siguiente página se obtiene con un rango en lugar de un skip.
+ */
+@Value
+public class ProductCursor {
+
+    /**
+     * Campo de ordenamiento; null cuando el listado se ordena solo por ID
+     */
+    String sortField;
+
+    Sort.Direction direction;
+
+    /**
+     * Valor de la clave de ordenamiento del último producto (puede ser null)
+     */
+    Object lastValue;
+
+    String lastId;
+}
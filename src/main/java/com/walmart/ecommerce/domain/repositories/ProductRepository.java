@@ -3,10 +3,16 @@ package com.walmart.ecommerce.domain.repositories;
 import com.walmart.ecommerce.domain.entities.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Repositorio del dominio para la entidad Product.
@@ -24,25 +30,51 @@ public interface ProductRepository {
      */
     List<Product> saveAll(List<Product> products);
 
+    /**
+     * Inserta o reemplaza un lote de productos por ID en una única operación bulk sin orden.
+     * Retorna la cantidad de productos escritos.
+     */
+    int bulkUpsert(List<Product> products);
+
     /**
      * Busca un producto por su ID
      */
     Optional<Product> findById(String id);
 
+    /**
+     * Busca varios productos por ID en una sola consulta.
+     * Los IDs inexistentes se omiten y el orden del resultado no está garantizado.
+     */
+    List<Product> findAllById(Collection<String> ids);
+
     /**
      * Obtiene todos los productos paginados
      */
-    Page<Product> findAll(Pageable pageable);
+    default Page<Product> findAll(Pageable pageable) {
+        return findAll(pageable, CountStrategy.EXACT);
+    }
+
+    /**
+     * Obtiene todos los productos paginados calculando el total con la estrategia indicada
+     */
+    CountedPage<Product> findAll(Pageable pageable, CountStrategy countStrategy);
 
     /**
      * Busca productos por texto en nombre o descripción
      */
-    Page<Product> searchByText(String searchText, Pageable pageable);
+    default Page<Product> searchByText(String searchText, Pageable pageable) {
+        return searchByText(searchText, pageable, CountStrategy.EXACT);
+    }
+
+    /**
+     * Busca productos por texto calculando el total con la estrategia indicada
+     */
+    CountedPage<Product> searchByText(String searchText, Pageable pageable, CountStrategy countStrategy);
 
     /**
      * Busca productos aplicando filtros múltiples
      */
-    Page<Product> findByFilters(
+    default Page<Product> findByFilters(
             String searchText,
             String category,
             String brand,
@@ -51,7 +83,42 @@ public interface ProductRepository {
             Boolean inStock,
             List<String> tags,
             Pageable pageable
-    );
+    ) {
+        ProductCriteria criteria = ProductCriteria.builder()
+                .searchText(searchText)
+                .category(category)
+                .brand(brand)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStock(inStock)
+                .tags(tags)
+                .build();
+        return findByFilters(criteria, pageable, CountStrategy.EXACT);
+    }
+
+    /**
+     * Busca productos aplicando filtros múltiples y calculando el total con la estrategia indicada
+     */
+    CountedPage<Product> findByFilters(ProductCriteria criteria, Pageable pageable, CountStrategy countStrategy);
+
+    /**
+     * Busca productos con paginación por cursor (keyset).
+     * Retorna hasta {@code size} productos posteriores a {@code after} según {@code sort};
+     * el ID se usa como desempate para que el orden sea total y estable.
+     */
+    Slice<Product> findByCriteriaAfter(ProductCriteria criteria, ProductCursor after, int size, Sort sort);
+
+    /**
+     * Recorre con un cursor todos los productos que cumplen los criterios, sin paginar.
+     * El stream mantiene el cursor abierto, por lo que debe cerrarse al terminar.
+     */
+    Stream<Product> streamByCriteria(ProductCriteria criteria, Sort sort);
+
+    /**
+     * Calcula los conteos por valor de las facetas indicadas para los productos
+     * que cumplen los criterios
+     */
+    Map<FacetField, List<FacetCount>> computeFacets(ProductCriteria criteria, Set<FacetField> facets);
 
     /**
      * Cuenta el total de productos
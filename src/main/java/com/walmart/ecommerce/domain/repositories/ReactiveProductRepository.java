@@ -0,0 +1,62 @@
+package com.walmart.ecommerce.domain.repositories;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Variante no bloqueante del repositorio de productos para la API reactiva.
+ * Cubre las lecturas del catálogo; las escrituras siguen pasando por ProductRepository.
+ */
+public interface ReactiveProductRepository {
+
+    /**
+     * Busca un producto por su ID
+     */
+    Mono<Product> findById(String id);
+
+    /**
+     * Busca varios productos por ID en una sola consulta.
+     * Los IDs inexistentes se omiten y el orden del resultado no está garantizado.
+     */
+    Flux<Product> findAllById(Collection<String> ids);
+
+    /**
+     * Busca productos aplicando filtros múltiples y calculando el total con la estrategia indicada;
+     * la página y el total se consultan en paralelo
+     */
+    Mono<CountedPage<Product>> findByFilters(ProductCriteria criteria, Pageable pageable, CountStrategy countStrategy);
+
+    /**
+     * Busca productos con paginación por cursor (keyset)
+     */
+    Mono<Slice<Product>> findByCriteriaAfter(ProductCriteria criteria, ProductCursor after, int size, Sort sort);
+
+    /**
+     * Emite todos los productos que cumplen los criterios, sin paginar y con contrapresión
+     */
+    Flux<Product> streamByCriteria(ProductCriteria criteria, Sort sort);
+
+    /**
+     * Calcula los conteos por valor de las facetas indicadas
+     */
+    Mono<Map<FacetField, List<FacetCount>>> computeFacets(ProductCriteria criteria, Set<FacetField> facets);
+
+    /**
+     * Obtiene todas las categorías únicas
+     */
+    Flux<String> findDistinctCategories();
+
+    /**
+     * Obtiene todas las marcas únicas
+     */
+    Flux<String> findDistinctBrands();
+}
@@ -0,0 +1,72 @@
+package com.walmart.ecommerce.domain.repositories;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Claves de orden que acepta la búsqueda, cada una asociada al campo indexado que la resuelve.
+ * RELEVANCE ordena por la puntuación de la búsqueda de texto y no corresponde a ningún campo.
+ */
+public enum SortField {
+
+    RELEVANCE("relevance", null),
+    PRICE("price", "price"),
+    NAME("name", "name"),
+    STOCK("stock", "stock"),
+    DISCOUNT("discountPercentage", "discountPercentage"),
+    CATEGORY("category", "category"),
+    BRAND("brand", "brand"),
+    ID("id", "id");
+
+    private final String key;
+    private final String path;
+
+    SortField(String key, String path) {
+        this.key = key;
+        this.path = path;
+    }
+
+    /**
+     * Nombre de la clave tal como se recibe en sortBy
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Campo del producto por el que se ordena; null para RELEVANCE
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Obtiene la clave a partir de sortBy, sin distinguir mayúsculas
+     */
+    public static SortField from(String value) {
+        String normalized = value == null ? "" : value.trim();
+        for (SortField field : values()) {
+            if (field.key.equalsIgnoreCase(normalized)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Orden inválido: " + value + ". Valores permitidos: "
+                + Arrays.stream(values()).map(SortField::getKey).collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * Indica si el orden pedido es por relevancia de la búsqueda de texto
+     */
+    public static boolean isRelevance(Sort sort) {
+        return sort.getOrderFor(RELEVANCE.key) != null;
+    }
+
+    /**
+     * Orden por relevancia, tal como viaja hasta los repositorios
+     */
+    public static Sort relevance() {
+        return Sort.by(Sort.Direction.DESC, RELEVANCE.key);
+    }
+}
@@ -0,0 +1,15 @@
+package com.walmart.ecommerce.domain.repositories;
+
+import lombok.Value;
+
+/**
+ * Texto sugerido para completar una búsqueda, con su peso de ranking
+ * (popularidad estimada a partir del stock de los productos que lo contienen).
+ */
+@Value
+public class Suggestion {
+
+    String text;
+    SuggestionType type;
+    double weight;
+}
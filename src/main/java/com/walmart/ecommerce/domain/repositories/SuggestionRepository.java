@@ -0,0 +1,15 @@
+package com.walmart.ecommerce.domain.repositories;
+
+import java.util.List;
+
+/**
+ * Puerto de salida para el autocompletado de búsquedas.
+ */
+public interface SuggestionRepository {
+
+    /**
+     * Sugerencias cuyo texto tiene una palabra que empieza con el prefijo,
+     * ordenadas por peso descendente
+     */
+    List<Suggestion> findByPrefix(String prefix, int limit);
+}
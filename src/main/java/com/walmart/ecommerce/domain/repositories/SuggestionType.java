@@ -0,0 +1,25 @@
+package com.walmart.ecommerce.domain.repositories;
+
+/**
+ * Origen de una sugerencia de autocompletado.
+ */
+public enum SuggestionType {
+
+    PRODUCT("product"),
+    BRAND("brand"),
+    CATEGORY("category"),
+    TAG("tag");
+
+    private final String key;
+
+    SuggestionType(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Nombre del tipo tal como se expone en la API
+     */
+    public String getKey() {
+        return key;
+    }
+}
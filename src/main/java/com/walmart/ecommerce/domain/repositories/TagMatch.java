@@ -0,0 +1,30 @@
+package com.walmart.ecommerce.domain.repositories;
+
+import java.util.Locale;
+
+/**
+ * Cómo se combinan los tags de un filtro.
+ */
+public enum TagMatch {
+
+    /**
+     * El producto tiene al menos uno de los tags
+     */
+    ANY,
+
+    /**
+     * El producto tiene todos los tags
+     */
+    ALL;
+
+    /**
+     * Obtiene el modo a partir de su nombre, sin distinguir mayúsculas
+     */
+    public static TagMatch from(String value) {
+        try {
+            return TagMatch.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Modo de tags inválido: " + value + " (debe ser any o all)");
+        }
+    }
+}
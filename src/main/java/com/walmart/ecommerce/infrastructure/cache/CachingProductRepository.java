@@ -0,0 +1,302 @@
+package com.walmart.ecommerce.infrastructure.cache;
+
+import com.walmart.ecommerce.application.cache.CatalogVersion;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.events.ProductChangeType;
+import com.walmart.ecommerce.domain.events.ProductChanged;
+import com.walmart.ecommerce.domain.repositories.CountStrategy;
+import com.walmart.ecommerce.domain.repositories.CountedPage;
+import com.walmart.ecommerce.domain.repositories.FacetCount;
+import com.walmart.ecommerce.domain.repositories.FacetField;
+import com.walmart.ecommerce.domain.repositories.ProductCriteria;
+import com.walmart.ecommerce.domain.repositories.ProductCursor;
+import com.walmart.ecommerce.domain.repositories.ProductRepository;
+import com.walmart.ecommerce.infrastructure.events.ProductChangeFeed;
+import com.walmart.ecommerce.infrastructure.persistence.CatalogRevision;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Decorador de ProductRepository que cachea las lecturas por ID en dos niveles:
+ * un cache local acotado (Caffeine, política W-TinyLFU) y un cache compartido opcional.
+ * Las escrituras invalidan las entradas afectadas en ambos niveles y en el cache de respuestas
+ * serializadas, e incrementan la versión del catálogo que usan los caches derivados y la revisión
+ * compartida que forma los ETag.
+ */
+@Repository
+@Primary
+@Slf4j
+public class CachingProductRepository implements ProductRepository {
+
+    private final ProductRepository delegate;
+    private final SharedProductCache sharedCache;
+    private final CatalogVersion catalogVersion;
+    private final CatalogRevision catalogRevision;
+    private final EncodedResponseCache responseCache;
+    private final Cache<String, Product> localCache;
+
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder sharedMisses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public CachingProductRepository(
+            @Qualifier("productStore") ProductRepository delegate,
+            ObjectProvider<SharedProductCache> sharedCache,
+            CatalogVersion catalogVersion,
+            CatalogRevision catalogRevision,
+            EncodedResponseCache responseCache,
+            @Value("${app.cache.product.max-size:10000}") long maxSize,
+            @Value("${app.cache.product.ttl:10m}") Duration ttl) {
+        this.delegate = delegate;
+        this.sharedCache = sharedCache.getIfAvailable();
+        this.catalogVersion = catalogVersion;
+        this.catalogRevision = catalogRevision;
+        this.responseCache = responseCache;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Optional<Product> findById(String id) {
+        Product cached = localCache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        // La versión se toma antes de leer: si una escritura la cambia mientras tanto,
+        // lo leído puede ser anterior a ella y no se guarda
+        long version = catalogVersion.current();
+        if (sharedCache != null) {
+            Optional<Product> shared = sharedCache.get(id);
+            if (shared.isPresent()) {
+                sharedHits.increment();
+                cacheLocally(List.of(shared.get()), version);
+                return shared;
+            }
+            sharedMisses.increment();
+        }
+
+        Optional<Product> product = delegate.findById(id);
+        product.ifPresent(found -> cacheLoaded(List.of(found), version));
+        return product;
+    }
+
+    @Override
+    public List<Product> findAllById(Collection<String> ids) {
+        Map<String, Product> found = new HashMap<>(localCache.getAllPresent(ids));
+
+        long version = catalogVersion.current();
+        List<String> pending = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (sharedCache != null && !pending.isEmpty()) {
+            Map<String, Product> shared = sharedCache.getAll(pending);
+            sharedHits.add(shared.size());
+            sharedMisses.add(pending.size() - shared.size());
+            cacheLocally(shared.values(), version);
+            found.putAll(shared);
+            pending = pending.stream().filter(id -> !shared.containsKey(id)).toList();
+        }
+
+        if (!pending.isEmpty()) {
+            List<Product> loaded = delegate.findAllById(pending);
+            loaded.forEach(product -> found.put(product.getId(), product));
+            cacheLoaded(loaded, version);
+        }
+
+        return new ArrayList<>(found.values());
+    }
+
+    @Override
+    public Product save(Product product) {
+        Product saved = delegate.save(product);
+        evict(List.of(saved));
+        return saved;
+    }
+
+    @Override
+    public List<Product> saveAll(List<Product> products) {
+        List<Product> saved = delegate.saveAll(products);
+        evict(saved);
+        return saved;
+    }
+
+    @Override
+    public int bulkUpsert(List<Product> products) {
+        int written = delegate.bulkUpsert(products);
+        evict(products);
+        return written;
+    }
+
+    @Override
+    public void deleteAll() {
+        delegate.deleteAll();
+        invalidateAll();
+        catalogRevision.advance();
+    }
+
+    @Override
+    public CountedPage<Product> findAll(Pageable pageable, CountStrategy countStrategy) {
+        return delegate.findAll(pageable, countStrategy);
+    }
+
+    @Override
+    public CountedPage<Product> searchByText(String searchText, Pageable pageable, CountStrategy countStrategy) {
+        return delegate.searchByText(searchText, pageable, countStrategy);
+    }
+
+    @Override
+    public CountedPage<Product> findByFilters(ProductCriteria criteria, Pageable pageable, CountStrategy countStrategy) {
+        return delegate.findByFilters(criteria, pageable, countStrategy);
+    }
+
+    @Override
+    public Slice<Product> findByCriteriaAfter(ProductCriteria criteria, ProductCursor after, int size, Sort sort) {
+        return delegate.findByCriteriaAfter(criteria, after, size, sort);
+    }
+
+    @Override
+    public Stream<Product> streamByCriteria(ProductCriteria criteria, Sort sort) {
+        return delegate.streamByCriteria(criteria, sort);
+    }
+
+    @Override
+    public Map<FacetField, List<FacetCount>> computeFacets(ProductCriteria criteria, Set<FacetField> facets) {
+        return delegate.computeFacets(criteria, facets);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public List<String> findDistinctCategories() {
+        return delegate.findDistinctCategories();
+    }
+
+    @Override
+    public List<String> findDistinctBrands() {
+        return delegate.findDistinctBrands();
+    }
+
+    /**
+     * Estadísticas de ambos niveles del cache
+     */
+    public ProductCacheStats stats() {
+        CacheStats local = localCache.stats();
+        return ProductCacheStats.builder()
+                .localSize(localCache.estimatedSize())
+                .localHits(local.hitCount())
+                .localMisses(local.missCount())
+                .localEvictions(local.evictionCount())
+                .localHitRate(local.hitRate())
+                .sharedType(sharedCache != null ? sharedCache.type() : "none")
+                .sharedHits(sharedHits.sum())
+                .sharedMisses(sharedMisses.sum())
+                .invalidations(invalidations.sum())
+                .build();
+    }
+
+    /**
+     * Los cambios que llegan por el change stream pueden venir de otras instancias y se invalidan
+     * igual que una escritura local; los de esta instancia ya se invalidaron y repetirlo es barato
+     */
+    @EventListener
+    public void onProductChanged(ProductChanged change) {
+        if (!ProductChangeFeed.SOURCE_CHANGE_STREAM.equals(change.getSource())) {
+            return;
+        }
+        if (change.getType() == ProductChangeType.RESET) {
+            invalidateAll();
+        } else if (change.getProductId() != null) {
+            evictIds(List.of(change.getProductId()));
+        }
+    }
+
+    /**
+     * Guarda en el cache local productos leídos con la versión dada, salvo que una escritura la haya
+     * cambiado. Las escrituras incrementan la versión antes de invalidar, así que si cambia justo
+     * después de guardar, la entrada recién puesta se retira aquí o la retira la invalidación
+     */
+    private boolean cacheLocally(Collection<Product> products, long version) {
+        if (catalogVersion.current() != version) {
+            return false;
+        }
+        products.forEach(product -> localCache.put(product.getId(), product));
+        if (catalogVersion.current() != version) {
+            products.forEach(product -> localCache.asMap().remove(product.getId(), product));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Guarda en ambos niveles productos leídos del repositorio con la versión dada
+     */
+    private void cacheLoaded(List<Product> products, long version) {
+        if (!cacheLocally(products, version) || sharedCache == null) {
+            return;
+        }
+        products.forEach(sharedCache::put);
+        if (catalogVersion.current() != version) {
+            sharedCache.evict(products.stream().map(Product::getId).toList());
+        }
+    }
+
+    /**
+     * Invalida lo escrito por esta instancia; las escrituras de otras llegan por onProductChanged
+     * y su revisión la incrementa quien escribió
+     */
+    private void evict(List<Product> products) {
+        evictIds(products.stream()
+                .map(Product::getId)
+                .filter(Objects::nonNull)
+                .toList());
+        catalogRevision.advance();
+    }
+
+    private void evictIds(List<String> ids) {
+        catalogVersion.bump();
+        localCache.invalidateAll(ids);
+        responseCache.evictProducts(ids);
+        if (sharedCache != null) {
+            sharedCache.evict(ids);
+        }
+        invalidations.add(ids.size());
+    }
+
+    private void invalidateAll() {
+        catalogVersion.bump();
+        localCache.invalidateAll();
+        responseCache.clear();
+        if (sharedCache != null) {
+            sharedCache.clear();
+        }
+        invalidations.increment();
+    }
+}
@@ -0,0 +1,32 @@
+package com.walmart.ecommerce.infrastructure.cache;
+
+import lombok.Value;
+
+/**
+ * Respuesta ya serializada (JSON en UTF-8 o CBOR), con su versión gzip opcional y un ETag fuerte
+ * calculado sobre los bytes sin comprimir
+ */
+@Value
+public class EncodedResponse {
+
+    byte[] body;
+    /**
+     * null si la respuesta es demasiado chica para que comprimirla valga la pena
+     */
+    byte[] gzip;
+    String etag;
+
+    /**
+     * ETag de la versión gzip: un ETag fuerte identifica bytes exactos, así que cada codificación lleva el suyo
+     */
+    public String getGzipEtag() {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    /**
+     * Memoria que ocupa en el cache
+     */
+    int weight() {
+        return body.length + (gzip != null ? gzip.length : 0) + etag.length();
+    }
+}
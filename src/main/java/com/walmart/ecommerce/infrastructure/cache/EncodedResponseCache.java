@@ -0,0 +1,172 @@
+package com.walmart.ecommerce.infrastructure.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.walmart.ecommerce.application.cache.CatalogVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache de respuestas ya serializadas para productos, páginas de búsqueda y listados del catálogo, una entrada
+ * por formato (JSON o CBOR). Un acierto se responde copiando los bytes, sin pasar por Jackson. Las entradas de producto se
+ * invalidan desde CachingProductRepository junto con los demás niveles; las de búsqueda y las del
+ * catálogo incluyen la versión del catálogo en la clave, igual que el cache de resultados.
+ */
+@Component
+public class EncodedResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final CatalogVersion catalogVersion;
+    private final boolean enabled;
+    private final int gzipMinSize;
+    private final Cache<String, EncodedResponse> responses;
+
+    public EncodedResponseCache(
+            ObjectMapper objectMapper,
+            MappingJackson2CborHttpMessageConverter cborConverter,
+            CatalogVersion catalogVersion,
+            @Value("${app.cache.response.enabled:true}") boolean enabled,
+            @Value("${app.cache.response.max-size:64MB}") DataSize maxSize,
+            @Value("${app.cache.response.ttl:10m}") Duration ttl,
+            @Value("${app.cache.response.gzip-min-size:1KB}") DataSize gzipMinSize) {
+        this.objectMapper = objectMapper;
+        // El mismo mapper que usa el conversor: los endpoints sin cache codifican igual
+        this.cborMapper = cborConverter.getObjectMapper();
+        this.catalogVersion = catalogVersion;
+        this.enabled = enabled;
+        this.gzipMinSize = (int) gzipMinSize.toBytes();
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, EncodedResponse response) -> response.weight())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Clave de un producto por ID
+     */
+    public static String productKey(String id) {
+        return "product|" + id;
+    }
+
+    /**
+     * Clave de una página de búsqueda; la clave canónica ya incluye la versión del catálogo
+     */
+    public static String searchKey(String searchKey) {
+        return "search|" + searchKey;
+    }
+
+    /**
+     * Clave de una respuesta derivada del catálogo (lotes, sugerencias, categorías, marcas); la versión
+     * en la clave deja atrás las entradas anteriores a cada escritura
+     */
+    public static String catalogKey(long version, String canonical) {
+        return "catalog|" + version + "|" + canonical;
+    }
+
+    /**
+     * Retorna la respuesta serializada en JSON o la carga y serializa una vez
+     */
+    public EncodedResponse get(String key, Supplier<?> loader) {
+        return get(key, ResponseFormat.JSON, loader);
+    }
+
+    /**
+     * Retorna la respuesta serializada en el formato pedido o la carga y serializa una vez
+     */
+    public EncodedResponse get(String key, ResponseFormat format, Supplier<?> loader) {
+        String formatKey = formatKey(format, key);
+        if (enabled) {
+            EncodedResponse cached = responses.getIfPresent(formatKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        long version = catalogVersion.current();
+        EncodedResponse encoded = encode(loader.get(), format);
+        if (enabled) {
+            responses.put(formatKey, encoded);
+            // Si hubo una escritura mientras se cargaba, la invalidación pudo llegar antes del put
+            if (catalogVersion.current() != version) {
+                responses.invalidate(formatKey);
+            }
+        }
+        return encoded;
+    }
+
+    /**
+     * Invalida las respuestas de los productos indicados en todos los formatos;
+     * se llama después de incrementar la versión
+     */
+    public void evictProducts(Collection<String> ids) {
+        responses.invalidateAll(ids.stream()
+                .flatMap(id -> Arrays.stream(ResponseFormat.values()).map(format -> formatKey(format, productKey(id))))
+                .toList());
+    }
+
+    /**
+     * Invalida todas las respuestas
+     */
+    public void clear() {
+        responses.invalidateAll();
+    }
+
+    /**
+     * Estadísticas del cache
+     */
+    public CacheStats stats() {
+        return responses.stats();
+    }
+
+    /**
+     * Bytes ocupados por las respuestas cacheadas
+     */
+    public long weightedSize() {
+        return responses.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+    private static String formatKey(ResponseFormat format, String key) {
+        return format == ResponseFormat.JSON ? key : format.name() + "|" + key;
+    }
+
+    private EncodedResponse encode(Object value, ResponseFormat format) {
+        try {
+            ObjectMapper mapper = format == ResponseFormat.CBOR ? cborMapper : objectMapper;
+            byte[] body = mapper.writeValueAsBytes(value);
+            byte[] gzip = body.length >= gzipMinSize ? gzip(body) : null;
+            return new EncodedResponse(body, gzip, "\"0" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
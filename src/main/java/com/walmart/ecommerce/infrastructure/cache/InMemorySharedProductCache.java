@@ -0,0 +1,59 @@
+package com.walmart.ecommerce.infrastructure.cache;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache compartido en memoria del proceso.
+ * Reemplaza a Redis en desarrollo y tests manteniendo el mismo contrato.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.shared.type", havingValue = "in-memory")
+public class InMemorySharedProductCache implements SharedProductCache {
+
+    private final Map<String, Product> products = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<Product> get(String id) {
+        return Optional.ofNullable(products.get(id));
+    }
+
+    @Override
+    public Map<String, Product> getAll(Collection<String> ids) {
+        Map<String, Product> found = new HashMap<>();
+        for (String id : ids) {
+            Product product = products.get(id);
+            if (product != null) {
+                found.put(id, product);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void put(Product product) {
+        products.put(product.getId(), product);
+    }
+
+    @Override
+    public void evict(Collection<String> ids) {
+        ids.forEach(products::remove);
+    }
+
+    @Override
+    public void clear() {
+        products.clear();
+    }
+
+    @Override
+    public String type() {
+        return "in-memory";
+    }
+}
@@ -0,0 +1,22 @@
+package com.walmart.ecommerce.infrastructure.cache;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Estadísticas del cache de productos por ID
+ */
+@Value
+@Builder
+public class ProductCacheStats {
+
+    long localSize;
+    long localHits;
+    long localMisses;
+    long localEvictions;
+    double localHitRate;
+    String sharedType;
+    long sharedHits;
+    long sharedMisses;
+    long invalidations;
+}
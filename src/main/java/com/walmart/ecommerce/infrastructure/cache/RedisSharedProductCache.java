@@ -0,0 +1,120 @@
+package com.walmart.ecommerce.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.ecommerce.domain.entities.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache compartido en Redis. Guarda cada producto como JSON con TTL.
+ * Los errores de Redis se registran y se tratan como fallo de cache para no afectar las lecturas.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.shared.type", havingValue = "redis")
+@Slf4j
+public class RedisSharedProductCache implements SharedProductCache {
+
+    private static final String KEY_PREFIX = "catalog:product:";
+    private static final int CLEAR_BATCH_SIZE = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+
+    public RedisSharedProductCache(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${app.cache.shared.ttl:30m}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Optional<Product> get(String id) {
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + id);
+            return json == null ? Optional.empty() : Optional.of(objectMapper.readValue(json, Product.class));
+        } catch (Exception e) {
+            log.warn("Error leyendo producto {} de Redis: {}", id, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Map<String, Product> getAll(Collection<String> ids) {
+        Map<String, Product> found = new HashMap<>();
+        try {
+            List<String> keys = new ArrayList<>(ids);
+            List<String> values = redisTemplate.opsForValue().multiGet(keys.stream().map(id -> KEY_PREFIX + id).toList());
+            for (int i = 0; values != null && i < values.size(); i++) {
+                if (values.get(i) != null) {
+                    found.put(keys.get(i), objectMapper.readValue(values.get(i), Product.class));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Error leyendo productos de Redis: {}", e.getMessage());
+        }
+        return found;
+    }
+
+    @Override
+    public void put(Product product) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + product.getId(), objectMapper.writeValueAsString(product), ttl);
+        } catch (Exception e) {
+            log.warn("Error guardando producto {} en Redis: {}", product.getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void evict(Collection<String> ids) {
+        try {
+            redisTemplate.delete(ids.stream().map(id -> KEY_PREFIX + id).toList());
+        } catch (Exception e) {
+            log.warn("Error invalidando productos en Redis: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recorre las claves con SCAN y las borra en lotes: a diferencia de KEYS no bloquea un Redis compartido
+     * mientras recorre todo el keyspace
+     */
+    @Override
+    public void clear() {
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(CLEAR_BATCH_SIZE).build();
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            List<String> batch = new ArrayList<>(CLEAR_BATCH_SIZE);
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == CLEAR_BATCH_SIZE) {
+                    redisTemplate.delete(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                redisTemplate.delete(batch);
+            }
+        } catch (Exception e) {
+            log.warn("Error limpiando productos en Redis: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public String type() {
+        return "redis";
+    }
+}
@@ -0,0 +1,46 @@
+package com.walmart.ecommerce.infrastructure.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * Formatos en que se sirven las respuestas de productos.
+ * CBOR es la alternativa binaria para consumidores internos; su esquema se publica en
+ * /schemas/product-response.cddl.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ResponseFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR);
+
+    private final MediaType mediaType;
+
+    /**
+     * Elige el formato según el header Accept. CBOR solo se usa si el cliente lo pide
+     * explícitamente con más prioridad que JSON; comodines y valores inválidos quedan en JSON.
+     */
+    public static ResponseFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+
+        double cbor = 0;
+        double json = 0;
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                    cbor = Math.max(cbor, type.getQualityValue());
+                } else if (type.includes(MediaType.APPLICATION_JSON)) {
+                    json = Math.max(json, type.getQualityValue());
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        return cbor > json ? CBOR : JSON;
+    }
+}
@@ -0,0 +1,43 @@
+package com.walmart.ecommerce.infrastructure.cache;
+
+import com.walmart.ecommerce.domain.entities.Product;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Segundo nivel de cache de productos, compartido entre instancias de la aplicación.
+ */
+public interface SharedProductCache {
+
+    /**
+     * Busca un producto en el cache compartido
+     */
+    Optional<Product> get(String id);
+
+    /**
+     * Busca varios productos en el cache compartido; retorna solo los encontrados
+     */
+    Map<String, Product> getAll(Collection<String> ids);
+
+    /**
+     * Guarda un producto en el cache compartido
+     */
+    void put(Product product);
+
+    /**
+     * Elimina los productos indicados del cache compartido
+     */
+    void evict(Collection<String> ids);
+
+    /**
+     * Elimina todos los productos del cache compartido
+     */
+    void clear();
+
+    /**
+     * Nombre de la implementación, para estadísticas
+     */
+    String type();
+}
@@ -0,0 +1,38 @@
+package com.walmart.ecommerce.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Conversor CBOR para las respuestas pedidas con Accept: application/cbor.
+ * Parte del mismo builder que el ObjectMapper de JSON (módulos, inclusión non_null) y solo cambia
+ * las fechas a epoch en milisegundos. No se registra como ObjectMapper para no desplazar al de JSON.
+ */
+@Configuration
+public class CborConfig {
+
+    /**
+     * Con string-refs activado los nombres de campo y valores repetidos se envían una sola vez
+     * (tags 256/25 de la extensión stringref); achica el payload pero el consumidor debe soportarla
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder,
+            @Value("${app.cbor.string-refs:false}") boolean stringRefs) {
+        CBORFactory factory = CBORFactory.builder()
+                .configure(CBORGenerator.Feature.STRINGREF, stringRefs)
+                .build();
+        ObjectMapper cborMapper = builder.factory(factory)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .featuresToDisable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .build();
+        return new MappingJackson2CborHttpMessageConverter(cborMapper);
+    }
+}
@@ -1,9 +1,8 @@
 package com.walmart.ecommerce.infrastructure.config;
 
-import com.walmart.ecommerce.domain.entities.Product;
 import com.walmart.ecommerce.domain.repositories.ProductRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.ecommerce.infrastructure.ingest.CatalogIngestService;
+import com.walmart.ecommerce.infrastructure.ingest.IngestReport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -11,11 +10,10 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
-import java.util.List;
 
 /**
  * Inicializador de datos de prueba.
- * Carga productos desde catalog.json al iniciar la aplicación.
+ * Carga productos desde catalog.json al iniciar la aplicación usando la carga masiva en streaming.
  */
 @Component
 @RequiredArgsConstructor
@@ -23,7 +21,7 @@ import java.util.List;
 public class DataInitializer implements CommandLineRunner {
 
     private final ProductRepository productRepository;
-    private final ObjectMapper objectMapper;
+    private final CatalogIngestService catalogIngestService;
 
     @Override
     public void run(String... args) throws Exception {
@@ -38,18 +36,11 @@ public class DataInitializer implements CommandLineRunner {
     }
 
     private void loadInitialData() {
-        try {
-            ClassPathResource resource = new ClassPathResource("catalog.json");
-            InputStream inputStream = resource.getInputStream();
-            
-            List<Product> products = objectMapper.readValue(
-                    inputStream,
-                    new TypeReference<>() {
-                    }
-            );
-            
-            productRepository.saveAll(products);
-            log.info("Se cargaron {} productos exitosamente", products.size());
+        ClassPathResource resource = new ClassPathResource("catalog.json");
+        try (InputStream inputStream = resource.getInputStream()) {
+            IngestReport report = catalogIngestService.ingest(inputStream);
+            log.info("Se cargaron {} productos exitosamente ({} rechazados)",
+                    report.getWritten(), report.getRejected());
             
         } catch (Exception e) {
             log.error("Error cargando datos iniciales", e);
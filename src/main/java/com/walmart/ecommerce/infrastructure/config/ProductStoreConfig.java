@@ -0,0 +1,23 @@
+package com.walmart.ecommerce.infrastructure.config;
+
+import com.walmart.ecommerce.domain.repositories.ProductRepository;
+import com.walmart.ecommerce.infrastructure.search.IndexedProductRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Define el repositorio de productos que decora el cache.
+ * Por defecto es el adaptador de MongoDB; con el perfil "in-memory-search"
+ * lo reemplaza IndexedProductRepository.
+ */
+@Configuration
+public class ProductStoreConfig {
+
+    @Bean(IndexedProductRepository.BEAN_NAME)
+    @Profile("!" + IndexedProductRepository.PROFILE)
+    public ProductRepository productStore(@Qualifier("productRepositoryAdapter") ProductRepository adapter) {
+        return adapter;
+    }
+}
@@ -0,0 +1,21 @@
+package com.walmart.ecommerce.infrastructure.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Servidor de la API reactiva.
+ * Con Tomcat en el classpath Spring Boot lo elegiría también para WebFlux;
+ * el perfil reactive corre sobre Netty, con un event loop en lugar de un hilo por petición.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveServerConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,23 @@
+package com.walmart.ecommerce.infrastructure.config;
+
+import org.springframework.boot.actuate.data.redis.RedisHealthIndicator;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+/**
+ * Chequeo de salud de Redis solo cuando es el cache compartido (app.cache.shared.type=redis).
+ * El indicador automático está desactivado en application.yml: con otro tipo no hay Redis que
+ * consultar y /actuator/health quedaría DOWN.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.shared.type", havingValue = "redis")
+public class RedisHealthConfig {
+
+    @Bean
+    public HealthIndicator redisHealthIndicator(RedisConnectionFactory connectionFactory) {
+        return new RedisHealthIndicator(connectionFactory);
+    }
+}
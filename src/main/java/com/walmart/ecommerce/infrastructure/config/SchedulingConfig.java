@@ -0,0 +1,12 @@
+package com.walmart.ecommerce.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas periódicas, como la reconciliación del índice de facetas contra MongoDB
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
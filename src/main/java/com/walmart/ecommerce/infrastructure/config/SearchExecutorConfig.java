@@ -0,0 +1,27 @@
+package com.walmart.ecommerce.infrastructure.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * Ejecutor para las consultas de búsqueda que se lanzan en paralelo (página y total).
+ * Solo existe con spring.threads.virtual.enabled en JDK 21: con hilos virtuales cada búsqueda
+ * puede ocupar un hilo extra sin agotar un pool; con hilos de plataforma se consulta en serie.
+ */
+@Configuration
+public class SearchExecutorConfig {
+
+    public static final String SEARCH_QUERY_EXECUTOR = "searchQueryExecutor";
+
+    @Bean(SEARCH_QUERY_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor searchQueryExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("search-query-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
@@ -0,0 +1,202 @@
+package com.walmart.ecommerce.infrastructure.events;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.events.ProductChangeType;
+import com.walmart.ecommerce.domain.events.ProductChanged;
+import com.walmart.ecommerce.infrastructure.persistence.ProductWriteListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Flujo ordenado de cambios del catálogo. Los eventos llegan del change stream de MongoDB cuando
+ * está activo y, si no, de las escrituras que notifica ProductRepositoryAdapter.
+ * Cada evento se publica como ProductChanged en el contexto de Spring (basta un @EventListener para
+ * consumirlo) y a los suscriptores externos; los últimos eventos quedan en un buffer para retomar.
+ * Los @EventListener corren fuera del lock del flujo, así que uno lento (como una resincronización)
+ * no frena a quienes publican; igual reciben los eventos en orden de secuencia.
+ */
+@Component
+@Slf4j
+public class ProductChangeFeed implements ProductWriteListener {
+
+    public static final String SOURCE_CHANGE_STREAM = "change-stream";
+    public static final String SOURCE_ADAPTER = "adapter";
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final int bufferSize;
+    private final Deque<ProductChanged> recent = new ArrayDeque<>();
+    private final List<Consumer<ProductChanged>> subscribers = new CopyOnWriteArrayList<>();
+    // Eventos registrados que todavía no se publicaron en el contexto de Spring
+    private final Deque<ProductChanged> unpublished = new ArrayDeque<>();
+    // La secuencia vuelve a 0 en cada arranque: la época evita confundir tokens de otro proceso
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private long sequence;
+    private boolean publishing;
+    private volatile boolean changeStreamActive;
+
+    public ProductChangeFeed(
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.events.buffer-size:1000}") int bufferSize) {
+        this.eventPublisher = eventPublisher;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void onProductSaved(Product previous, Product current) {
+        // Con el change stream activo la misma escritura llega desde MongoDB
+        if (!changeStreamActive) {
+            publish(ProductChangeType.UPSERT, current.getId(), current, null, SOURCE_ADAPTER);
+        }
+    }
+
+    @Override
+    public void onAllDeleted() {
+        if (!changeStreamActive) {
+            publish(ProductChangeType.RESET, null, null, null, SOURCE_ADAPTER);
+        }
+    }
+
+    /**
+     * Registra un evento y lo entrega en orden a los consumidores. Sin token de MongoDB se usa
+     * la época y la secuencia de esta instancia.
+     */
+    public ProductChanged publish(ProductChangeType type, String productId, Product product,
+                                  String resumeToken, String source) {
+        ProductChanged event;
+        synchronized (this) {
+            long next = ++sequence;
+            event = ProductChanged.builder()
+                    .sequence(next)
+                    .resumeToken(resumeToken != null ? resumeToken : epoch + "-" + next)
+                    .type(type)
+                    .productId(productId)
+                    .product(product)
+                    .timestamp(Instant.now())
+                    .source(source)
+                    .build();
+
+            recent.addLast(event);
+            if (recent.size() > bufferSize) {
+                recent.removeFirst();
+            }
+
+            // Los suscriptores externos solo encolan: se entregan dentro del lock para que subscribe
+            // retome desde el buffer sin perder ni repetir eventos
+            for (Consumer<ProductChanged> subscriber : subscribers) {
+                try {
+                    subscriber.accept(event);
+                } catch (RuntimeException e) {
+                    log.warn("Error entregando el evento {} a un suscriptor", next, e);
+                }
+            }
+
+            unpublished.addLast(event);
+            if (publishing) {
+                // El hilo que ya está publicando lo entrega después de los anteriores
+                return event;
+            }
+            publishing = true;
+        }
+        publishInOrder();
+        return event;
+    }
+
+    /**
+     * Publica en el contexto de Spring los eventos pendientes, fuera del lock y en orden de secuencia:
+     * publica un solo hilo a la vez, que también toma los eventos registrados mientras tanto
+     */
+    private void publishInOrder() {
+        while (true) {
+            ProductChanged next;
+            synchronized (this) {
+                next = unpublished.pollFirst();
+                if (next == null) {
+                    publishing = false;
+                    return;
+                }
+            }
+            try {
+                eventPublisher.publishEvent(next);
+            } catch (RuntimeException e) {
+                log.warn("Error publicando el evento {}", next.getSequence(), e);
+            }
+        }
+    }
+
+    /**
+     * Suscribe un consumidor externo. Si resumeAfter está en el buffer primero recibe los eventos
+     * posteriores a ese token; si ya no está, la suscripción indica que no pudo retomar y el
+     * consumidor debe resincronizar.
+     */
+    public synchronized Subscription subscribe(String resumeAfter, Consumer<ProductChanged> subscriber) {
+        boolean resumed = resumeAfter == null;
+        if (resumeAfter != null) {
+            List<ProductChanged> missed = eventsAfter(resumeAfter);
+            if (missed != null) {
+                resumed = true;
+                missed.forEach(subscriber);
+            }
+        }
+        subscribers.add(subscriber);
+        return new Subscription(resumed, () -> subscribers.remove(subscriber));
+    }
+
+    /**
+     * Indica si los eventos vienen del change stream de MongoDB
+     */
+    public void setChangeStreamActive(boolean active) {
+        if (changeStreamActive != active) {
+            log.info("Eventos de productos desde {}", active ? SOURCE_CHANGE_STREAM : SOURCE_ADAPTER);
+        }
+        this.changeStreamActive = active;
+    }
+
+    public boolean isChangeStreamActive() {
+        return changeStreamActive;
+    }
+
+    /**
+     * Cantidad de suscriptores externos conectados
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Eventos posteriores al token, o null si el token ya no está en el buffer
+     */
+    private List<ProductChanged> eventsAfter(String resumeAfter) {
+        Iterator<ProductChanged> newestFirst = recent.descendingIterator();
+        Deque<ProductChanged> missed = new ArrayDeque<>();
+        while (newestFirst.hasNext()) {
+            ProductChanged event = newestFirst.next();
+            if (event.getResumeToken().equals(resumeAfter)) {
+                return List.copyOf(missed);
+            }
+            missed.addFirst(event);
+        }
+        return null;
+    }
+
+    /**
+     * Suscripción a los eventos; resumed es false si no se pudo retomar desde el token pedido
+     */
+    public record Subscription(boolean resumed, Runnable onCancel) {
+
+        public void cancel() {
+            onCancel.run();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.walmart.ecommerce.infrastructure.events;
+
+import com.walmart.ecommerce.domain.events.ProductChanged;
+import com.walmart.ecommerce.infrastructure.persistence.ProductWriteListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Entrega los cambios del change stream a las estructuras derivadas del catálogo (facetas,
+ * sugerencias, índice de búsqueda), para que también reflejen las escrituras de otras instancias.
+ * Las escrituras de esta instancia llegan dos veces, por el adaptador y por el stream; los
+ * listeners guardan el último estado por producto, o reconcilian contra MongoDB, así que
+ * aplicarlas de nuevo no cambia nada.
+ */
+@Component
+@Slf4j
+public class ProductChangeRelay {
+
+    private final List<ProductWriteListener> listeners;
+
+    public ProductChangeRelay(List<ProductWriteListener> listeners) {
+        // El feed es quien publica los eventos: no debe recibirlos de vuelta
+        this.listeners = listeners.stream()
+                .filter(listener -> !(listener instanceof ProductChangeFeed))
+                .toList();
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChanged change) {
+        if (!ProductChangeFeed.SOURCE_CHANGE_STREAM.equals(change.getSource())) {
+            return;
+        }
+        for (ProductWriteListener listener : listeners) {
+            try {
+                switch (change.getType()) {
+                    case UPSERT -> listener.onProductChanged(change.getProduct());
+                    case DELETE -> {
+                        if (change.getProductId() != null) {
+                            listener.onProductDeleted(change.getProductId());
+                        }
+                    }
+                    case RESET -> listener.onResync();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Error aplicando el cambio {} en {}", change.getSequence(),
+                        listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
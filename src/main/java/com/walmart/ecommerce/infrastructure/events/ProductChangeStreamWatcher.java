@@ -0,0 +1,192 @@
+package com.walmart.ecommerce.infrastructure.events;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.events.ProductChangeType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sigue el change stream de la colección de productos y publica cada cambio en ProductChangeFeed,
+ * incluidos los que hacen otras instancias. Requiere un replica set: con un MongoDB standalone
+ * se detiene al arrancar y los eventos siguen saliendo de las escrituras del adaptador.
+ * Si el stream se corta se retoma desde el último token; la entrega es al menos una vez.
+ */
+@Component
+@Slf4j
+public class ProductChangeStreamWatcher {
+
+    private static final int NOT_A_REPLICA_SET = 40573;
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductChangeFeed feed;
+    private final boolean enabled;
+    private final Duration retryDelay;
+
+    private volatile boolean running;
+    private Thread worker;
+    private BsonDocument resumeToken;
+
+    public ProductChangeStreamWatcher(
+            MongoTemplate mongoTemplate,
+            ProductChangeFeed feed,
+            @Value("${app.events.change-streams.enabled:true}") boolean enabled,
+            @Value("${app.events.change-streams.retry-delay:5s}") Duration retryDelay) {
+        this.mongoTemplate = mongoTemplate;
+        this.feed = feed;
+        this.enabled = enabled;
+        this.retryDelay = retryDelay;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Change streams desactivados: los eventos salen de las escrituras del adaptador");
+            return;
+        }
+        running = true;
+        worker = new Thread(this::watch, "product-change-stream");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void watch() {
+        while (running) {
+            try {
+                watchOnce();
+            } catch (MongoCommandException e) {
+                feed.setChangeStreamActive(false);
+                if (e.getErrorCode() == NOT_A_REPLICA_SET) {
+                    log.info("MongoDB no es un replica set: los eventos salen de las escrituras del adaptador");
+                    return;
+                }
+                if (e.getErrorCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    // El token ya salió del oplog: se reabre desde ahora y los consumidores resincronizan
+                    log.warn("No se puede retomar el change stream, se reinicia el flujo");
+                    resumeToken = null;
+                    feed.publish(ProductChangeType.RESET, null, null, null, ProductChangeFeed.SOURCE_CHANGE_STREAM);
+                    continue;
+                }
+                retryLater(e);
+            } catch (MongoException e) {
+                feed.setChangeStreamActive(false);
+                retryLater(e);
+            }
+        }
+        feed.setChangeStreamActive(false);
+    }
+
+    private void watchOnce() {
+        ChangeStreamIterable<Document> stream = mongoTemplate
+                .getCollection(mongoTemplate.getCollectionName(Product.class))
+                .watch()
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            feed.setChangeStreamActive(true);
+            while (running) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if (change != null && !publish(change)) {
+                    // El servidor cerró el stream: watch() lo reabre en lugar de seguir leyendo un cursor muerto
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Publica el cambio y retorna false si cierra el stream (drop, rename o invalidate)
+     */
+    private boolean publish(ChangeStreamDocument<Document> change) {
+        String token = token(change.getResumeToken());
+        resumeToken = change.getResumeToken();
+
+        switch (change.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> {
+                Document document = change.getFullDocument();
+                if (document == null) {
+                    // El producto se borró antes de leer su versión completa
+                    feed.publish(ProductChangeType.DELETE, documentId(change), null, token,
+                            ProductChangeFeed.SOURCE_CHANGE_STREAM);
+                    return true;
+                }
+                Product product = mongoTemplate.getConverter().read(Product.class, document);
+                feed.publish(ProductChangeType.UPSERT, product.getId(), product, token,
+                        ProductChangeFeed.SOURCE_CHANGE_STREAM);
+            }
+            case DELETE -> feed.publish(ProductChangeType.DELETE, documentId(change), null, token,
+                    ProductChangeFeed.SOURCE_CHANGE_STREAM);
+            case DROP, DROP_DATABASE, RENAME, INVALIDATE -> {
+                // Un invalidate cierra el stream y su token no sirve para retomar
+                resumeToken = null;
+                feed.publish(ProductChangeType.RESET, null, null, token, ProductChangeFeed.SOURCE_CHANGE_STREAM);
+                return false;
+            }
+            default -> {
+                // Otros tipos (índices, cambios de esquema) no afectan a los productos
+            }
+        }
+        return true;
+    }
+
+    private void retryLater(MongoException e) {
+        if (!running) {
+            return;
+        }
+        log.warn("Change stream de productos interrumpido ({}), se reintenta en {}", e.getMessage(), retryDelay);
+        try {
+            Thread.sleep(retryDelay.toMillis());
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static String documentId(ChangeStreamDocument<Document> change) {
+        BsonValue id = change.getDocumentKey() != null ? change.getDocumentKey().get("_id") : null;
+        if (id == null) {
+            return null;
+        }
+        if (id.isString()) {
+            return id.asString().getValue();
+        }
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.toString();
+    }
+
+    private static String token(BsonDocument resumeToken) {
+        if (resumeToken == null) {
+            return null;
+        }
+        BsonValue data = resumeToken.get("_data");
+        return data != null && data.isString() ? data.asString().getValue() : resumeToken.toJson();
+    }
+}
@@ -0,0 +1,246 @@
+package com.walmart.ecommerce.infrastructure.ingest;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carga masiva de productos desde JSON en streaming.
+ * El hilo que llama parsea el documento token a token y agrupa los productos válidos en lotes;
+ * uno o más escritores toman los lotes de una cola acotada y los escriben con bulk upserts.
+ * La memoria usada depende del tamaño de lote y de la cola, no del tamaño del archivo.
+ * Acepta tanto un arreglo JSON como una secuencia de objetos (NDJSON).
+ */
+@Service
+@Slf4j
+public class CatalogIngestService {
+
+    private static final List<Product> END_OF_INPUT = Collections.emptyList();
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int writers;
+    private final int maxRejectionSamples;
+
+    public CatalogIngestService(
+            ProductRepository productRepository,
+            ObjectMapper objectMapper,
+            @Value("${app.ingest.batch-size:1000}") int batchSize,
+            @Value("${app.ingest.queue-capacity:4}") int queueCapacity,
+            @Value("${app.ingest.writers:2}") int writers,
+            @Value("${app.ingest.max-rejection-samples:20}") int maxRejectionSamples) {
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.writers = writers;
+        this.maxRejectionSamples = maxRejectionSamples;
+    }
+
+    /**
+     * Carga los productos del stream y retorna el reporte de la carga
+     */
+    public IngestReport ingest(InputStream input) throws IOException {
+        long start = System.nanoTime();
+
+        BlockingQueue<List<Product>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicLong written = new AtomicLong();
+        AtomicLong batches = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(writers, runnable -> {
+            Thread thread = new Thread(runnable, "catalog-ingest-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<Future<?>> writerTasks = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            writerTasks.add(executor.submit(() -> {
+                try {
+                    for (List<Product> batch = queue.take(); batch != END_OF_INPUT; batch = queue.take()) {
+                        written.addAndGet(productRepository.bulkUpsert(batch));
+                        batches.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+        }
+
+        long read = 0;
+        long rejected = 0;
+        List<String> rejections = new ArrayList<>();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            boolean array = parser.nextToken() == JsonToken.START_ARRAY;
+            JsonToken token = array ? parser.nextToken() : parser.currentToken();
+            List<Product> batch = new ArrayList<>(batchSize);
+
+            while (token != null && token != JsonToken.END_ARRAY) {
+                // Cada elemento se lee completo como árbol para poder rechazarlo sin perder la posición
+                JsonNode node = objectMapper.readTree(parser);
+                read++;
+
+                String rejection = null;
+                Product product = null;
+                try {
+                    product = objectMapper.treeToValue(node, Product.class);
+                    rejection = validate(product);
+                } catch (JsonProcessingException e) {
+                    rejection = "formato inválido: " + e.getOriginalMessage();
+                } catch (IllegalArgumentException e) {
+                    rejection = "formato inválido: " + e.getMessage();
+                }
+
+                if (rejection != null) {
+                    rejected++;
+                    if (rejections.size() < maxRejectionSamples) {
+                        rejections.add("#" + read + " " + idOf(node) + ": " + rejection);
+                    }
+                } else {
+                    batch.add(product);
+                    if (batch.size() == batchSize) {
+                        enqueue(queue, batch, writerTasks);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+
+                token = parser.nextToken();
+            }
+
+            if (!batch.isEmpty()) {
+                enqueue(queue, batch, writerTasks);
+            }
+        } catch (JsonParseException e) {
+            // Los lotes anteriores al error ya quedaron escritos
+            throw new IllegalArgumentException("JSON inválido en la línea " + e.getLocation().getLineNr()
+                    + ": " + e.getOriginalMessage());
+        } finally {
+            finish(queue, executor, writerTasks);
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        IngestReport report = IngestReport.builder()
+                .read(read)
+                .written(written.get())
+                .rejected(rejected)
+                .batches(batches.get())
+                .elapsedMillis(elapsedMillis)
+                .docsPerSecond(written.get() * 1000.0 / elapsedMillis)
+                .rejections(rejections)
+                .build();
+
+        log.info("Carga masiva finalizada: {} leídos, {} escritos, {} rechazados en {} ms ({} docs/s)",
+                report.getRead(), report.getWritten(), report.getRejected(),
+                report.getElapsedMillis(), Math.round(report.getDocsPerSecond()));
+        return report;
+    }
+
+    /**
+     * Valida los campos mínimos de un producto; retorna el motivo del rechazo o null
+     */
+    private String validate(Product product) {
+        if (product.getId() == null || product.getId().isBlank()) {
+            return "sin id";
+        }
+        if (product.getName() == null || product.getName().isBlank()) {
+            return "sin nombre";
+        }
+        if (product.getPrice() == null || product.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+            return "precio ausente o negativo";
+        }
+        if (product.getStock() != null && product.getStock() < 0) {
+            return "stock negativo";
+        }
+        return null;
+    }
+
+    /**
+     * Encola un lote esperando mientras la cola esté llena.
+     * La cola acotada frena al parser cuando los escritores no dan abasto.
+     */
+    private void enqueue(BlockingQueue<List<Product>> queue, List<Product> batch, List<Future<?>> writerTasks)
+            throws IOException {
+        try {
+            while (!queue.offer(batch, 1, TimeUnit.SECONDS)) {
+                checkWriters(writerTasks);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Carga masiva interrumpida", e);
+        }
+    }
+
+    /**
+     * Propaga el error de un escritor que haya fallado mientras se espera lugar en la cola
+     */
+    private void checkWriters(List<Future<?>> writerTasks) throws IOException {
+        boolean anyAlive = false;
+        for (Future<?> task : writerTasks) {
+            if (task.isDone()) {
+                awaitWriter(task);
+            } else {
+                anyAlive = true;
+            }
+        }
+        if (!anyAlive) {
+            throw new IOException("No quedan escritores activos para la carga masiva");
+        }
+    }
+
+    private void finish(BlockingQueue<List<Product>> queue, ExecutorService executor, List<Future<?>> writerTasks)
+            throws IOException {
+        try {
+            // Una marca de fin por escritor, sin importar cuál la consuma; si alguno falló, enqueue propaga su error
+            for (int i = 0; i < writerTasks.size(); i++) {
+                enqueue(queue, END_OF_INPUT, writerTasks);
+            }
+            for (Future<?> task : writerTasks) {
+                awaitWriter(task);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void awaitWriter(Future<?> task) throws IOException {
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Carga masiva interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error escribiendo lote de productos: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static String idOf(JsonNode node) {
+        JsonNode id = node.get("id");
+        return id != null && !id.isNull() ? id.asText() : "(sin id)";
+    }
+}
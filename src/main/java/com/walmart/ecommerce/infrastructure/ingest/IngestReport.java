@@ -0,0 +1,26 @@
+package com.walmart.ecommerce.infrastructure.ingest;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Resultado de una carga masiva de productos
+ */
+@Value
+@Builder
+public class IngestReport {
+
+    long read;
+    long written;
+    long rejected;
+    long batches;
+    long elapsedMillis;
+    double docsPerSecond;
+
+    /**
+     * Muestra acotada de los registros rechazados con el motivo
+     */
+    List<String> rejections;
+}
@@ -0,0 +1,120 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.walmart.ecommerce.domain.repositories.ProductCriteria;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de las consultas de productos a MongoDB, por combinación de filtros y campo de orden.
+ * find y count se miden por separado para ver cuál de los dos domina en cada combinación y
+ * decidir qué índices crear. Los buckets son fijos para acotar la cantidad de series.
+ */
+@Component
+public class CatalogQueryMetrics {
+
+    public static final String QUERY_TIMER = "catalog.query";
+    public static final String RESULTS_SUMMARY = "catalog.query.results";
+
+    /**
+     * Campos de orden con nombre propio en las métricas; cualquier otro se agrupa como "other"
+     * para que un parámetro sortBy arbitrario no cree series nuevas
+     */
+    private static final Set<String> SORT_FIELDS =
+            Set.of("price", "name", "stock", "discountPercentage", "category", "brand", "id", "relevance");
+
+    private static final Duration[] LATENCY_BUCKETS = {
+            Duration.ofMillis(2), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25),
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+            Duration.ofSeconds(1), Duration.ofSeconds(2)
+    };
+    private static final double[] SIZE_BUCKETS = {1, 5, 10, 20, 50, 100, 500, 1000};
+
+    private final MeterRegistry registry;
+
+    public CatalogQueryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Combinación de filtros activos, en el mismo orden en que buildFilterQuery los aplica
+     * (por ejemplo "category+price"); "none" si no hay filtros
+     */
+    public static String filterTag(ProductCriteria criteria) {
+        List<String> active = new ArrayList<>();
+        if (criteria.getSearchText() != null && !criteria.getSearchText().isEmpty()) {
+            active.add("text");
+        }
+        if (!criteria.categoryValues().isEmpty()) {
+            active.add("category");
+        }
+        if (!criteria.brandValues().isEmpty()) {
+            active.add("brand");
+        }
+        if (criteria.getMinPrice() != null || criteria.getMaxPrice() != null) {
+            active.add("price");
+        }
+        if (Boolean.TRUE.equals(criteria.getInStock())) {
+            active.add("inStock");
+        }
+        if (criteria.getTags() != null && !criteria.getTags().isEmpty()) {
+            active.add("tags");
+        }
+        if (Boolean.TRUE.equals(criteria.getOnSale())) {
+            active.add("onSale");
+        }
+        if (criteria.getMinDiscount() != null && criteria.getMinDiscount() > 0) {
+            active.add("minDiscount");
+        }
+        if (criteria.hasAnyOf()) {
+            active.add("anyOf");
+        }
+        return active.isEmpty() ? "none" : String.join("+", active);
+    }
+
+    /**
+     * Primer campo de orden de la consulta, o "none"
+     */
+    public static String sortTag(Sort sort) {
+        return sort.stream()
+                .findFirst()
+                .map(order -> SORT_FIELDS.contains(order.getProperty()) ? order.getProperty() : "other")
+                .orElse("none");
+    }
+
+    /**
+     * Registra la lectura de una página y la cantidad de productos que trajo
+     */
+    public void recordFind(String filters, String sort, long nanos, int results) {
+        timer("find", filters, sort).record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(RESULTS_SUMMARY)
+                .description("Productos retornados por consulta")
+                .tags("filters", filters, "sort", sort)
+                .serviceLevelObjectives(SIZE_BUCKETS)
+                .register(registry)
+                .record(results);
+    }
+
+    /**
+     * Registra el conteo del total de una búsqueda
+     */
+    public void recordCount(String filters, String sort, long nanos) {
+        timer("count", filters, sort).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String operation, String filters, String sort) {
+        return Timer.builder(QUERY_TIMER)
+                .description("Duración de las consultas de productos a MongoDB")
+                .tags("operation", operation, "filters", filters, "sort", sort)
+                .serviceLevelObjectives(LATENCY_BUCKETS)
+                .register(registry);
+    }
+}
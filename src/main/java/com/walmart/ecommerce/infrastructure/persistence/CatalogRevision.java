@@ -0,0 +1,92 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.walmart.ecommerce.application.cache.CatalogVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Revisión del catálogo compartida entre instancias y reinicios, guardada en MongoDB.
+ * Cada escritura la incrementa después de escribir, así que una revisión leída antes de consultar
+ * nunca describe datos más viejos que ella; las demás instancias la releen periódicamente.
+ * Es la base de los ETag de listados, que se validan sin consultar los productos. Al ver escrituras de
+ * otras instancias incrementa la versión local antes de publicar la revisión nueva, así ningún cache
+ * local entrega datos anteriores bajo una revisión posterior.
+ */
+@Component
+@Slf4j
+public class CatalogRevision {
+
+    static final String COLLECTION = "catalog_meta";
+    private static final String ID = "catalog";
+    private static final String FIELD = "revision";
+
+    private final MongoTemplate mongoTemplate;
+    private final CatalogVersion catalogVersion;
+    private volatile long revision;
+
+    public CatalogRevision(MongoTemplate mongoTemplate, CatalogVersion catalogVersion) {
+        this.mongoTemplate = mongoTemplate;
+        this.catalogVersion = catalogVersion;
+    }
+
+    /**
+     * Última revisión conocida por esta instancia
+     */
+    public long current() {
+        return revision;
+    }
+
+    /**
+     * Relee la revisión al iniciar y cada app.http.cache.revision-refresh, para ver las escrituras de otras instancias
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.http.cache.revision-refresh:PT1S}",
+            fixedDelayString = "${app.http.cache.revision-refresh:PT1S}")
+    public void refresh() {
+        try {
+            advanceTo(mongoTemplate.findById(ID, Document.class, COLLECTION), false);
+        } catch (DataAccessException e) {
+            log.debug("No se pudo leer la revisión del catálogo: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Incrementa la revisión compartida; se llama después de cada escritura del catálogo
+     */
+    public void advance() {
+        try {
+            advanceTo(mongoTemplate.findAndModify(
+                    new Query(Criteria.where("_id").is(ID)),
+                    new Update().inc(FIELD, 1L),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    Document.class, COLLECTION), true);
+        } catch (DataAccessException e) {
+            // La escritura del catálogo ya ocurrió: los ETag se corrigen en la próxima relectura
+            log.warn("No se pudo incrementar la revisión del catálogo: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * La revisión local solo avanza: una lectura atrasada no la hace retroceder. Si el salto incluye
+     * escrituras ajenas se invalidan antes los caches locales; la propia ya incrementó la versión
+     */
+    private synchronized void advanceTo(Document document, boolean ownWrite) {
+        if (document == null || !(document.get(FIELD) instanceof Number stored) || stored.longValue() <= revision) {
+            return;
+        }
+        if (!ownWrite || stored.longValue() > revision + 1) {
+            catalogVersion.bump();
+        }
+        revision = stored.longValue();
+    }
+}
@@ -0,0 +1,38 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Recomendación de índice para una forma de consulta, con el plan que MongoDB elige hoy para ella
+ */
+@Value
+@Builder
+public class IndexAdvice {
+
+    /**
+     * Forma de la consulta, por ejemplo "eq=category;sort=price;range=stock"
+     */
+    String shape;
+    long queries;
+    /**
+     * Claves del índice compuesto recomendado, en orden ESR (igualdad, orden, rango)
+     */
+    Map<String, Integer> recommendedIndex;
+    /**
+     * Índice existente que ya cubre las claves recomendadas; null si falta
+     */
+    String existingIndex;
+    /**
+     * Etapas del plan ganador, de la raíz a la hoja (por ejemplo "FETCH>IXSCAN")
+     */
+    String plan;
+    String planIndex;
+    boolean collectionScan;
+    /**
+     * true si el plan ordena en memoria (etapa SORT) en lugar de leer el índice en orden
+     */
+    boolean blockingSort;
+}
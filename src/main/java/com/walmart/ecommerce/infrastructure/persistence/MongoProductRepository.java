@@ -6,8 +6,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
-import java.util.List;
-
 /**
  * Repositorio de MongoDB para Product.
  * Extiende MongoRepository y define consultas personalizadas.
@@ -19,16 +17,4 @@ public interface MongoProductRepository extends MongoRepository<Product, String>
      */
     @Query("{ $text: { $search: ?0 } }")
     Page<Product> findByTextSearch(String searchText, Pageable pageable);
-
-    /**
-     * Obtiene categorías distintas
-     */
-    @Query(value = "{}", fields = "{ 'category': 1 }")
-    List<Product> findAllCategories();
-
-    /**
-     * Obtiene marcas distintas
-     */
-    @Query(value = "{}", fields = "{ 'brand': 1 }")
-    List<Product> findAllBrands();
 }
@@ -0,0 +1,211 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice en memoria de categorías y marcas con la cantidad de productos por valor.
+ * Se construye con una agregación $group en MongoDB y luego se mantiene con las escrituras del
+ * adaptador, que informan el estado anterior, de modo que las consultas no requieren ida y vuelta a la base.
+ * Los cambios del change stream no traen el estado anterior (y repiten los propios): en lugar de aplicarlos
+ * marcan el índice para reconciliarlo con otra agregación, así la memoria es proporcional a los valores
+ * distintos y no a los productos.
+ */
+@Component
+@Slf4j
+public class ProductFacetIndex implements ProductWriteListener {
+
+    private final MongoTemplate mongoTemplate;
+    // Serializa las reconstrucciones; las escrituras solo toman el monitor del índice para ajustar conteos
+    private final Object rebuildLock = new Object();
+
+    private volatile NavigableMap<String, Long> categories = new ConcurrentSkipListMap<>();
+    private volatile NavigableMap<String, Long> brands = new ConcurrentSkipListMap<>();
+    private volatile boolean built;
+    private volatile boolean stale;
+    // Escrituras aplicadas, para saber si alguna ocurrió mientras se agregaba
+    private long writes;
+
+    public ProductFacetIndex(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Construye el índice al terminar de iniciar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reconcilia periódicamente los conteos con MongoDB: corrige lo que no pasó por el adaptador
+     * ni por el change stream (escrituras directas a la base con un MongoDB standalone)
+     */
+    @Scheduled(initialDelayString = "${app.search.facets.rebuild-interval:PT1H}",
+            fixedDelayString = "${app.search.facets.rebuild-interval:PT1H}")
+    public void reconcile() {
+        if (built) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reconstruye el índice si llegaron cambios del change stream desde la última agregación;
+     * una ráfaga de cambios se resuelve con una sola
+     */
+    @Scheduled(initialDelayString = "${app.search.facets.sync-delay:PT5S}",
+            fixedDelayString = "${app.search.facets.sync-delay:PT5S}")
+    public void syncChanges() {
+        if (built && stale) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reconstruye el índice completo desde MongoDB. La agregación corre sin tomar el monitor de las
+     * escrituras; si alguna llegó mientras tanto el resultado puede no incluirla y queda para la próxima
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long seen;
+            synchronized (this) {
+                stale = false;
+                seen = writes;
+            }
+            NavigableMap<String, Long> categoryCounts = aggregateCounts("category");
+            NavigableMap<String, Long> brandCounts = aggregateCounts("brand");
+            synchronized (this) {
+                categories = categoryCounts;
+                brands = brandCounts;
+                if (writes != seen) {
+                    stale = true;
+                }
+            }
+            built = true;
+            log.info("Índice de facetas construido: {} categorías, {} marcas",
+                    categoryCounts.size(), brandCounts.size());
+        }
+    }
+
+    /**
+     * Categorías ordenadas alfabéticamente
+     */
+    public List<String> categories() {
+        ensureBuilt();
+        return new ArrayList<>(categories.keySet());
+    }
+
+    /**
+     * Marcas ordenadas alfabéticamente
+     */
+    public List<String> brands() {
+        ensureBuilt();
+        return new ArrayList<>(brands.keySet());
+    }
+
+    /**
+     * Cantidad de productos por categoría
+     */
+    public Map<String, Long> categoryCounts() {
+        ensureBuilt();
+        return Collections.unmodifiableMap(categories);
+    }
+
+    /**
+     * Cantidad de productos por marca
+     */
+    public Map<String, Long> brandCounts() {
+        ensureBuilt();
+        return Collections.unmodifiableMap(brands);
+    }
+
+    @Override
+    public synchronized void onProductSaved(Product previous, Product current) {
+        writes++;
+        // Antes de construirse no hay nada que actualizar: la construcción verá la escritura
+        if (!built) {
+            return;
+        }
+        if (previous != null) {
+            adjust(categories, previous.getCategory(), -1);
+            adjust(brands, previous.getBrand(), -1);
+        }
+        if (current != null) {
+            adjust(categories, current.getCategory(), 1);
+            adjust(brands, current.getBrand(), 1);
+        }
+    }
+
+    @Override
+    public void onProductChanged(Product current) {
+        stale = true;
+    }
+
+    @Override
+    public void onProductDeleted(String id) {
+        stale = true;
+    }
+
+    @Override
+    public synchronized void onAllDeleted() {
+        writes++;
+        categories = new ConcurrentSkipListMap<>();
+        brands = new ConcurrentSkipListMap<>();
+    }
+
+    @Override
+    public void onResync() {
+        stale = true;
+    }
+
+    private void ensureBuilt() {
+        if (!built) {
+            synchronized (rebuildLock) {
+                if (!built) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    private NavigableMap<String, Long> aggregateCounts(String field) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group(field).count().as("count"));
+
+        NavigableMap<String, Long> counts = new ConcurrentSkipListMap<>();
+        for (Document result : mongoTemplate.aggregate(aggregation, Product.class, Document.class)) {
+            Object value = result.get("_id");
+            if (value instanceof String key && !key.isEmpty()) {
+                counts.put(key, ((Number) result.get("count")).longValue());
+            }
+        }
+        return counts;
+    }
+
+    private static void adjust(NavigableMap<String, Long> counts, String value, long delta) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (delta > 0) {
+            counts.merge(value, delta, Long::sum);
+        } else {
+            // Retornar null elimina la entrada cuando el conteo llega a cero
+            counts.computeIfPresent(value, (key, current) -> current + delta > 0 ? current + delta : null);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.FacetCount;
+import com.walmart.ecommerce.domain.repositories.FacetField;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Calcula conteos de facetas para una búsqueda en un único pipeline de agregación:
+ * un $match con los mismos filtros de la búsqueda seguido de un $facet con una
+ * rama por faceta solicitada.
+ */
+@Component
+public class ProductFacetSearch {
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductFacetIndex facetIndex;
+    private final int limit;
+    private final List<BigDecimal> priceBoundaries;
+
+    public ProductFacetSearch(
+            MongoTemplate mongoTemplate,
+            ProductFacetIndex facetIndex,
+            @Value("${app.search.facets.limit:20}") int limit,
+            @Value("${app.search.facets.price-buckets:0,25,50,100,250,500}") List<BigDecimal> priceBoundaries) {
+        this.mongoTemplate = mongoTemplate;
+        this.facetIndex = facetIndex;
+        this.limit = limit;
+        this.priceBoundaries = priceBoundaries.stream().sorted().toList();
+    }
+
+    /**
+     * Calcula las facetas para los productos que cumplen la query de filtros
+     */
+    public Map<FacetField, List<FacetCount>> compute(Query filterQuery, boolean filtered, Set<FacetField> facets) {
+        Map<FacetField, List<FacetCount>> result = new EnumMap<>(FacetField.class);
+        if (facets.isEmpty()) {
+            return result;
+        }
+
+        // Sin filtros, categoría y marca ya están precalculadas en el índice de facetas
+        if (!filtered && Set.of(FacetField.CATEGORY, FacetField.BRAND).containsAll(facets)) {
+            if (facets.contains(FacetField.CATEGORY)) {
+                result.put(FacetField.CATEGORY, topCounts(facetIndex.categoryCounts()));
+            }
+            if (facets.contains(FacetField.BRAND)) {
+                result.put(FacetField.BRAND, topCounts(facetIndex.brandCounts()));
+            }
+            return result;
+        }
+
+        FacetOperation facet = null;
+        for (FacetField field : facets) {
+            AggregationOperation[] branch = branchFor(field);
+            facet = facet == null
+                    ? Aggregation.facet(branch).as(field.getKey())
+                    : facet.and(branch).as(field.getKey());
+        }
+
+        Document filter = filterQuery.getQueryObject();
+        AggregationOperation match = context -> new Document("$match", context.getMappedObject(filter, Product.class));
+        TypedAggregation<Product> aggregation = Aggregation.newAggregation(Product.class, match, facet);
+
+        Document document = mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult();
+        for (FacetField field : facets) {
+            List<Document> buckets = document != null
+                    ? document.getList(field.getKey(), Document.class, List.of())
+                    : List.of();
+            result.put(field, field == FacetField.PRICE ? toPriceCounts(buckets) : toCounts(buckets));
+        }
+        return result;
+    }
+
+    private AggregationOperation[] branchFor(FacetField field) {
+        return switch (field) {
+            case CATEGORY -> new AggregationOperation[]{
+                    Aggregation.sortByCount("category"), Aggregation.limit(limit)};
+            case BRAND -> new AggregationOperation[]{
+                    Aggregation.sortByCount("brand"), Aggregation.limit(limit)};
+            case TAGS -> new AggregationOperation[]{
+                    Aggregation.unwind("tags"), Aggregation.sortByCount("tags"), Aggregation.limit(limit)};
+            // $toDecimal permite agrupar el precio sin importar si está guardado como texto o número
+            case PRICE -> new AggregationOperation[]{
+                    Aggregation.match(Criteria.where("price").ne(null)),
+                    Aggregation.bucket(ConvertOperators.valueOf("price").convertToDecimal())
+                            .withBoundaries(priceBoundaries.stream().map(BigDecimal::doubleValue).toArray())
+                            .withDefaultBucket("other")
+                            .andOutputCount().as("count")};
+        };
+    }
+
+    private List<FacetCount> toCounts(List<Document> buckets) {
+        List<FacetCount> counts = new ArrayList<>();
+        for (Document bucket : buckets) {
+            Object value = bucket.get("_id");
+            if (value != null) {
+                counts.add(new FacetCount(value.toString(), ((Number) bucket.get("count")).longValue()));
+            }
+        }
+        return counts;
+    }
+
+    private List<FacetCount> toPriceCounts(List<Document> buckets) {
+        List<FacetCount> counts = new ArrayList<>();
+        for (Document bucket : buckets) {
+            counts.add(new FacetCount(priceLabel(bucket.get("_id")), ((Number) bucket.get("count")).longValue()));
+        }
+        return counts;
+    }
+
+    /**
+     * Convierte el límite inferior de un bucket en un rango legible ("25-50", "500+").
+     * MongoDB devuelve el límite como double: la etiqueta se arma con los límites configurados
+     * para no mostrar "25.0-50"
+     */
+    private String priceLabel(Object lowerBound) {
+        BigDecimal last = priceBoundaries.get(priceBoundaries.size() - 1);
+        if (!(lowerBound instanceof Number number)) {
+            return last.toPlainString() + "+";
+        }
+        BigDecimal lower = new BigDecimal(number.toString());
+        for (int i = 0; i < priceBoundaries.size() - 1; i++) {
+            if (priceBoundaries.get(i).compareTo(lower) == 0) {
+                return priceBoundaries.get(i).toPlainString() + "-" + priceBoundaries.get(i + 1).toPlainString();
+            }
+        }
+        return lower.stripTrailingZeros().toPlainString() + "+";
+    }
+
+    private List<FacetCount> topCounts(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(entry -> new FacetCount(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,197 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.ProductCriteria;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Asesor de índices del catálogo. Registra las formas de consulta que emite el adaptador, pide a MongoDB
+ * el plan de una muestra de cada una (explain) y recomienda el índice compuesto en orden ESR.
+ * Al arrancar crea los índices de las formas declaradas en app.indexes.shapes (prefijo esr_), opcionalmente
+ * borra los esr_ que ya no se declaran, e informa las formas que siguen resolviéndose con COLLSCAN.
+ */
+@Component
+@Slf4j
+public class ProductIndexAdvisor {
+
+    static final String MANAGED_PREFIX = "esr_";
+
+    private final MongoTemplate mongoTemplate;
+    private final QueryExplainer queryExplainer;
+    private final int maxShapes;
+    private final List<QueryShape> declaredShapes;
+    private final boolean createDeclared;
+    private final boolean dropUndeclared;
+    private final Map<QueryShape, RecordedShape> recorded = new ConcurrentHashMap<>();
+
+    public ProductIndexAdvisor(
+            MongoTemplate mongoTemplate,
+            QueryExplainer queryExplainer,
+            @Value("${app.indexes.max-shapes:200}") int maxShapes,
+            @Value("${app.indexes.shapes:}") List<String> shapes,
+            @Value("${app.indexes.create:false}") boolean createDeclared,
+            @Value("${app.indexes.drop-undeclared:false}") boolean dropUndeclared) {
+        this.mongoTemplate = mongoTemplate;
+        this.queryExplainer = queryExplainer;
+        this.maxShapes = maxShapes;
+        this.declaredShapes = shapes.stream()
+                .filter(spec -> !spec.isBlank())
+                .map(QueryShape::parse)
+                .distinct()
+                .toList();
+        this.createDeclared = createDeclared;
+        this.dropUndeclared = dropUndeclared;
+    }
+
+    /**
+     * Registra una consulta emitida por el adaptador; se guarda su forma con los primeros criterios vistos
+     * como muestra para explain. Pasado el máximo de formas, las nuevas se ignoran
+     */
+    public void record(ProductCriteria criteria, Sort sort) {
+        QueryShape shape = QueryShape.of(criteria, sort);
+        if (shape == null || shape.isTrivial()) {
+            return;
+        }
+        RecordedShape entry = recorded.get(shape);
+        if (entry == null) {
+            if (recorded.size() >= maxShapes) {
+                return;
+            }
+            entry = recorded.computeIfAbsent(shape, key -> new RecordedShape(criteria, sort, new LongAdder()));
+        }
+        entry.queries().increment();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            provision();
+            List<IndexInfo> existing = indexes();
+            int collectionScans = 0;
+            for (QueryShape shape : declaredShapes) {
+                IndexAdvice advice = advise(shape, shape.sampleCriteria(), shape.sampleSort(), 0, existing);
+                if (advice.isCollectionScan()) {
+                    collectionScans++;
+                    log.warn("La forma de consulta {} sigue resolviéndose con COLLSCAN; índice recomendado {}",
+                            advice.getShape(), advice.getRecommendedIndex());
+                } else if (advice.isBlockingSort()) {
+                    log.warn("La forma de consulta {} usa {} pero ordena en memoria; índice recomendado {}",
+                            advice.getShape(), advice.getPlanIndex(), advice.getRecommendedIndex());
+                }
+            }
+            log.info("Formas de consulta declaradas revisadas: {}, con COLLSCAN: {}",
+                    declaredShapes.size(), collectionScans);
+        } catch (DataAccessException e) {
+            log.warn("No se pudieron revisar los índices del catálogo: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Crea los índices de las formas declaradas que no tienen uno equivalente y, si se configuró,
+     * borra los índices administrados que ya no corresponden a ninguna forma declarada
+     */
+    public void provision() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Product.class);
+        List<IndexInfo> existing = indexOps.getIndexInfo();
+
+        if (createDeclared) {
+            for (QueryShape shape : declaredShapes) {
+                if (coveringIndex(existing, shape.indexKeys()) == null) {
+                    Index index = new Index().named(shape.indexName());
+                    shape.indexKeys().keySet().forEach(field -> index.on(field, Sort.Direction.ASC));
+                    indexOps.ensureIndex(index);
+                    log.info("Índice {} creado para la forma de consulta {}", shape.indexName(), shape);
+                }
+            }
+        }
+
+        if (dropUndeclared) {
+            Set<String> declared = declaredShapes.stream().map(QueryShape::indexName).collect(Collectors.toSet());
+            for (IndexInfo index : existing) {
+                if (index.getName().startsWith(MANAGED_PREFIX) && !declared.contains(index.getName())) {
+                    indexOps.dropIndex(index.getName());
+                    log.info("Índice {} borrado: ninguna forma declarada lo usa", index.getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Recomendaciones para las formas registradas con más consultas, con el plan actual de cada una
+     */
+    public List<IndexAdvice> advise(int limit) {
+        List<IndexInfo> existing = indexes();
+        return recorded.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<QueryShape, RecordedShape> entry) -> entry.getValue().queries().sum()).reversed())
+                .limit(limit)
+                .map(entry -> advise(entry.getKey(), entry.getValue().criteria(), entry.getValue().sort(),
+                        entry.getValue().queries().sum(), existing))
+                .toList();
+    }
+
+    private IndexAdvice advise(QueryShape shape, ProductCriteria criteria, Sort sort, long queries,
+                               List<IndexInfo> existing) {
+        IndexAdvice.IndexAdviceBuilder advice = IndexAdvice.builder()
+                .shape(shape.toString())
+                .queries(queries)
+                .recommendedIndex(shape.indexKeys())
+                .existingIndex(coveringIndex(existing, shape.indexKeys()));
+        Query query = ProductRepositoryAdapter.buildFilterQuery(criteria).with(sort);
+        return summarizePlan(queryExplainer.explainFind(query, QueryExplainer.QUERY_PLANNER), advice);
+    }
+
+    private List<IndexInfo> indexes() {
+        return mongoTemplate.indexOps(Product.class).getIndexInfo();
+    }
+
+    /**
+     * Completa la recomendación con el plan ganador de un explain
+     */
+    static IndexAdvice summarizePlan(Document explain, IndexAdvice.IndexAdviceBuilder advice) {
+        QueryExplainer.QueryPlan plan = QueryExplainer.winningPlan(explain);
+        return advice.plan(plan.describe())
+                .planIndex(plan.indexName())
+                .collectionScan(plan.collectionScan())
+                .blockingSort(plan.blockingSort())
+                .build();
+    }
+
+    /**
+     * Nombre del índice cuyas primeras claves son exactamente las recomendadas, o null
+     */
+    static String coveringIndex(List<IndexInfo> indexes, Map<String, Integer> keys) {
+        List<String> wanted = List.copyOf(keys.keySet());
+        for (IndexInfo index : indexes) {
+            List<String> fields = index.getIndexFields().stream().map(IndexField::getKey).toList();
+            if (fields.size() >= wanted.size() && fields.subList(0, wanted.size()).equals(wanted)) {
+                return index.getName();
+            }
+        }
+        return null;
+    }
+
+    private record RecordedShape(ProductCriteria criteria, Sort sort, LongAdder queries) {
+    }
+}
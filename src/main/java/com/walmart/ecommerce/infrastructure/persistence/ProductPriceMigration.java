@@ -0,0 +1,97 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Convierte a Decimal128 los precios que versiones anteriores guardaron como texto.
+ * La conversión la hace MongoDB ($convert en un update con pipeline) por lotes de IDs, y cada lote
+ * vuelve a exigir el tipo texto, así que puede correr con la aplicación atendiendo tráfico sin pisar
+ * productos reescritos mientras tanto. Hasta que termina, los filtros y el orden por precio no
+ * consideran los documentos pendientes.
+ */
+@Component
+@Slf4j
+public class ProductPriceMigration {
+
+    private static final int BATCH_SIZE = 500;
+    private static final List<String> PRICE_FIELDS = List.of("price", "oldPrice");
+
+    private final MongoTemplate mongoTemplate;
+
+    public ProductPriceMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        migrate();
+    }
+
+    /**
+     * Convierte los precios guardados como texto y retorna la cantidad de campos convertidos
+     */
+    public long migrate() {
+        long converted = 0;
+        for (String field : PRICE_FIELDS) {
+            converted += migrate(field);
+        }
+        if (converted > 0) {
+            log.info("Precios convertidos a Decimal128 en {} campos", converted);
+        }
+        return converted;
+    }
+
+    private long migrate(String field) {
+        String collection = mongoTemplate.getCollectionName(Product.class);
+        Query legacy = new Query(Criteria.where(field).type(JsonSchemaObject.Type.STRING));
+        legacy.fields().include("_id");
+        legacy.cursorBatchSize(BATCH_SIZE);
+
+        // Un texto que no es un número queda como está y se informa en lugar de cortar la migración
+        AggregationUpdate toDecimal = AggregationUpdate.update()
+                .set(field)
+                .toValue(ConvertOperators.Convert.convertValueOf(field).to("decimal").onErrorReturnValueOf(field));
+
+        long converted = 0;
+        List<Object> batch = new ArrayList<>(BATCH_SIZE);
+        try (Stream<Document> documents = mongoTemplate.stream(legacy, Document.class, collection)) {
+            for (Document document : (Iterable<Document>) documents::iterator) {
+                batch.add(document.get("_id"));
+                if (batch.size() == BATCH_SIZE) {
+                    converted += convert(collection, field, batch, toDecimal);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            converted += convert(collection, field, batch, toDecimal);
+        }
+
+        long invalid = mongoTemplate.count(new Query(Criteria.where(field).type(JsonSchemaObject.Type.STRING)),
+                collection);
+        if (invalid > 0) {
+            log.warn("{} productos tienen {} con un texto que no es un número", invalid, field);
+        }
+        return converted;
+    }
+
+    private long convert(String collection, String field, List<Object> ids, AggregationUpdate toDecimal) {
+        Query pending = new Query(Criteria.where("_id").in(ids).and(field).type(JsonSchemaObject.Type.STRING));
+        return mongoTemplate.updateMulti(pending, toDecimal, collection).getModifiedCount();
+    }
+}
@@ -0,0 +1,74 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * Completa el modelo de lectura en los productos guardados antes de que existiera.
+ * Solo toca los documentos sin discountPercentage y actualiza únicamente los campos derivados,
+ * por lo que puede correr con la aplicación atendiendo tráfico.
+ */
+@Component
+@Slf4j
+public class ProductReadModelBackfill {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    public ProductReadModelBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        backfill();
+    }
+
+    /**
+     * Calcula y guarda los campos derivados de los productos que no los tienen
+     */
+    public long backfill() {
+        Query missing = new Query(Criteria.where("discountPercentage").exists(false));
+        missing.fields().include("price", "oldPrice");
+        missing.cursorBatchSize(BATCH_SIZE);
+
+        long updated = 0;
+        BulkOperations bulk = null;
+        int pending = 0;
+        try (Stream<Product> products = mongoTemplate.stream(missing, Product.class)) {
+            for (Product product : (Iterable<Product>) products::iterator) {
+                product.refreshReadModel();
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+                }
+                bulk.updateOne(new Query(Criteria.where("id").is(product.getId())),
+                        new Update().set("onSale", product.getOnSale())
+                                .set("discountPercentage", product.getDiscountPercentage()));
+                if (++pending == BATCH_SIZE) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (bulk != null) {
+            updated += bulk.execute().getModifiedCount();
+        }
+
+        if (updated > 0) {
+            log.info("Modelo de lectura completado en {} productos", updated);
+        }
+        return updated;
+    }
+}
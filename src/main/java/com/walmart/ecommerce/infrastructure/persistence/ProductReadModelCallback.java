@@ -0,0 +1,24 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Completa el modelo de lectura (oferta, porcentaje de descuento y fecha de modificación)
+ * antes de cada escritura.
+ * MongoTemplate lo invoca en save, insert y en los reemplazos de las operaciones bulk,
+ * así que cubre tanto el repositorio como la carga masiva.
+ */
+@Component
+public class ProductReadModelCallback implements BeforeConvertCallback<Product> {
+
+    @Override
+    public Product onBeforeConvert(Product product, String collection) {
+        product.refreshReadModel();
+        product.setLastModified(Instant.now());
+        return product;
+    }
+}
@@ -2,43 +2,139 @@ package com.walmart.ecommerce.infrastructure.persistence;
 
 
 
+import com.mongodb.bulk.BulkWriteResult;
 import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.CountStrategy;
+import com.walmart.ecommerce.domain.repositories.CountedPage;
+import com.walmart.ecommerce.domain.repositories.FacetCount;
+import com.walmart.ecommerce.domain.repositories.FacetField;
+import com.walmart.ecommerce.domain.repositories.ProductCriteria;
+import com.walmart.ecommerce.domain.repositories.ProductCursor;
 import com.walmart.ecommerce.domain.repositories.ProductRepository;
-import lombok.RequiredArgsConstructor;
+import com.walmart.ecommerce.domain.repositories.SortField;
+import com.walmart.ecommerce.infrastructure.config.SearchExecutorConfig;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Adaptador que implementa ProductRepository usando MongoDB.
  * Separa la lógica de persistencia del dominio (Dependency Inversion).
  */
 @Repository
-@RequiredArgsConstructor
 public class ProductRepositoryAdapter implements ProductRepository {
 
     private final MongoProductRepository mongoRepository;
     private final MongoTemplate mongoTemplate;
+    private final QueryCountCache countCache;
+    private final ProductFacetIndex facetIndex;
+    private final ProductFacetSearch facetSearch;
+    private final List<ProductWriteListener> writeListeners;
+    private final int exportBatchSize;
+    private final AsyncTaskExecutor queryExecutor;
+    private final SearchLatencyRecorder latencyRecorder;
+    private final CatalogQueryMetrics queryMetrics;
+    private final ProductIndexAdvisor indexAdvisor;
+    private final SlowQueryLog slowQueryLog;
+
+    public ProductRepositoryAdapter(
+            MongoProductRepository mongoRepository,
+            MongoTemplate mongoTemplate,
+            QueryCountCache countCache,
+            ProductFacetIndex facetIndex,
+            ProductFacetSearch facetSearch,
+            List<ProductWriteListener> writeListeners,
+            @Value("${app.export.cursor-batch-size:500}") int exportBatchSize,
+            @Qualifier(SearchExecutorConfig.SEARCH_QUERY_EXECUTOR) ObjectProvider<AsyncTaskExecutor> queryExecutor,
+            SearchLatencyRecorder latencyRecorder,
+            CatalogQueryMetrics queryMetrics,
+            ProductIndexAdvisor indexAdvisor,
+            SlowQueryLog slowQueryLog,
+            @Value("${app.search.parallel-count:true}") boolean parallelCount) {
+        this.mongoRepository = mongoRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.countCache = countCache;
+        this.facetIndex = facetIndex;
+        this.facetSearch = facetSearch;
+        this.writeListeners = writeListeners;
+        this.exportBatchSize = exportBatchSize;
+        // Sin hilos virtuales no hay ejecutor y la página y el total se consultan en serie
+        this.queryExecutor = parallelCount ? queryExecutor.getIfAvailable() : null;
+        this.latencyRecorder = latencyRecorder;
+        this.queryMetrics = queryMetrics;
+        this.indexAdvisor = indexAdvisor;
+        this.slowQueryLog = slowQueryLog;
+    }
 
     @Override
     public Product save(Product product) {
-        return mongoRepository.save(product);
+        Map<String, Product> previous = findPrevious(List.of(product));
+        Product saved = mongoRepository.save(product);
+        notifySaved(previous, List.of(saved));
+        return saved;
     }
 
     @Override
     public List<Product> saveAll(List<Product> products) {
-        return mongoRepository.saveAll(products);
+        List<Product> batch = lastPerId(products);
+        Map<String, Product> previous = findPrevious(batch);
+        List<Product> saved = mongoRepository.saveAll(batch);
+        notifySaved(previous, saved);
+        return saved;
+    }
+
+    @Override
+    public int bulkUpsert(List<Product> products) {
+        if (products.isEmpty()) {
+            return 0;
+        }
+
+        // En modo UNORDERED dos reemplazos del mismo id no tienen orden garantizado
+        List<Product> batch = lastPerId(products);
+        Map<String, Product> previous = findPrevious(batch);
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        for (Product product : batch) {
+            bulk.replaceOne(new Query(Criteria.where("id").is(product.getId())), product,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        BulkWriteResult result = bulk.execute();
+
+        notifySaved(previous, batch);
+        return result.getMatchedCount() + result.getUpserts().size();
     }
 
     @Override
@@ -47,39 +143,72 @@ public class ProductRepositoryAdapter implements ProductRepository {
     }
 
     @Override
-    public Page<Product> findAll(Pageable pageable) {
-        return mongoRepository.findAll(pageable);
+    public List<Product> findAllById(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return mongoTemplate.find(new Query(Criteria.where("id").in(ids)), Product.class);
     }
 
     @Override
-    public Page<Product> searchByText(String searchText, Pageable pageable) {
-        TextCriteria criteria = TextCriteria.forDefaultLanguage().matching(searchText);
-        Query query = new Query(criteria).with(pageable);
+    public CountedPage<Product> findAll(Pageable pageable, CountStrategy countStrategy) {
+        return findPage(new Query(), pageable, false, "none",
+                QueryShape.describe(ProductCriteria.empty(), pageable.getSort()), countStrategy);
+    }
 
-        List<Product> products = mongoTemplate.find(query, Product.class);
-        long count = mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Product.class);
+    @Override
+    public CountedPage<Product> searchByText(String searchText, Pageable pageable, CountStrategy countStrategy) {
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(searchText));
+        Pageable planned = withRelevance(query, pageable);
+        return findPage(query, planned, true, "text",
+                QueryShape.describe(ProductCriteria.builder().searchText(searchText).build(), pageable.getSort()),
+                countStrategy);
+    }
 
-        return PageableExecutionUtils.getPage(products, pageable, () -> count);
+    @Override
+    public CountedPage<Product> findByFilters(ProductCriteria criteria, Pageable pageable, CountStrategy countStrategy) {
+        Query query = buildFilterQuery(criteria);
+        Pageable planned = withRelevance(query, pageable);
+        indexAdvisor.record(criteria, planned.getSort());
+        return findPage(query, planned, criteria.hasFilters(), CatalogQueryMetrics.filterTag(criteria),
+                QueryShape.describe(criteria, pageable.getSort()), countStrategy);
     }
 
     @Override
-    public Page<Product> findByFilters(
-            String searchText,
-            String category,
-            String brand,
-            BigDecimal minPrice,
-            BigDecimal maxPrice,
-            Boolean inStock,
-            List<String> tags,
-            Pageable pageable) {
-
-        Query query = buildFilterQuery(searchText, category, brand, minPrice, maxPrice, inStock, tags);
-        query.with(pageable);
+    public Slice<Product> findByCriteriaAfter(ProductCriteria criteria, ProductCursor after, int size, Sort sort) {
+        Sort keysetSort = withIdTieBreaker(sort);
+
+        Query query = buildFilterQuery(criteria);
+        if (after != null) {
+            query.addCriteria(buildKeysetCriteria(after));
+        }
+        // Se pide un elemento extra para saber si existe una página siguiente sin contar
+        query.with(keysetSort).limit(size + 1);
+        indexAdvisor.record(criteria, keysetSort);
 
+        long start = System.nanoTime();
         List<Product> products = mongoTemplate.find(query, Product.class);
-        long count = mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Product.class);
+        queryMetrics.recordFind(CatalogQueryMetrics.filterTag(criteria), CatalogQueryMetrics.sortTag(sort),
+                System.nanoTime() - start, products.size());
+        boolean hasNext = products.size() > size;
+        List<Product> content = hasNext ? products.subList(0, size) : products;
+
+        return new SliceImpl<>(content, PageRequest.of(0, size, keysetSort), hasNext);
+    }
+
+    @Override
+    public Stream<Product> streamByCriteria(ProductCriteria criteria, Sort sort) {
+        Query query = buildFilterQuery(criteria);
+        Sort planned = withRelevance(query, sort);
+        indexAdvisor.record(criteria, planned);
+        query.with(planned);
+        query.cursorBatchSize(exportBatchSize);
+        return mongoTemplate.stream(query, Product.class);
+    }
 
-        return PageableExecutionUtils.getPage(products, pageable, () -> count);
+    @Override
+    public Map<FacetField, List<FacetCount>> computeFacets(ProductCriteria criteria, Set<FacetField> facets) {
+        return facetSearch.compute(buildFilterQuery(criteria), criteria.hasFilters(), facets);
     }
 
     @Override
@@ -90,70 +219,96 @@ public class ProductRepositoryAdapter implements ProductRepository {
     @Override
     public void deleteAll() {
         mongoRepository.deleteAll();
+        writeListeners.forEach(ProductWriteListener::onAllDeleted);
     }
 
     @Override
     public List<String> findDistinctCategories() {
-        return mongoRepository.findAllCategories().stream()
-                .map(Product::getCategory)
-                .distinct()
-                .filter(c -> c != null && !c.isEmpty())
-                .sorted()
-                .collect(Collectors.toList());
+        return facetIndex.categories();
     }
 
     @Override
     public List<String> findDistinctBrands() {
-        return mongoRepository.findAllBrands().stream()
-                .map(Product::getBrand)
-                .distinct()
-                .filter(b -> b != null && !b.isEmpty())
-                .sorted()
-                .collect(Collectors.toList());
+        return facetIndex.brands();
     }
 
     /**
-     * Construye una query de MongoDB aplicando filtros dinámicamente
+     * Construye una query de MongoDB aplicando filtros dinámicamente.
+     * Los grupos de anyOf se compilan a un único $or dentro de la misma consulta.
+     * Visible en el paquete para medirla en los benchmarks y compartirla con el adaptador reactivo.
      */
-    private Query buildFilterQuery(
-            String searchText,
-            String category,
-            String brand,
-            BigDecimal minPrice,
-            BigDecimal maxPrice,
-            Boolean inStock,
-            List<String> tags) {
+    static Query buildFilterQuery(ProductCriteria filters) {
+        String searchText = filters.getSearchText();
 
         Query query;
 
         // Búsqueda de texto
         if (searchText != null && !searchText.isEmpty()) {
             TextCriteria textCriteria = TextCriteria.forDefaultLanguage().matching(searchText);
-            query = new Query(textCriteria);
+            query = TextQuery.queryText(textCriteria);
         } else {
             query = new Query();
         }
 
+        List<Criteria> criteria = buildCriteria(filters);
+
+        // Grupos alternativos: el producto debe cumplir todos los filtros de al menos un grupo
+        if (filters.hasAnyOf()) {
+            Criteria[] groups = filters.getAnyOf().stream()
+                    .map(group -> {
+                        List<Criteria> groupCriteria = buildCriteria(group);
+                        if (groupCriteria.isEmpty()) {
+                            // Un grupo sin condiciones efectivas (por ejemplo inStock=false) acepta todo
+                            return new Criteria();
+                        }
+                        return groupCriteria.size() == 1
+                                ? groupCriteria.get(0)
+                                : new Criteria().andOperator(groupCriteria.toArray(new Criteria[0]));
+                    })
+                    .toArray(Criteria[]::new);
+            criteria.add(new Criteria().orOperator(groups));
+        }
+
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+        }
+
+        return query;
+    }
+
+    /**
+     * Condiciones de los filtros simples (sin texto ni grupos)
+     */
+    private static List<Criteria> buildCriteria(ProductCriteria filters) {
+        List<String> categories = filters.categoryValues();
+        List<String> brands = filters.brandValues();
+        BigDecimal minPrice = filters.getMinPrice();
+        BigDecimal maxPrice = filters.getMaxPrice();
+        Boolean inStock = filters.getInStock();
+        List<String> tags = filters.getTags();
+        Integer minDiscount = filters.getMinDiscount();
+
         List<Criteria> criteria = new ArrayList<>();
 
-        // Filtro por categoría
-        if (category != null && !category.isEmpty()) {
-            criteria.add(Criteria.where("category").is(category));
+        // Filtro por categoría; varias se resuelven con $in sobre el mismo índice
+        if (!categories.isEmpty()) {
+            criteria.add(equalOrIn("category", categories));
         }
 
         // Filtro por marca
-        if (brand != null && !brand.isEmpty()) {
-            criteria.add(Criteria.where("brand").is(brand));
+        if (!brands.isEmpty()) {
+            criteria.add(equalOrIn("brand", brands));
         }
 
-        // Filtro por rango de precio
+        // Filtro por rango de precio; el QueryMapper no aplica el targetType dentro de $and,
+        // así que los límites se pasan ya como Decimal128 para comparar contra el índice numérico
         if (minPrice != null || maxPrice != null) {
             Criteria priceCriteria = Criteria.where("price");
             if (minPrice != null) {
-                priceCriteria.gte(minPrice);
+                priceCriteria.gte(new Decimal128(minPrice));
             }
             if (maxPrice != null) {
-                priceCriteria.lte(maxPrice);
+                priceCriteria.lte(new Decimal128(maxPrice));
             }
             criteria.add(priceCriteria);
         }
@@ -163,15 +318,266 @@ public class ProductRepositoryAdapter implements ProductRepository {
             criteria.add(Criteria.where("stock").gt(0));
         }
 
-        // Filtro por tags
+        // Filtro por tags: alguno ($in) o todos ($all)
         if (tags != null && !tags.isEmpty()) {
-            criteria.add(Criteria.where("tags").in(tags));
+            criteria.add(filters.matchAllTags()
+                    ? Criteria.where("tags").all(tags)
+                    : Criteria.where("tags").in(tags));
         }
 
-        if (!criteria.isEmpty()) {
-            query.addCriteria(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+        // Ofertas, sobre los campos precalculados al guardar
+        if (Boolean.TRUE.equals(filters.getOnSale())) {
+            criteria.add(Criteria.where("onSale").is(true));
+        }
+        if (minDiscount != null && minDiscount > 0) {
+            criteria.add(Criteria.where("discountPercentage").gte(minDiscount));
         }
 
-        return query;
+        return criteria;
+    }
+
+    private static Criteria equalOrIn(String field, List<String> values) {
+        return values.size() == 1 ? Criteria.where(field).is(values.get(0)) : Criteria.where(field).in(values);
+    }
+
+    /**
+     * Deja la última versión de cada id del lote, para que el estado anterior que reciben los
+     * listeners corresponda a una sola escritura; los productos sin id se conservan todos
+     */
+    static List<Product> lastPerId(List<Product> products) {
+        Map<String, Integer> lastIndex = new HashMap<>();
+        long withId = 0;
+        for (int i = 0; i < products.size(); i++) {
+            String id = products.get(i).getId();
+            if (id != null) {
+                lastIndex.put(id, i);
+                withId++;
+            }
+        }
+        if (lastIndex.size() == withId) {
+            return products;
+        }
+        List<Product> batch = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            String id = products.get(i).getId();
+            if (id == null || lastIndex.get(id) == i) {
+                batch.add(products.get(i));
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Obtiene en una sola consulta el estado previo de los productos que se van a guardar
+     */
+    private Map<String, Product> findPrevious(List<Product> products) {
+        List<String> ids = products.stream()
+                .map(Product::getId)
+                .filter(Objects::nonNull)
+                .toList();
+        if (writeListeners.isEmpty() || ids.isEmpty()) {
+            return Map.of();
+        }
+        return mongoRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    /**
+     * Notifica a los listeners cada producto guardado con su estado anterior
+     */
+    private void notifySaved(Map<String, Product> previous, List<Product> saved) {
+        for (Product product : saved) {
+            Product before = previous.get(product.getId());
+            writeListeners.forEach(listener -> listener.onProductSaved(before, product));
+        }
+    }
+
+    /**
+     * Ejecuta una query paginada resolviendo el total según la estrategia de conteo
+     */
+    private CountedPage<Product> findPage(Query query, Pageable pageable, boolean filtered, String filters,
+                                          String shape, CountStrategy requested) {
+        // La estimación por metadata solo representa a la colección completa
+        CountStrategy strategy = requested == CountStrategy.ESTIMATED && filtered
+                ? CountStrategy.EXACT
+                : requested;
+
+        query.with(pageable);
+        String sort = CatalogQueryMetrics.sortTag(pageable.getSort());
+
+        if (strategy == CountStrategy.NONE) {
+            if (pageable.isPaged()) {
+                query.limit(pageable.getPageSize() + 1);
+            }
+            long start = System.nanoTime();
+            List<Product> products = mongoTemplate.find(query, Product.class);
+            long findNanos = System.nanoTime() - start;
+            queryMetrics.recordFind(filters, sort, findNanos, products.size());
+            slowQueryLog.inspect(shape, query, null, pageable, findNanos, 0, products.size());
+            boolean hasNext = pageable.isPaged() && products.size() > pageable.getPageSize();
+            List<Product> content = hasNext ? products.subList(0, pageable.getPageSize()) : products;
+            long total = (pageable.isPaged() ? pageable.getOffset() : 0) + content.size() + (hasNext ? 1 : 0);
+            return new CountedPage<>(content, pageable, total, strategy);
+        }
+
+        Query countQuery = Query.of(query).limit(-1).skip(-1);
+
+        // Solo se mide el conteo que llega a MongoDB: getPage lo omite si la página permite deducir el total
+        // y CACHED lo sirve de countCache mientras no expire; en esos casos countNanos queda en 0
+        long[] countNanos = new long[1];
+        LongSupplier count = () -> {
+            long start = System.nanoTime();
+            long value = strategy == CountStrategy.ESTIMATED
+                    ? mongoTemplate.estimatedCount(Product.class)
+                    : mongoTemplate.count(countQuery, Product.class);
+            countNanos[0] = System.nanoTime() - start;
+            queryMetrics.recordCount(filters, sort, countNanos[0]);
+            return value;
+        };
+        LongSupplier total = strategy == CountStrategy.CACHED
+                ? () -> countCache.get(countQuery, count)
+                : count;
+
+        return queryExecutor != null
+                ? findPageParallel(query, countQuery, pageable, total, countNanos, strategy, filters, sort, shape)
+                : findPageSequential(query, countQuery, pageable, total, countNanos, strategy, filters, sort, shape);
+    }
+
+    /**
+     * Página y luego total; getPage evita el conteo cuando la página ya permite deducir el total
+     */
+    private CountedPage<Product> findPageSequential(Query query, Query countQuery, Pageable pageable,
+                                                    LongSupplier total, long[] countNanos, CountStrategy strategy,
+                                                    String filters, String sort, String shape) {
+        long start = System.nanoTime();
+        List<Product> products = mongoTemplate.find(query, Product.class);
+        long found = System.nanoTime();
+        queryMetrics.recordFind(filters, sort, found - start, products.size());
+        Page<Product> page = PageableExecutionUtils.getPage(products, pageable, total);
+        long end = System.nanoTime();
+
+        latencyRecorder.record(found - start, countNanos[0], end - start);
+        slowQueryLog.inspect(shape, query, countQuery, pageable, found - start, countNanos[0], products.size());
+        return new CountedPage<>(page.getContent(), pageable, page.getTotalElements(), strategy);
+    }
+
+    /**
+     * El total se cuenta en un hilo virtual mientras este hilo trae la página. Se cuenta siempre,
+     * aunque la página permitiera deducirlo, porque no se conoce la página antes de lanzar el conteo.
+     */
+    private CountedPage<Product> findPageParallel(Query query, Query countQuery, Pageable pageable,
+                                                  LongSupplier total, long[] countNanos, CountStrategy strategy,
+                                                  String filters, String sort, String shape) {
+        long start = System.nanoTime();
+        CompletableFuture<Long> count = CompletableFuture.supplyAsync(total::getAsLong, queryExecutor);
+
+        List<Product> products;
+        try {
+            products = mongoTemplate.find(query, Product.class);
+        } catch (RuntimeException e) {
+            count.cancel(false);
+            throw e;
+        }
+        long found = System.nanoTime();
+        queryMetrics.recordFind(filters, sort, found - start, products.size());
+
+        long counted;
+        try {
+            counted = count.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        long end = System.nanoTime();
+
+        // join publica el countNanos escrito por el hilo del conteo
+        latencyRecorder.record(found - start, countNanos[0], end - start);
+        slowQueryLog.inspect(shape, query, countQuery, pageable, found - start, countNanos[0], products.size());
+        return new CountedPage<>(products, pageable, counted, strategy);
+    }
+
+    /**
+     * Latencias de búsqueda acumuladas y el modo de consulta activo
+     */
+    public SearchLatencyStats latencyStats() {
+        return latencyRecorder.stats(queryExecutor != null);
+    }
+
+    /**
+     * Traduce el orden por relevancia a la puntuación de $text ({$meta: "textScore"}) en la query
+     * y lo quita del orden por campos; sin búsqueda de texto la relevancia se ignora
+     */
+    static Sort withRelevance(Query query, Sort sort) {
+        if (!SortField.isRelevance(sort)) {
+            return sort;
+        }
+        if (query instanceof TextQuery textQuery) {
+            textQuery.sortByScore();
+        }
+        return Sort.by(sort.stream()
+                .filter(order -> !SortField.RELEVANCE.getKey().equals(order.getProperty()))
+                .toList());
+    }
+
+    static Pageable withRelevance(Query query, Pageable pageable) {
+        if (!SortField.isRelevance(pageable.getSort())) {
+            return pageable;
+        }
+        Sort sort = withRelevance(query, pageable.getSort());
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort)
+                : Pageable.unpaged(sort);
+    }
+
+    /**
+     * Agrega el ID como último criterio de orden para que el keyset sea único
+     */
+    static Sort withIdTieBreaker(Sort sort) {
+        Sort.Order first = sort.stream().findFirst().orElse(null);
+        if (first == null) {
+            return Sort.by(Sort.Direction.ASC, "id");
+        }
+        if ("id".equals(first.getProperty())) {
+            return Sort.by(first);
+        }
+        return Sort.by(first, new Sort.Order(first.getDirection(), "id"));
+    }
+
+    /**
+     * Construye la condición "posterior al cursor" respetando el orden de MongoDB,
+     * donde null y los campos ausentes ordenan antes que cualquier otro valor.
+     */
+    static Criteria buildKeysetCriteria(ProductCursor cursor) {
+        boolean asc = cursor.getDirection() != Sort.Direction.DESC;
+        String field = cursor.getSortField();
+        // Los precios se guardan como Decimal128 y deben compararse con el mismo tipo
+        Object value = cursor.getLastValue() instanceof BigDecimal decimal
+                ? new Decimal128(decimal)
+                : cursor.getLastValue();
+        String lastId = cursor.getLastId();
+
+        if (field == null || "id".equals(field)) {
+            return idAfter(Criteria.where("id"), asc, lastId);
+        }
+
+        // El empate se expresa sin $and propio: los filtros ya ocupan el $and de la consulta
+        // y una segunda clave $and de primer nivel la invalida
+        Criteria sameKey = idAfter(Criteria.where(field).is(value).and("id"), asc, lastId);
+        if (value == null) {
+            return asc
+                    ? new Criteria().orOperator(Criteria.where(field).ne(null), sameKey)
+                    : sameKey;
+        }
+
+        Criteria beyondKey = asc
+                ? Criteria.where(field).gt(value)
+                : Criteria.where(field).lt(value);
+
+        return asc
+                ? new Criteria().orOperator(beyondKey, sameKey)
+                : new Criteria().orOperator(beyondKey, sameKey, Criteria.where(field).is(null));
+    }
+
+    private static Criteria idAfter(Criteria id, boolean asc, String lastId) {
+        return asc ? id.gt(lastId) : id.lt(lastId);
     }
 }
@@ -0,0 +1,43 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.walmart.ecommerce.domain.entities.Product;
+
+/**
+ * Recibe las escrituras realizadas a través de ProductRepositoryAdapter
+ * para mantener sincronizadas las estructuras derivadas del catálogo.
+ * ProductChangeRelay entrega además los cambios del change stream, incluidos los de otras
+ * instancias y los propios repetidos, así que aplicar un mismo estado dos veces debe ser inocuo
+ * (o el listener debe tratarlos aparte sobrescribiendo onProductChanged).
+ */
+public interface ProductWriteListener {
+
+    /**
+     * Notifica un producto guardado junto con su estado anterior (null si es nuevo o si el cambio
+     * llega del change stream, que no trae el estado anterior)
+     */
+    void onProductSaved(Product previous, Product current);
+
+    /**
+     * Notifica un producto guardado según el change stream, sin su estado anterior
+     */
+    default void onProductChanged(Product current) {
+        onProductSaved(null, current);
+    }
+
+    /**
+     * Notifica que se eliminaron todos los productos
+     */
+    void onAllDeleted();
+
+    /**
+     * Notifica que se eliminó un producto; solo llega desde el change stream
+     */
+    default void onProductDeleted(String id) {
+    }
+
+    /**
+     * El change stream perdió continuidad: la estructura debe reconstruirse desde MongoDB
+     */
+    default void onResync() {
+    }
+}
@@ -0,0 +1,60 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache de totales por filtro normalizado.
+ * La clave es el documento de filtro que se envía a MongoDB, sin orden ni paginación,
+ * por lo que dos búsquedas equivalentes comparten el mismo total durante el TTL.
+ */
+@Component
+public class QueryCountCache {
+
+    private final Cache<String, Long> counts;
+
+    public QueryCountCache(
+            @Value("${app.search.count-cache.ttl:30s}") Duration ttl,
+            @Value("${app.search.count-cache.max-size:10000}") long maxSize) {
+        this.counts = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Obtiene el total cacheado para la query o lo calcula con el proveedor indicado
+     */
+    public long get(Query countQuery, LongSupplier loader) {
+        return counts.get(countQuery.getQueryObject().toString(), key -> loader.getAsLong());
+    }
+
+    /**
+     * Total cacheado para la query, si existe; para quien no puede bloquear esperando el cálculo
+     */
+    public OptionalLong getIfPresent(Query countQuery) {
+        Long count = counts.getIfPresent(countQuery.getQueryObject().toString());
+        return count != null ? OptionalLong.of(count) : OptionalLong.empty();
+    }
+
+    /**
+     * Guarda el total calculado para la query
+     */
+    public void put(Query countQuery, long count) {
+        counts.put(countQuery.getQueryObject().toString(), count);
+    }
+
+    /**
+     * Descarta todos los totales cacheados
+     */
+    public void invalidateAll() {
+        counts.invalidateAll();
+    }
+}
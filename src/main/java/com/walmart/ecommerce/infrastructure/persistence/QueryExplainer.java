@@ -0,0 +1,114 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pide a MongoDB el plan de las consultas de productos (comando explain) con el filtro y el orden
+ * ya mapeados, tal como los envía MongoTemplate.
+ */
+@Component
+public class QueryExplainer {
+
+    public static final String QUERY_PLANNER = "queryPlanner";
+    public static final String EXECUTION_STATS = "executionStats";
+
+    private final MongoTemplate mongoTemplate;
+
+    public QueryExplainer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Explain del find de la query, con su orden, salto y límite; executionStats la ejecuta completa
+     */
+    public Document explainFind(Query query, String verbosity) {
+        MongoPersistentEntity<?> entity = entity();
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+
+        Document find = new Document("find", mongoTemplate.getCollectionName(Product.class))
+                .append("filter", mapper.getMappedObject(query.getQueryObject(), entity))
+                .append("sort", mapper.getMappedSort(query.getSortObject(), entity));
+        if (query.getSkip() > 0) {
+            find.append("skip", query.getSkip());
+        }
+        if (query.getLimit() > 0) {
+            find.append("limit", query.getLimit());
+        }
+        return mongoTemplate.executeCommand(new Document("explain", find).append("verbosity", verbosity));
+    }
+
+    /**
+     * Explain del conteo con el filtro de la query
+     */
+    public Document explainCount(Query query, String verbosity) {
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+        Document count = new Document("count", mongoTemplate.getCollectionName(Product.class))
+                .append("query", mapper.getMappedObject(query.getQueryObject(), entity()));
+        return mongoTemplate.executeCommand(new Document("explain", count).append("verbosity", verbosity));
+    }
+
+    private MongoPersistentEntity<?> entity() {
+        return mongoTemplate.getConverter().getMappingContext().getPersistentEntity(Product.class);
+    }
+
+    /**
+     * Plan ganador de un explain: etapas de la raíz a la hoja y primer índice usado
+     */
+    public static QueryPlan winningPlan(Document explain) {
+        Document planner = explain.get(QUERY_PLANNER, Document.class);
+        Document winning = planner != null ? planner.get("winningPlan", Document.class) : null;
+        // Con el motor SBE (MongoDB 7+) el plan queda anidado en queryPlan
+        if (winning != null && winning.containsKey("queryPlan")) {
+            winning = winning.get("queryPlan", Document.class);
+        }
+
+        List<String> stages = new ArrayList<>();
+        String indexName = null;
+        Document stage = winning;
+        while (stage != null) {
+            stages.add(stage.getString("stage"));
+            if (indexName == null && stage.getString("indexName") != null) {
+                indexName = stage.getString("indexName");
+            }
+            Document input = stage.get("inputStage", Document.class);
+            if (input == null && stage.get("inputStages") instanceof List<?> inputs && !inputs.isEmpty()) {
+                input = (Document) inputs.get(0);
+            }
+            stage = input;
+        }
+        return new QueryPlan(List.copyOf(stages), indexName);
+    }
+
+    /**
+     * Etapas del plan ganador y el índice que recorre (null si no usa ninguno)
+     */
+    public record QueryPlan(List<String> stages, String indexName) {
+
+        /**
+         * Etapas unidas de la raíz a la hoja, por ejemplo "FETCH>IXSCAN"
+         */
+        public String describe() {
+            return String.join(">", stages);
+        }
+
+        public boolean collectionScan() {
+            return stages.contains("COLLSCAN");
+        }
+
+        /**
+         * true si el plan ordena en memoria en lugar de leer el índice en orden
+         */
+        public boolean blockingSort() {
+            return stages.contains("SORT");
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.walmart.ecommerce.domain.repositories.ProductCriteria;
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Forma de una consulta de productos: qué campos filtra por igualdad, por cuáles ordena y sobre cuáles
+ * aplica un rango, sin los valores. Dos búsquedas con la misma forma usan el mismo índice.
+ * Se escribe como "eq=category+brand;sort=price;range=stock" (formato de app.indexes.shapes).
+ */
+@Value
+public class QueryShape {
+
+    /**
+     * Campos que buildFilterQuery compara por igualdad; varias categorías o marcas y los tags usan $in
+     * (o $all), que con pocos valores el planificador resuelve como varias búsquedas puntuales
+     */
+    private static final List<String> EQUALITY_FIELDS = List.of("category", "brand", "tags", "onSale");
+    private static final List<String> RANGE_FIELDS = List.of("price", "stock", "discountPercentage");
+    private static final List<String> SORT_FIELDS =
+            List.of("price", "name", "stock", "discountPercentage", "category", "brand", "_id");
+    private static final String SAMPLE_VALUE = "explain";
+
+    List<String> equality;
+    List<String> sort;
+    List<String> range;
+
+    /**
+     * Forma de los filtros y el orden de una búsqueda; null si usa búsqueda de texto, que se resuelve
+     * con el índice de texto, o grupos anyOf, que MongoDB planifica rama por rama
+     */
+    public static QueryShape of(ProductCriteria criteria, Sort sort) {
+        if ((criteria.getSearchText() != null && !criteria.getSearchText().isEmpty()) || criteria.hasAnyOf()) {
+            return null;
+        }
+
+        List<String> equality = new ArrayList<>();
+        if (!criteria.categoryValues().isEmpty()) {
+            equality.add("category");
+        }
+        if (!criteria.brandValues().isEmpty()) {
+            equality.add("brand");
+        }
+        if (criteria.getTags() != null && !criteria.getTags().isEmpty()) {
+            equality.add("tags");
+        }
+        if (Boolean.TRUE.equals(criteria.getOnSale())) {
+            equality.add("onSale");
+        }
+
+        List<String> range = new ArrayList<>();
+        if (criteria.getMinPrice() != null || criteria.getMaxPrice() != null) {
+            range.add("price");
+        }
+        if (Boolean.TRUE.equals(criteria.getInStock())) {
+            range.add("stock");
+        }
+        if (criteria.getMinDiscount() != null && criteria.getMinDiscount() > 0) {
+            range.add("discountPercentage");
+        }
+
+        // Un orden por un campo desconocido no lo puede servir ningún índice: se ignora
+        List<String> sortKeys = sort.stream()
+                .map(order -> "id".equals(order.getProperty()) ? "_id" : order.getProperty())
+                .filter(SORT_FIELDS::contains)
+                .toList();
+
+        return new QueryShape(equality, sortKeys, range);
+    }
+
+    /**
+     * Forma normalizada para informar cualquier búsqueda; las de texto se describen como "text;sort=..."
+     * y las que tienen grupos anyOf como "anyOf;sort=..."
+     */
+    public static String describe(ProductCriteria criteria, Sort sort) {
+        QueryShape shape = of(criteria, sort);
+        if (shape != null) {
+            return shape.toString();
+        }
+        String kind = criteria.getSearchText() != null && !criteria.getSearchText().isEmpty() ? "text" : "anyOf";
+        return kind + ";sort=" + String.join("+", of(ProductCriteria.empty(), sort).sort);
+    }
+
+    /**
+     * Lee una forma escrita como "eq=category;sort=price;range=price"
+     */
+    public static QueryShape parse(String spec) {
+        List<String> equality = List.of();
+        List<String> sort = List.of();
+        List<String> range = List.of();
+        for (String part : spec.trim().split(";")) {
+            String[] entry = part.trim().split("=", 2);
+            List<String> fields = entry.length < 2 || entry[1].isBlank()
+                    ? List.of()
+                    : List.of(entry[1].trim().split("\\+"));
+            switch (entry[0].trim()) {
+                case "eq" -> equality = fields;
+                case "sort" -> sort = fields;
+                case "range" -> range = fields;
+                default -> throw new IllegalArgumentException("Parte de forma de consulta inválida: " + part);
+            }
+        }
+        return new QueryShape(canonical(equality, EQUALITY_FIELDS), sort, canonical(range, RANGE_FIELDS));
+    }
+
+    private QueryShape(List<String> equality, List<String> sort, List<String> range) {
+        for (String field : sort) {
+            if (!SORT_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Campo de orden no soportado en una forma de consulta: " + field);
+            }
+        }
+        // Ordenar por un campo fijado por igualdad no cuesta nada, y un rango sobre el campo de orden
+        // lo resuelve el mismo tramo del índice
+        this.equality = List.copyOf(equality);
+        this.sort = sort.stream().filter(field -> !equality.contains(field)).toList();
+        this.range = range.stream().filter(field -> !this.sort.contains(field)).toList();
+    }
+
+    private static List<String> canonical(List<String> fields, List<String> known) {
+        for (String field : fields) {
+            if (!known.contains(field)) {
+                throw new IllegalArgumentException("Campo no soportado en una forma de consulta: " + field);
+            }
+        }
+        return known.stream().filter(fields::contains).toList();
+    }
+
+    /**
+     * Claves del índice compuesto recomendado según la regla ESR: igualdad, orden y rango.
+     * El orden en una sola dirección se sirve recorriendo el índice en cualquier sentido
+     */
+    public Map<String, Integer> indexKeys() {
+        Map<String, Integer> keys = new LinkedHashMap<>();
+        equality.forEach(field -> keys.put(field, 1));
+        sort.forEach(field -> keys.put(field, 1));
+        range.forEach(field -> keys.put(field, 1));
+        return keys;
+    }
+
+    /**
+     * true si el índice de _id ya resuelve la consulta (sin filtros y sin orden o solo por ID)
+     */
+    public boolean isTrivial() {
+        return equality.isEmpty() && range.isEmpty() && (sort.isEmpty() || List.of("_id").equals(sort));
+    }
+
+    /**
+     * Nombre del índice administrado para esta forma
+     */
+    public String indexName() {
+        return ProductIndexAdvisor.MANAGED_PREFIX + String.join("_", indexKeys().keySet());
+    }
+
+    /**
+     * Criterios con valores de ejemplo que producen esta forma, para pedir el plan con explain
+     */
+    public ProductCriteria sampleCriteria() {
+        return ProductCriteria.builder()
+                .category(equality.contains("category") ? SAMPLE_VALUE : null)
+                .brand(equality.contains("brand") ? SAMPLE_VALUE : null)
+                .tags(equality.contains("tags") ? List.of(SAMPLE_VALUE) : null)
+                .onSale(equality.contains("onSale") ? Boolean.TRUE : null)
+                .minPrice(range.contains("price") ? BigDecimal.ZERO : null)
+                .inStock(range.contains("stock") ? Boolean.TRUE : null)
+                .minDiscount(range.contains("discountPercentage") ? 1 : null)
+                .build();
+    }
+
+    /**
+     * Orden de ejemplo que produce esta forma
+     */
+    public Sort sampleSort() {
+        return Sort.by(sort.stream()
+                .map(field -> Sort.Order.asc("_id".equals(field) ? "id" : field))
+                .toList());
+    }
+
+    @Override
+    public String toString() {
+        return "eq=" + String.join("+", equality)
+                + ";sort=" + String.join("+", sort)
+                + ";range=" + String.join("+", range);
+    }
+}
@@ -0,0 +1,169 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.CountStrategy;
+import com.walmart.ecommerce.domain.repositories.CountedPage;
+import com.walmart.ecommerce.domain.repositories.FacetCount;
+import com.walmart.ecommerce.domain.repositories.FacetField;
+import com.walmart.ecommerce.domain.repositories.ProductCriteria;
+import com.walmart.ecommerce.domain.repositories.ProductCursor;
+import com.walmart.ecommerce.domain.repositories.ReactiveProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/**
+ * Adaptador que implementa ReactiveProductRepository con el driver reactivo de MongoDB.
+ * Usa las mismas queries que ProductRepositoryAdapter; la diferencia es que ningún hilo
+ * queda bloqueado esperando a la base y que la página y el total se piden en paralelo.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveProductRepositoryAdapter implements ReactiveProductRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final QueryCountCache countCache;
+    private final ProductFacetIndex facetIndex;
+    private final ProductFacetSearch facetSearch;
+    private final int exportBatchSize;
+
+    public ReactiveProductRepositoryAdapter(
+            ReactiveMongoTemplate mongoTemplate,
+            QueryCountCache countCache,
+            ProductFacetIndex facetIndex,
+            ProductFacetSearch facetSearch,
+            @Value("${app.export.cursor-batch-size:500}") int exportBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.countCache = countCache;
+        this.facetIndex = facetIndex;
+        this.facetSearch = facetSearch;
+        this.exportBatchSize = exportBatchSize;
+    }
+
+    @Override
+    public Mono<Product> findById(String id) {
+        return mongoTemplate.findById(id, Product.class);
+    }
+
+    @Override
+    public Flux<Product> findAllById(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return mongoTemplate.find(new Query(Criteria.where("id").in(ids)), Product.class);
+    }
+
+    @Override
+    public Mono<CountedPage<Product>> findByFilters(ProductCriteria criteria, Pageable requested,
+                                                    CountStrategy countStrategy) {
+        Query query = ProductRepositoryAdapter.buildFilterQuery(criteria);
+        Pageable pageable = ProductRepositoryAdapter.withRelevance(query, requested);
+        // La estimación por metadata solo representa a la colección completa
+        CountStrategy strategy = countStrategy == CountStrategy.ESTIMATED && criteria.hasFilters()
+                ? CountStrategy.EXACT
+                : countStrategy;
+
+        query.with(pageable);
+
+        if (strategy == CountStrategy.NONE) {
+            if (pageable.isPaged()) {
+                query.limit(pageable.getPageSize() + 1);
+            }
+            return mongoTemplate.find(query, Product.class).collectList().map(products -> {
+                boolean hasNext = pageable.isPaged() && products.size() > pageable.getPageSize();
+                List<Product> content = hasNext ? products.subList(0, pageable.getPageSize()) : products;
+                long total = (pageable.isPaged() ? pageable.getOffset() : 0) + content.size() + (hasNext ? 1 : 0);
+                return new CountedPage<>(content, pageable, total, strategy);
+            });
+        }
+
+        Query countQuery = Query.of(query).limit(-1).skip(-1);
+        Mono<Long> total = switch (strategy) {
+            case ESTIMATED -> mongoTemplate.estimatedCount(Product.class);
+            case CACHED -> cachedCount(countQuery);
+            default -> mongoTemplate.count(countQuery, Product.class);
+        };
+
+        // A diferencia del adaptador bloqueante, el conteo no espera a la página: ambos viajan a la vez
+        return Mono.zip(mongoTemplate.find(query, Product.class).collectList(), total)
+                .map(result -> new CountedPage<>(result.getT1(), pageable, result.getT2(), strategy));
+    }
+
+    @Override
+    public Mono<Slice<Product>> findByCriteriaAfter(ProductCriteria criteria, ProductCursor after, int size,
+                                                    Sort sort) {
+        Sort keysetSort = ProductRepositoryAdapter.withIdTieBreaker(sort);
+
+        Query query = ProductRepositoryAdapter.buildFilterQuery(criteria);
+        if (after != null) {
+            query.addCriteria(ProductRepositoryAdapter.buildKeysetCriteria(after));
+        }
+        // Se pide un elemento extra para saber si existe una página siguiente sin contar
+        query.with(keysetSort).limit(size + 1);
+
+        return mongoTemplate.find(query, Product.class).collectList().map(products -> {
+            boolean hasNext = products.size() > size;
+            List<Product> content = hasNext ? products.subList(0, size) : products;
+            return new SliceImpl<>(content, PageRequest.of(0, size, keysetSort), hasNext);
+        });
+    }
+
+    @Override
+    public Flux<Product> streamByCriteria(ProductCriteria criteria, Sort sort) {
+        Query query = ProductRepositoryAdapter.buildFilterQuery(criteria);
+        query.with(ProductRepositoryAdapter.withRelevance(query, sort));
+        query.cursorBatchSize(exportBatchSize);
+        return mongoTemplate.find(query, Product.class);
+    }
+
+    @Override
+    public Mono<Map<FacetField, List<FacetCount>>> computeFacets(ProductCriteria criteria, Set<FacetField> facets) {
+        // La agregación de facetas se comparte con la API bloqueante: corre en el pool elástico
+        Query query = ProductRepositoryAdapter.buildFilterQuery(criteria);
+        return Mono.fromCallable(() -> facetSearch.compute(query, criteria.hasFilters(), facets))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<String> findDistinctCategories() {
+        return Mono.fromCallable(facetIndex::categories)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(categories -> categories);
+    }
+
+    @Override
+    public Flux<String> findDistinctBrands() {
+        return Mono.fromCallable(facetIndex::brands)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(brands -> brands);
+    }
+
+    /**
+     * Total desde el cache de conteos; si no está, se cuenta y se guarda sin bloquear
+     */
+    private Mono<Long> cachedCount(Query countQuery) {
+        OptionalLong cached = countCache.getIfPresent(countQuery);
+        if (cached.isPresent()) {
+            return Mono.just(cached.getAsLong());
+        }
+        return mongoTemplate.count(countQuery, Product.class)
+                .doOnNext(count -> countCache.put(countQuery, count));
+    }
+}
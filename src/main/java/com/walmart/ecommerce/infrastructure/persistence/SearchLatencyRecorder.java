@@ -0,0 +1,51 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Acumula los tiempos de find, count y total de cada búsqueda paginada.
+ */
+@Component
+public class SearchLatencyRecorder {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder findNanos = new LongAdder();
+    private final LongAdder countNanos = new LongAdder();
+    private final LongAdder elapsedNanos = new LongAdder();
+
+    /**
+     * Registra una búsqueda; count es 0 si no se consultó MongoDB (total deducido de la página o servido por countCache)
+     */
+    public void record(long find, long count, long elapsed) {
+        searches.increment();
+        findNanos.add(find);
+        countNanos.add(count);
+        elapsedNanos.add(elapsed);
+    }
+
+    /**
+     * Promedios acumulados desde el arranque
+     */
+    public SearchLatencyStats stats(boolean parallel) {
+        long total = searches.sum();
+        double find = average(findNanos, total);
+        double count = average(countNanos, total);
+        double elapsed = average(elapsedNanos, total);
+        return SearchLatencyStats.builder()
+                .mode(parallel ? "parallel" : "sequential")
+                .searches(total)
+                .avgFindMillis(find)
+                .avgCountMillis(count)
+                .avgElapsedMillis(elapsed)
+                .avgOverlapMillis(Math.max(0, find + count - elapsed))
+                .build();
+    }
+
+    private static double average(LongAdder nanos, long count) {
+        return count == 0 ? 0 : nanos.sum() / NANOS_PER_MILLI / count;
+    }
+}
@@ -0,0 +1,26 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Latencias promedio de las búsquedas paginadas que calculan el total, para comparar
+ * la consulta en serie (find y luego count) con la consulta en paralelo
+ */
+@Value
+@Builder
+public class SearchLatencyStats {
+
+    /**
+     * parallel (hilos virtuales) o sequential
+     */
+    String mode;
+    long searches;
+    double avgFindMillis;
+    double avgCountMillis;
+    double avgElapsedMillis;
+    /**
+     * Tiempo promedio ahorrado por solapar find y count: find + count - transcurrido
+     */
+    double avgOverlapMillis;
+}
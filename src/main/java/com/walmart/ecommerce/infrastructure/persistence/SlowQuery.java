@@ -0,0 +1,48 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Búsqueda paginada cuyo find o count superó el umbral de consulta lenta
+ */
+@Value
+@Builder(toBuilder = true)
+public class SlowQuery {
+
+    Instant timestamp;
+    /**
+     * Forma normalizada de la búsqueda, sin valores (por ejemplo "eq=category;sort=price;range=stock")
+     */
+    String shape;
+    int page;
+    int size;
+    String sort;
+    double findMillis;
+    /**
+     * 0 si el total no se contó (estrategia none o deducido de la página)
+     */
+    double countMillis;
+    int results;
+    /**
+     * Explain con executionStats de la operación más lenta; null si la consulta no se muestreó
+     */
+    Explain explain;
+
+    @Value
+    @Builder
+    public static class Explain {
+        /**
+         * find o count
+         */
+        String operation;
+        String plan;
+        String indexName;
+        long keysExamined;
+        long docsExamined;
+        long returned;
+        long executionMillis;
+    }
+}
@@ -0,0 +1,132 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Registro acotado de las búsquedas lentas del adaptador, para diagnosticar latencias en producción
+ * sin activar el profiler global de MongoDB. Una fracción de las consultas lentas se vuelve a pedir con
+ * explain("executionStats") en un hilo aparte, de a una por vez, para ver documentos examinados contra
+ * retornados y el índice usado sin frenar la respuesta que ya fue lenta.
+ */
+@Component
+@Slf4j
+public class SlowQueryLog {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final QueryExplainer queryExplainer;
+    private final long thresholdNanos;
+    private final int capacity;
+    private final double explainSampleRate;
+    private final AtomicBoolean explaining = new AtomicBoolean();
+    private final Deque<SlowQuery> recent = new ArrayDeque<>();
+
+    public SlowQueryLog(
+            QueryExplainer queryExplainer,
+            @Value("${app.search.slow-query.threshold:100ms}") Duration threshold,
+            @Value("${app.search.slow-query.capacity:100}") int capacity,
+            @Value("${app.search.slow-query.explain-sample-rate:0.1}") double explainSampleRate) {
+        this.queryExplainer = queryExplainer;
+        this.thresholdNanos = threshold.toNanos();
+        this.capacity = capacity;
+        this.explainSampleRate = explainSampleRate;
+    }
+
+    /**
+     * Registra la búsqueda si su find o su count superó el umbral. countQuery es null si no se contó
+     */
+    public void inspect(String shape, Query query, Query countQuery, Pageable pageable,
+                        long findNanos, long countNanos, int results) {
+        if (findNanos < thresholdNanos && countNanos < thresholdNanos) {
+            return;
+        }
+
+        SlowQuery slow = SlowQuery.builder()
+                .timestamp(Instant.now())
+                .shape(shape)
+                .page(pageable.isPaged() ? pageable.getPageNumber() : 0)
+                .size(pageable.isPaged() ? pageable.getPageSize() : results)
+                .sort(pageable.getSort().isSorted() ? pageable.getSort().toString() : "none")
+                .findMillis(findNanos / NANOS_PER_MILLI)
+                .countMillis(countNanos / NANOS_PER_MILLI)
+                .results(results)
+                .build();
+        log.debug("Consulta lenta {}: find {} ms, count {} ms", shape, slow.getFindMillis(), slow.getCountMillis());
+
+        boolean countSlower = countQuery != null && countNanos > findNanos;
+        if (ThreadLocalRandom.current().nextDouble() >= explainSampleRate || !explaining.compareAndSet(false, true)) {
+            add(slow);
+            return;
+        }
+        // explain("executionStats") vuelve a ejecutar la consulta: se hace fuera del hilo de la petición
+        Thread worker = new Thread(() -> {
+            try {
+                add(slow.toBuilder()
+                        .explain(countSlower
+                                ? explain("count", queryExplainer.explainCount(countQuery,
+                                        QueryExplainer.EXECUTION_STATS))
+                                : explain("find", queryExplainer.explainFind(query,
+                                        QueryExplainer.EXECUTION_STATS)))
+                        .build());
+            } catch (RuntimeException e) {
+                log.warn("No se pudo obtener el plan de la consulta lenta {}: {}", shape, e.getMessage());
+                add(slow);
+            } finally {
+                explaining.set(false);
+            }
+        }, "slow-query-explain");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Consultas lentas registradas, de la más reciente a la más antigua
+     */
+    public synchronized List<SlowQuery> recent() {
+        List<SlowQuery> result = new ArrayList<>(recent);
+        Collections.reverse(result);
+        return result;
+    }
+
+    private synchronized void add(SlowQuery slow) {
+        if (recent.size() == capacity) {
+            recent.removeFirst();
+        }
+        recent.addLast(slow);
+    }
+
+    static SlowQuery.Explain explain(String operation, Document explain) {
+        QueryExplainer.QueryPlan plan = QueryExplainer.winningPlan(explain);
+        Document stats = explain.get(QueryExplainer.EXECUTION_STATS, Document.class);
+        SlowQuery.Explain.ExplainBuilder result = SlowQuery.Explain.builder()
+                .operation(operation)
+                .plan(plan.describe())
+                .indexName(plan.indexName());
+        if (stats != null) {
+            result.keysExamined(number(stats, "totalKeysExamined"))
+                    .docsExamined(number(stats, "totalDocsExamined"))
+                    .returned(number(stats, "nReturned"))
+                    .executionMillis(number(stats, "executionTimeMillis"));
+        }
+        return result.build();
+    }
+
+    private static long number(Document document, String key) {
+        return document.get(key) instanceof Number number ? number.longValue() : 0;
+    }
+}
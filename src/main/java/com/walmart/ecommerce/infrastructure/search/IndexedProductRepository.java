@@ -0,0 +1,159 @@
+package com.walmart.ecommerce.infrastructure.search;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.CountStrategy;
+import com.walmart.ecommerce.domain.repositories.CountedPage;
+import com.walmart.ecommerce.domain.repositories.FacetCount;
+import com.walmart.ecommerce.domain.repositories.FacetField;
+import com.walmart.ecommerce.domain.repositories.ProductCriteria;
+import com.walmart.ecommerce.domain.repositories.ProductCursor;
+import com.walmart.ecommerce.domain.repositories.ProductRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Implementación de ProductRepository que resuelve las lecturas con el índice de búsqueda en memoria
+ * y delega las escrituras en MongoDB, que sigue siendo la fuente de verdad.
+ * El índice se actualiza con cada escritura de esta instancia y, con change streams, con las de
+ * las demás. Se activa con el perfil "in-memory-search". Hasta que termina la primera construcción del índice
+ * (al iniciar la aplicación) las lecturas se resuelven contra MongoDB.
+ * Las páginas informan siempre CountStrategy.EXACT, cualquiera sea la estrategia pedida: el total es la
+ * cardinalidad del bitmap de resultados, que ya es exacta y no cuesta una consulta extra, así que no hay
+ * nada que ahorrar estimando, cacheando u omitiendo el conteo.
+ */
+@Repository(IndexedProductRepository.BEAN_NAME)
+@Profile(IndexedProductRepository.PROFILE)
+public class IndexedProductRepository implements ProductRepository {
+
+    public static final String PROFILE = "in-memory-search";
+    public static final String BEAN_NAME = "productStore";
+
+    private final ProductRepository store;
+    private final ProductSearchIndex index;
+
+    public IndexedProductRepository(
+            @Qualifier("productRepositoryAdapter") ProductRepository store,
+            ProductSearchIndex index) {
+        this.store = store;
+        this.index = index;
+    }
+
+    @Override
+    public Product save(Product product) {
+        return store.save(product);
+    }
+
+    @Override
+    public List<Product> saveAll(List<Product> products) {
+        return store.saveAll(products);
+    }
+
+    @Override
+    public int bulkUpsert(List<Product> products) {
+        return store.bulkUpsert(products);
+    }
+
+    @Override
+    public void deleteAll() {
+        store.deleteAll();
+    }
+
+    @Override
+    public Optional<Product> findById(String id) {
+        if (!index.isBuilt()) {
+            return store.findById(id);
+        }
+        return index.get(id);
+    }
+
+    @Override
+    public List<Product> findAllById(Collection<String> ids) {
+        if (!index.isBuilt()) {
+            return store.findAllById(ids);
+        }
+        return index.getAll(ids);
+    }
+
+    @Override
+    public CountedPage<Product> findAll(Pageable pageable, CountStrategy countStrategy) {
+        return findByFilters(ProductCriteria.empty(), pageable, countStrategy);
+    }
+
+    @Override
+    public CountedPage<Product> searchByText(String searchText, Pageable pageable, CountStrategy countStrategy) {
+        return findByFilters(ProductCriteria.builder().searchText(searchText).build(), pageable, countStrategy);
+    }
+
+    @Override
+    public CountedPage<Product> findByFilters(ProductCriteria criteria, Pageable pageable, CountStrategy countStrategy) {
+        if (!index.isBuilt()) {
+            return store.findByFilters(criteria, pageable, countStrategy);
+        }
+        ProductSearchIndex.SearchHits hits = index.search(
+                criteria, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+        // Se ignora countStrategy: la cardinalidad del bitmap de resultados ya es el total exacto, sin costo adicional
+        return new CountedPage<>(hits.getProducts(), pageable, hits.getTotal(), CountStrategy.EXACT);
+    }
+
+    @Override
+    public Slice<Product> findByCriteriaAfter(ProductCriteria criteria, ProductCursor after, int size, Sort sort) {
+        if (!index.isBuilt()) {
+            return store.findByCriteriaAfter(criteria, after, size, sort);
+        }
+        List<Product> products = index.searchAfter(criteria, after, sort, size + 1);
+        boolean hasNext = products.size() > size;
+        return new SliceImpl<>(hasNext ? products.subList(0, size) : products, Pageable.ofSize(size), hasNext);
+    }
+
+    @Override
+    public Stream<Product> streamByCriteria(ProductCriteria criteria, Sort sort) {
+        if (!index.isBuilt()) {
+            return store.streamByCriteria(criteria, sort);
+        }
+        return index.searchAll(criteria, sort).stream();
+    }
+
+    @Override
+    public Map<FacetField, List<FacetCount>> computeFacets(ProductCriteria criteria, Set<FacetField> facets) {
+        if (!index.isBuilt()) {
+            return store.computeFacets(criteria, facets);
+        }
+        return index.facets(criteria, facets);
+    }
+
+    @Override
+    public long count() {
+        if (!index.isBuilt()) {
+            return store.count();
+        }
+        return index.size();
+    }
+
+    @Override
+    public List<String> findDistinctCategories() {
+        if (!index.isBuilt()) {
+            return store.findDistinctCategories();
+        }
+        return index.categories();
+    }
+
+    @Override
+    public List<String> findDistinctBrands() {
+        if (!index.isBuilt()) {
+            return store.findDistinctBrands();
+        }
+        return index.brands();
+    }
+}
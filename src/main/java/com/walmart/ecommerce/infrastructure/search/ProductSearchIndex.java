@@ -0,0 +1,1274 @@
+package com.walmart.ecommerce.infrastructure.search;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.FacetCount;
+import com.walmart.ecommerce.domain.repositories.FacetField;
+import com.walmart.ecommerce.domain.repositories.ProductCriteria;
+import com.walmart.ecommerce.domain.repositories.ProductCursor;
+import com.walmart.ecommerce.domain.repositories.SortField;
+import com.walmart.ecommerce.infrastructure.persistence.ProductWriteListener;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.TextIndexed;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Motor de búsqueda en memoria sobre el catálogo completo.
+ * Mantiene postings por campo de texto con los pesos de @TextIndexed para ranking BM25,
+ * bitmaps comprimidos (RoaringBitmap) para categoría, marca, tags, stock y ofertas, y los productos
+ * ordenados por precio para los rangos. Se construye una vez desde MongoDB y luego
+ * se actualiza con cada escritura.
+ */
+@Component
+@Profile(IndexedProductRepository.PROFILE)
+@Slf4j
+public class ProductSearchIndex implements ProductWriteListener {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    // Peso de los términos expandidos frente a una coincidencia exacta
+    private static final float PREFIX_WEIGHT = 0.7f;
+    private static final float FUZZY_WEIGHT = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private final MongoTemplate mongoTemplate;
+    private final int facetLimit;
+    private final List<BigDecimal> priceBoundaries;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Las estructuras se reemplazan enteras al terminar una reconstrucción (ver replaceWith)
+    private List<TextField> textFields;
+    private List<Product> docs = new ArrayList<>();
+    private Map<String, Integer> ordinals = new HashMap<>();
+    private RoaringBitmap live = new RoaringBitmap();
+    private RoaringBitmap inStock = new RoaringBitmap();
+    private RoaringBitmap onSale = new RoaringBitmap();
+    private Map<String, RoaringBitmap> categories = new HashMap<>();
+    private Map<String, RoaringBitmap> brands = new HashMap<>();
+    private Map<String, RoaringBitmap> tags = new HashMap<>();
+    // Cantidad de apariciones de cada término y términos ordenados para expandir prefijos y errores;
+    // el conjunto ordenado solo cambia cuando un término aparece o desaparece
+    private Map<String, Integer> termCounts = new HashMap<>();
+    private NavigableSet<String> vocabulary = new TreeSet<>();
+    // Identificador numérico de cada término: los productos guardan sus términos como int[] compactos
+    private Map<String, Integer> termIds = new HashMap<>();
+    private List<String> termNames = new ArrayList<>();
+
+    // Precio de cada producto por ordinal (NaN si no tiene); double alcanza para comparar precios con centavos
+    private double[] prices = new double[0];
+    // Productos ordenados por precio (sin precio primero) y luego por ordinal; cada escritura que cambia
+    // un precio mueve solo ese ordinal
+    private int[] priceOrder = new int[0];
+    private double[] sortedPrices = new double[0];
+    private int missingPrices;
+    // Productos ordenados por id, para ubicar un cursor sin recorrer los candidatos; cambia con altas y bajas
+    private int[] idOrder = new int[0];
+    // Durante la carga completa los órdenes se arman una sola vez al final
+    private boolean loading;
+
+    // Escrituras recibidas durante una reconstrucción; null si no hay ninguna en curso
+    private List<Runnable> pending;
+    private volatile boolean built;
+
+    public ProductSearchIndex(
+            MongoTemplate mongoTemplate,
+            @Value("${app.search.facets.limit:20}") int facetLimit,
+            @Value("${app.search.facets.price-buckets:0,25,50,100,250,500}") List<BigDecimal> priceBoundaries) {
+        this.mongoTemplate = mongoTemplate;
+        this.facetLimit = facetLimit;
+        this.priceBoundaries = priceBoundaries.stream().sorted().toList();
+        this.textFields = textFieldsOf(Product.class);
+    }
+
+    /**
+     * Construye el índice al terminar de iniciar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reconstruye el índice completo recorriendo la colección de MongoDB en estructuras nuevas, sin tomar
+     * el lock: hasta el reemplazo las consultas usan el índice anterior y una sola reconstrucción corre a la vez
+     */
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        ProductSearchIndex fresh = new ProductSearchIndex(mongoTemplate, facetLimit, priceBoundaries);
+        try {
+            fresh.load();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            replaceWith(fresh);
+            // Las escrituras que llegaron durante la lectura se aplican sobre el índice leído
+            List<Runnable> writes = pending;
+            pending = null;
+            writes.forEach(Runnable::run);
+            built = true;
+            log.info("Índice de búsqueda construido: {} productos, {} términos ({} escrituras durante la construcción)",
+                    live.getCardinality(), vocabulary.size(), writes.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Si ya terminó la primera construcción; antes las lecturas se resuelven contra MongoDB
+     */
+    public boolean isBuilt() {
+        return built;
+    }
+
+    @Override
+    public void onProductSaved(Product previous, Product current) {
+        if (current == null || current.getId() == null) {
+            return;
+        }
+        write(() -> index(current));
+    }
+
+    @Override
+    public void onProductDeleted(String id) {
+        write(() -> {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal != null) {
+                remove(ordinal);
+            }
+        });
+    }
+
+    @Override
+    public void onAllDeleted() {
+        write(this::clear);
+    }
+
+    @Override
+    public void onResync() {
+        rebuild();
+    }
+
+    /**
+     * Busca una página de productos; sin orden explícito y con texto ordena por relevancia (BM25)
+     */
+    public SearchHits search(ProductCriteria criteria, Sort sort, long offset, int limit) {
+        return read(() -> {
+            Map<String, Float> terms = expand(criteria.getSearchText());
+            RoaringBitmap matches = match(criteria, terms);
+            return new SearchHits(select(criteria, matches, terms, sort, offset, limit), matches.getLongCardinality());
+        });
+    }
+
+    /**
+     * Busca los productos posteriores al cursor según el orden indicado (más el id como desempate).
+     * Ordenando por precio o por id ubica el cursor con una búsqueda binaria y recorre desde ahí
+     */
+    public List<Product> searchAfter(ProductCriteria criteria, ProductCursor after, Sort sort, int limit) {
+        Sort order = withIdTieBreaker(sort);
+        Sort.Order first = order.iterator().next();
+        boolean byPrice = "price".equals(first.getProperty());
+        boolean byId = "id".equals(first.getProperty());
+        return read(() -> {
+            Map<String, Float> terms = expand(criteria.getSearchText());
+            RoaringBitmap matches = match(criteria, terms);
+            long candidates = matches.getLongCardinality();
+            if (candidates == 0 || limit <= 0) {
+                return List.of();
+            }
+            // Recorrer el orden cuesta limit / densidad de los candidatos; si supera visitarlos a todos, top-K
+            boolean walk = (double) limit * live.getLongCardinality() / candidates <= candidates;
+            if (walk && byPrice
+                    && (after == null || after.getLastValue() == null || after.getLastValue() instanceof Number)) {
+                return afterInPriceOrder(matches, after, first.isAscending(), comparator(order), limit);
+            }
+            if (walk && byId) {
+                return afterInIdOrder(matches, after, first.isAscending(), limit);
+            }
+            if (after != null) {
+                RoaringBitmap remaining = new RoaringBitmap();
+                for (IntIterator it = matches.getIntIterator(); it.hasNext(); ) {
+                    int ordinal = it.next();
+                    if (isAfter(docs.get(ordinal), after)) {
+                        remaining.add(ordinal);
+                    }
+                }
+                matches = remaining;
+            }
+            return topK(matches, comparator(order), 0, limit);
+        });
+    }
+
+    /**
+     * Todos los productos que cumplen los filtros, en el orden indicado
+     */
+    public List<Product> searchAll(ProductCriteria criteria, Sort sort) {
+        return read(() -> {
+            Map<String, Float> terms = expand(criteria.getSearchText());
+            RoaringBitmap matches = match(criteria, terms);
+            return select(criteria, matches, terms, sort, 0, matches.getCardinality());
+        });
+    }
+
+    /**
+     * Conteos de facetas sobre los productos que cumplen los filtros
+     */
+    public Map<FacetField, List<FacetCount>> facets(ProductCriteria criteria, Set<FacetField> facets) {
+        return read(() -> {
+            RoaringBitmap matches = match(criteria, expand(criteria.getSearchText()));
+            Map<FacetField, List<FacetCount>> result = new EnumMap<>(FacetField.class);
+            for (FacetField field : facets) {
+                result.put(field, switch (field) {
+                    case CATEGORY -> valueCounts(categories, matches);
+                    case BRAND -> valueCounts(brands, matches);
+                    case TAGS -> valueCounts(tags, matches);
+                    case PRICE -> priceCounts(matches);
+                });
+            }
+            return result;
+        });
+    }
+
+    public Optional<Product> get(String id) {
+        return read(() -> Optional.ofNullable(ordinals.get(id)).map(docs::get));
+    }
+
+    public List<Product> getAll(Collection<String> ids) {
+        return read(() -> ids.stream()
+                .map(ordinals::get)
+                .filter(Objects::nonNull)
+                .map(docs::get)
+                .toList());
+    }
+
+    public long size() {
+        return read(live::getLongCardinality);
+    }
+
+    public List<String> categories() {
+        return read(() -> categories.keySet().stream().sorted().toList());
+    }
+
+    public List<String> brands() {
+        return read(() -> brands.keySet().stream().sorted().toList());
+    }
+
+    private <T> T read(Supplier<T> query) {
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------- escritura
+
+    /**
+     * Aplica una escritura, o la encola si hay una reconstrucción en curso.
+     * Antes de la primera construcción se descarta: esa construcción ya la leerá de MongoDB
+     */
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(change);
+            } else if (built) {
+                change.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Carga el catálogo completo en este índice, que todavía no es visible para las consultas
+     */
+    private void load() {
+        loading = true;
+        try (Stream<Product> products = mongoTemplate.stream(new Query(), Product.class)) {
+            products.forEach(this::index);
+        } finally {
+            loading = false;
+        }
+        sortByPrice();
+        sortById();
+    }
+
+    /**
+     * Toma las estructuras de un índice recién cargado; se llama con el lock de escritura tomado
+     */
+    private void replaceWith(ProductSearchIndex fresh) {
+        textFields = fresh.textFields;
+        docs = fresh.docs;
+        ordinals = fresh.ordinals;
+        live = fresh.live;
+        inStock = fresh.inStock;
+        onSale = fresh.onSale;
+        categories = fresh.categories;
+        brands = fresh.brands;
+        tags = fresh.tags;
+        termCounts = fresh.termCounts;
+        vocabulary = fresh.vocabulary;
+        termIds = fresh.termIds;
+        termNames = fresh.termNames;
+        prices = fresh.prices;
+        priceOrder = fresh.priceOrder;
+        sortedPrices = fresh.sortedPrices;
+        missingPrices = fresh.missingPrices;
+        idOrder = fresh.idOrder;
+    }
+
+    private void index(Product product) {
+        Integer existing = ordinals.get(product.getId());
+        int ordinal;
+        if (existing != null) {
+            ordinal = existing;
+            unindex(ordinal, docs.get(ordinal));
+            docs.set(ordinal, product);
+        } else {
+            ordinal = docs.size();
+            docs.add(product);
+            ordinals.put(product.getId(), ordinal);
+            textFields.forEach(field -> field.terms.add(null));
+        }
+
+        live.add(ordinal);
+        if (ordinal >= prices.length) {
+            prices = Arrays.copyOf(prices, Math.max(16, prices.length * 2));
+        }
+        double previousPrice = prices[ordinal];
+        prices[ordinal] = product.getPrice() != null ? product.getPrice().doubleValue() : Double.NaN;
+        if (!loading) {
+            if (existing == null) {
+                insertInPriceOrder(ordinal);
+                insertInIdOrder(ordinal);
+            } else if (Double.compare(previousPrice, prices[ordinal]) != 0) {
+                moveInPriceOrder(ordinal, sortable(previousPrice));
+            }
+        }
+        if (product.isAvailable()) {
+            inStock.add(ordinal);
+        }
+        if (product.hasDiscount()) {
+            onSale.add(ordinal);
+        }
+        addTo(categories, product.getCategory(), ordinal);
+        addTo(brands, product.getBrand(), ordinal);
+        if (product.getTags() != null) {
+            product.getTags().forEach(tag -> addTo(tags, tag, ordinal));
+        }
+
+        for (TextField field : textFields) {
+            List<String> analyzed = TextAnalyzer.analyze(field.valueOf(product));
+            int[] terms = new int[analyzed.size()];
+            for (int i = 0; i < terms.length; i++) {
+                terms[i] = termId(analyzed.get(i));
+            }
+            field.terms.set(ordinal, terms);
+            field.totalLength += terms.length;
+            for (int i = 0; i < terms.length; i++) {
+                if (firstOccurrence(terms, i)) {
+                    String term = analyzed.get(i);
+                    field.postings.computeIfAbsent(term, key -> new RoaringBitmap()).add(ordinal);
+                    if (termCounts.merge(term, 1, Integer::sum) == 1) {
+                        vocabulary.add(term);
+                    }
+                }
+            }
+        }
+    }
+
+    private void unindex(int ordinal, Product product) {
+        inStock.remove(ordinal);
+        onSale.remove(ordinal);
+        removeFrom(categories, product.getCategory(), ordinal);
+        removeFrom(brands, product.getBrand(), ordinal);
+        if (product.getTags() != null) {
+            product.getTags().forEach(tag -> removeFrom(tags, tag, ordinal));
+        }
+
+        for (TextField field : textFields) {
+            int[] terms = field.terms.get(ordinal);
+            field.totalLength -= terms.length;
+            for (int i = 0; i < terms.length; i++) {
+                if (firstOccurrence(terms, i)) {
+                    String term = termNames.get(terms[i]);
+                    removeFrom(field.postings, term, ordinal);
+                    if (termCounts.computeIfPresent(term, (key, count) -> count > 1 ? count - 1 : null) == null) {
+                        vocabulary.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Saca un producto del índice; su ordinal queda vacío y un nuevo alta del mismo id toma otro
+     */
+    private void remove(int ordinal) {
+        removeFromPriceOrder(ordinal);
+        removeFromIdOrder(ordinal);
+        unindex(ordinal, docs.get(ordinal));
+        live.remove(ordinal);
+        docs.set(ordinal, null);
+        textFields.forEach(field -> field.terms.set(ordinal, new int[0]));
+    }
+
+    private int termId(String term) {
+        Integer id = termIds.get(term);
+        if (id == null) {
+            id = termNames.size();
+            termIds.put(term, id);
+            termNames.add(term);
+        }
+        return id;
+    }
+
+    private static boolean firstOccurrence(int[] terms, int index) {
+        for (int i = 0; i < index; i++) {
+            if (terms[i] == terms[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void clear() {
+        docs.clear();
+        ordinals.clear();
+        live.clear();
+        inStock.clear();
+        onSale.clear();
+        categories.clear();
+        brands.clear();
+        tags.clear();
+        termCounts.clear();
+        vocabulary.clear();
+        termIds.clear();
+        termNames.clear();
+        textFields.forEach(TextField::clear);
+        priceOrder = new int[0];
+        sortedPrices = new double[0];
+        missingPrices = 0;
+        idOrder = new int[0];
+    }
+
+    /**
+     * Ordena los ordinales por precio con un sort primitivo: cada clave combina
+     * el rango del precio (32 bits altos) con el ordinal (32 bits bajos)
+     */
+    private void sortByPrice() {
+        int[] ordinalsByPosition = live.toArray();
+        double[] distinct = new double[ordinalsByPosition.length];
+        for (int i = 0; i < ordinalsByPosition.length; i++) {
+            distinct[i] = sortablePrice(ordinalsByPosition[i]);
+        }
+        distinct = Arrays.stream(distinct).sorted().distinct().toArray();
+
+        long[] keys = new long[ordinalsByPosition.length];
+        for (int i = 0; i < ordinalsByPosition.length; i++) {
+            int ordinal = ordinalsByPosition[i];
+            keys[i] = ((long) Arrays.binarySearch(distinct, sortablePrice(ordinal)) << 32) | ordinal;
+        }
+        Arrays.sort(keys);
+
+        priceOrder = new int[keys.length];
+        sortedPrices = new double[keys.length];
+        missingPrices = 0;
+        for (int i = 0; i < keys.length; i++) {
+            priceOrder[i] = (int) keys[i];
+            sortedPrices[i] = distinct[(int) (keys[i] >>> 32)];
+            if (Double.isNaN(prices[priceOrder[i]])) {
+                missingPrices++;
+            }
+        }
+    }
+
+    /**
+     * Ordena los ordinales por id al terminar una carga completa; se ordenan los id (sin ordinales
+     * en caja) y cada uno se traduce a su ordinal
+     */
+    private void sortById() {
+        String[] ids = new String[live.getCardinality()];
+        int i = 0;
+        for (IntIterator it = live.getIntIterator(); it.hasNext(); ) {
+            ids[i++] = docs.get(it.next()).getId();
+        }
+        Arrays.sort(ids);
+        idOrder = new int[ids.length];
+        for (i = 0; i < ids.length; i++) {
+            idOrder[i] = ordinals.get(ids[i]);
+        }
+    }
+
+    /**
+     * Ubica un producto nuevo en el orden por precio
+     */
+    private void insertInPriceOrder(int ordinal) {
+        double price = sortablePrice(ordinal);
+        int position = pricePosition(price, ordinal);
+        priceOrder = insertAt(priceOrder, position, ordinal);
+        double[] prices = new double[sortedPrices.length + 1];
+        System.arraycopy(sortedPrices, 0, prices, 0, position);
+        prices[position] = price;
+        System.arraycopy(sortedPrices, position, prices, position + 1, sortedPrices.length - position);
+        sortedPrices = prices;
+        if (price == Double.NEGATIVE_INFINITY) {
+            missingPrices++;
+        }
+    }
+
+    private void removeFromPriceOrder(int ordinal) {
+        double price = sortablePrice(ordinal);
+        int position = pricePosition(price, ordinal);
+        priceOrder = removeAt(priceOrder, position);
+        double[] prices = new double[sortedPrices.length - 1];
+        System.arraycopy(sortedPrices, 0, prices, 0, position);
+        System.arraycopy(sortedPrices, position + 1, prices, position, prices.length - position);
+        sortedPrices = prices;
+        if (price == Double.NEGATIVE_INFINITY) {
+            missingPrices--;
+        }
+    }
+
+    /**
+     * Mueve un producto cuyo precio cambió a su nueva posición, desplazando solo el tramo entre ambas
+     */
+    private void moveInPriceOrder(int ordinal, double previousPrice) {
+        double price = sortablePrice(ordinal);
+        int from = pricePosition(previousPrice, ordinal);
+        int to = pricePosition(price, ordinal);
+        if (to > from) {
+            // La posición calculada cuenta al propio producto, que deja su lugar anterior
+            to--;
+            System.arraycopy(priceOrder, from + 1, priceOrder, from, to - from);
+            System.arraycopy(sortedPrices, from + 1, sortedPrices, from, to - from);
+        } else {
+            System.arraycopy(priceOrder, to, priceOrder, to + 1, from - to);
+            System.arraycopy(sortedPrices, to, sortedPrices, to + 1, from - to);
+        }
+        priceOrder[to] = ordinal;
+        sortedPrices[to] = price;
+        if (previousPrice == Double.NEGATIVE_INFINITY) {
+            missingPrices--;
+        }
+        if (price == Double.NEGATIVE_INFINITY) {
+            missingPrices++;
+        }
+    }
+
+    /**
+     * Posición de (precio, ordinal) en el orden por precio: la que ocupa o la que le corresponde
+     */
+    private int pricePosition(double price, int ordinal) {
+        int low = 0;
+        int high = priceOrder.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Double.compare(sortedPrices[mid], price);
+            if (cmp < 0 || (cmp == 0 && priceOrder[mid] < ordinal)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void insertInIdOrder(int ordinal) {
+        idOrder = insertAt(idOrder, firstIdAtLeast(docs.get(ordinal).getId(), false), ordinal);
+    }
+
+    private void removeFromIdOrder(int ordinal) {
+        idOrder = removeAt(idOrder, firstIdAtLeast(docs.get(ordinal).getId(), false));
+    }
+
+    private static int[] insertAt(int[] values, int position, int value) {
+        int[] result = new int[values.length + 1];
+        System.arraycopy(values, 0, result, 0, position);
+        result[position] = value;
+        System.arraycopy(values, position, result, position + 1, values.length - position);
+        return result;
+    }
+
+    private static int[] removeAt(int[] values, int position) {
+        int[] result = new int[values.length - 1];
+        System.arraycopy(values, 0, result, 0, position);
+        System.arraycopy(values, position + 1, result, position, result.length - position);
+        return result;
+    }
+
+    /**
+     * Precio para ordenar, con los productos sin precio antes que cualquier otro como en MongoDB
+     */
+    private double sortablePrice(int ordinal) {
+        return sortable(prices[ordinal]);
+    }
+
+    private static double sortable(double price) {
+        return Double.isNaN(price) ? Double.NEGATIVE_INFINITY : price;
+    }
+
+    private static void addTo(Map<String, RoaringBitmap> values, String value, int ordinal) {
+        if (value != null && !value.isEmpty()) {
+            values.computeIfAbsent(value, key -> new RoaringBitmap()).add(ordinal);
+        }
+    }
+
+    private static void removeFrom(Map<String, RoaringBitmap> values, String value, int ordinal) {
+        if (value == null) {
+            return;
+        }
+        RoaringBitmap bitmap = values.get(value);
+        if (bitmap != null) {
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                values.remove(value);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- consulta
+
+    /**
+     * Expande los términos buscados: coincidencia exacta, prefijo para el último término
+     * (se está escribiendo) y una edición de distancia para los términos desconocidos
+     */
+    private Map<String, Float> expand(String searchText) {
+        Map<String, Float> expanded = new HashMap<>();
+        List<String> tokens = TextAnalyzer.analyze(searchText);
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            boolean known = termCounts.containsKey(token);
+            if (known) {
+                expanded.merge(token, 1f, Math::max);
+            }
+            if (i == tokens.size() - 1 && token.length() >= MIN_PREFIX_LENGTH) {
+                vocabulary.subSet(token, false, token + Character.MAX_VALUE, false).stream()
+                        .sorted(Comparator.comparing(termCounts::get).reversed())
+                        .limit(MAX_PREFIX_EXPANSIONS)
+                        .forEach(term -> expanded.merge(term, PREFIX_WEIGHT, Math::max));
+            }
+            if (!known && token.length() >= MIN_FUZZY_LENGTH) {
+                String first = token.substring(0, 1);
+                for (String term : vocabulary.subSet(first, true, first + Character.MAX_VALUE, false)) {
+                    if (withinOneEdit(token, term)) {
+                        expanded.merge(term, FUZZY_WEIGHT, Math::max);
+                    }
+                }
+            }
+        }
+        return expanded;
+    }
+
+    private RoaringBitmap match(ProductCriteria criteria, Map<String, Float> terms) {
+        RoaringBitmap matches = matchFilters(criteria);
+
+        if (criteria.hasAnyOf()) {
+            RoaringBitmap anyGroup = new RoaringBitmap();
+            criteria.getAnyOf().forEach(group -> anyGroup.or(matchFilters(group)));
+            matches.and(anyGroup);
+        }
+
+        if (criteria.getSearchText() != null && !criteria.getSearchText().isEmpty()) {
+            RoaringBitmap anyTerm = new RoaringBitmap();
+            for (TextField field : textFields) {
+                terms.keySet().stream().map(field.postings::get).filter(Objects::nonNull).forEach(anyTerm::or);
+            }
+            matches.and(anyTerm);
+        }
+
+        return matches;
+    }
+
+    /**
+     * Productos que cumplen los filtros simples (sin texto ni grupos)
+     */
+    private RoaringBitmap matchFilters(ProductCriteria criteria) {
+        RoaringBitmap matches = live.clone();
+        matches = and(matches, criteria.categoryValues(), categories);
+        matches = and(matches, criteria.brandValues(), brands);
+
+        if (Boolean.TRUE.equals(criteria.getInStock())) {
+            matches.and(inStock);
+        }
+
+        Integer minDiscount = criteria.getMinDiscount();
+        if (Boolean.TRUE.equals(criteria.getOnSale()) || (minDiscount != null && minDiscount > 0)) {
+            matches.and(onSale);
+        }
+        if (minDiscount != null && minDiscount > 0) {
+            RoaringBitmap discounted = new RoaringBitmap();
+            for (IntIterator it = matches.getIntIterator(); it.hasNext(); ) {
+                int ordinal = it.next();
+                if (docs.get(ordinal).getDiscountPercentage() >= minDiscount) {
+                    discounted.add(ordinal);
+                }
+            }
+            matches = discounted;
+        }
+
+        if (criteria.getTags() != null && !criteria.getTags().isEmpty()) {
+            if (criteria.matchAllTags()) {
+                for (String tag : criteria.getTags()) {
+                    matches = and(matches, List.of(tag), tags);
+                }
+            } else {
+                matches = and(matches, criteria.getTags(), tags);
+            }
+        }
+
+        return filterPrice(matches, criteria.getMinPrice(), criteria.getMaxPrice());
+    }
+
+    /**
+     * Intersecta con los productos que tienen alguno de los valores
+     */
+    private static RoaringBitmap and(RoaringBitmap matches, List<String> values, Map<String, RoaringBitmap> index) {
+        if (values.isEmpty()) {
+            return matches;
+        }
+        RoaringBitmap any = new RoaringBitmap();
+        values.stream().map(index::get).filter(Objects::nonNull).forEach(any::or);
+        return RoaringBitmap.and(matches, any);
+    }
+
+    /**
+     * Filtra por rango de precio recorriendo lo más chico entre el rango en el arreglo ordenado
+     * y los productos candidatos
+     */
+    private RoaringBitmap filterPrice(RoaringBitmap matches, BigDecimal min, BigDecimal max) {
+        if (min == null && max == null) {
+            return matches;
+        }
+        double low = min != null ? min.doubleValue() : Double.NEGATIVE_INFINITY;
+        double high = max != null ? max.doubleValue() : Double.POSITIVE_INFINITY;
+        int from = firstPriceAtLeast(low, false);
+        int to = firstPriceAtLeast(high, true);
+        if (to <= from) {
+            return new RoaringBitmap();
+        }
+        if (to - from <= matches.getCardinality()) {
+            return RoaringBitmap.and(matches, RoaringBitmap.bitmapOfUnordered(Arrays.copyOfRange(priceOrder, from, to)));
+        }
+        RoaringBitmap filtered = new RoaringBitmap();
+        for (IntIterator it = matches.getIntIterator(); it.hasNext(); ) {
+            int ordinal = it.next();
+            // NaN (sin precio) nunca cumple las comparaciones
+            if (prices[ordinal] >= low && prices[ordinal] <= high) {
+                filtered.add(ordinal);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Primera posición con precio mayor o igual (o estrictamente mayor si exclusive) al indicado
+     */
+    private int firstPriceAtLeast(double price, boolean exclusive) {
+        int low = missingPrices;
+        int high = sortedPrices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPrices[mid] < price || (exclusive && sortedPrices[mid] == price)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private List<Product> select(ProductCriteria criteria, RoaringBitmap matches, Map<String, Float> terms, Sort sort,
+                                 long offset, int limit) {
+        // La relevancia es el orden por defecto de las búsquedas con texto
+        if (SortField.isRelevance(sort)) {
+            sort = Sort.unsorted();
+        }
+        if (sort.isUnsorted() && terms.isEmpty()) {
+            return inOrdinalOrder(matches, offset, limit);
+        }
+        if (sort.isUnsorted()) {
+            Comparator<Hit> byRelevance = Comparator.comparingDouble(Hit::score).reversed()
+                    .thenComparingInt(Hit::ordinal);
+            return topByRelevance(matches, byRelevance, new QueryScorer(terms), offset, limit);
+        }
+        Sort.Order first = sort.iterator().next();
+        long candidates = matches.getLongCardinality();
+        if ("price".equals(first.getProperty()) && sort.stream().count() == 1 && candidates > 0) {
+            // Solo se recorre el tramo del orden por precio que cumple el rango pedido; el coste esperado es
+            // (offset + limit) / densidad de los candidatos en ese tramo; si supera visitarlos a todos, top-K
+            int from = criteria.getMinPrice() != null ? firstPriceAtLeast(criteria.getMinPrice().doubleValue(), false) : 0;
+            int to = criteria.getMaxPrice() != null ? firstPriceAtLeast(criteria.getMaxPrice().doubleValue(), true) : priceOrder.length;
+            if ((double) (offset + limit) * (to - from) / candidates <= candidates) {
+                return inPriceOrder(matches, first.isAscending(), from, to, offset, limit);
+            }
+        }
+        return topK(matches, comparator(sort), offset, limit);
+    }
+
+    private List<Product> inOrdinalOrder(RoaringBitmap matches, long offset, int limit) {
+        List<Product> page = new ArrayList<>();
+        if (offset >= matches.getLongCardinality()) {
+            return page;
+        }
+        PeekableIntIterator it = matches.getIntIterator();
+        it.advanceIfNeeded(matches.select((int) offset));
+        while (it.hasNext() && page.size() < limit) {
+            page.add(docs.get(it.next()));
+        }
+        return page;
+    }
+
+    /**
+     * Página posterior al cursor recorriendo el orden por precio desde la posición del cursor.
+     * Dentro de un mismo precio el orden es por ordinal, así que cada tramo se ordena por id antes de agregarlo
+     */
+    private List<Product> afterInPriceOrder(RoaringBitmap matches, ProductCursor after, boolean ascending,
+                                            Comparator<Hit> order, int limit) {
+        int start;
+        if (after == null) {
+            start = ascending ? 0 : priceOrder.length - 1;
+        } else if (after.getLastValue() == null) {
+            start = ascending ? 0 : missingPrices - 1;
+        } else {
+            double price = ((Number) after.getLastValue()).doubleValue();
+            start = ascending ? firstPriceAtLeast(price, false) : firstPriceAtLeast(price, true) - 1;
+        }
+
+        int step = ascending ? 1 : -1;
+        List<Product> page = new ArrayList<>(limit);
+        List<Hit> block = new ArrayList<>();
+        for (int i = start; i >= 0 && i < priceOrder.length && page.size() < limit; ) {
+            double price = sortedPrices[i];
+            block.clear();
+            for (; i >= 0 && i < priceOrder.length && sortedPrices[i] == price; i += step) {
+                int ordinal = priceOrder[i];
+                if (matches.contains(ordinal) && (after == null || isAfter(docs.get(ordinal), after))) {
+                    block.add(new Hit(ordinal, 0f));
+                }
+            }
+            block.sort(order);
+            for (int j = 0; j < block.size() && page.size() < limit; j++) {
+                page.add(docs.get(block.get(j).ordinal()));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Página posterior al cursor recorriendo el orden por id desde la posición del cursor
+     */
+    private List<Product> afterInIdOrder(RoaringBitmap matches, ProductCursor after, boolean ascending, int limit) {
+        int start;
+        if (after == null) {
+            start = ascending ? 0 : idOrder.length - 1;
+        } else {
+            start = ascending ? firstIdAtLeast(after.getLastId(), true) : firstIdAtLeast(after.getLastId(), false) - 1;
+        }
+        List<Product> page = new ArrayList<>(limit);
+        for (int i = start; i >= 0 && i < idOrder.length && page.size() < limit; i += ascending ? 1 : -1) {
+            if (matches.contains(idOrder[i])) {
+                page.add(docs.get(idOrder[i]));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Primera posición del orden por id con un id mayor o igual (mayor si exclusive) al indicado
+     */
+    private int firstIdAtLeast(String id, boolean exclusive) {
+        int low = 0;
+        int high = idOrder.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = docs.get(idOrder[mid]).getId().compareTo(id);
+            if (cmp < 0 || (exclusive && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private List<Product> inPriceOrder(RoaringBitmap matches, boolean ascending, int from, int to, long offset, int limit) {
+        List<Product> page = new ArrayList<>();
+        long skipped = 0;
+        for (int i = from; i < to && page.size() < limit; i++) {
+            int ordinal = priceOrder[ascending ? i : to - 1 - (i - from)];
+            if (matches.contains(ordinal) && skipped++ >= offset) {
+                page.add(docs.get(ordinal));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Top-K por relevancia: los candidatos se recorren en orden de ordinal, así que uno con
+     * puntaje igual al peor del heap nunca lo supera y se descarta sin crear el Hit
+     */
+    private List<Product> topByRelevance(RoaringBitmap matches, Comparator<Hit> byRelevance, QueryScorer scorer,
+                                         long offset, int limit) {
+        int k = (int) Math.min(offset + limit, matches.getLongCardinality());
+        if (k <= offset) {
+            return List.of();
+        }
+        PriorityQueue<Hit> heap = new PriorityQueue<>(k, byRelevance.reversed());
+        for (IntIterator it = matches.getIntIterator(); it.hasNext(); ) {
+            int ordinal = it.next();
+            float score = scorer.score(ordinal);
+            if (heap.size() < k) {
+                heap.add(new Hit(ordinal, score));
+            } else if (score > heap.peek().score()) {
+                heap.poll();
+                heap.add(new Hit(ordinal, score));
+            }
+        }
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(byRelevance);
+        return hits.subList((int) offset, hits.size()).stream().map(hit -> docs.get(hit.ordinal())).toList();
+    }
+
+    /**
+     * Selecciona los offset + limit mejores con un heap acotado, sin ordenar todos los candidatos
+     */
+    private List<Product> topK(RoaringBitmap matches, Comparator<Hit> order, long offset, int limit) {
+        int k = (int) Math.min(offset + limit, matches.getLongCardinality());
+        if (k <= offset) {
+            return List.of();
+        }
+        PriorityQueue<Hit> heap = new PriorityQueue<>(k, order.reversed());
+        for (IntIterator it = matches.getIntIterator(); it.hasNext(); ) {
+            int ordinal = it.next();
+            Hit hit = new Hit(ordinal, 0f);
+            if (heap.size() < k) {
+                heap.add(hit);
+            } else if (order.compare(hit, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(hit);
+            }
+        }
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(order);
+        return hits.subList((int) offset, hits.size()).stream().map(hit -> docs.get(hit.ordinal())).toList();
+    }
+
+    private static int frequency(int[] terms, int term) {
+        int frequency = 0;
+        for (int candidate : terms) {
+            if (candidate == term) {
+                frequency++;
+            }
+        }
+        return frequency;
+    }
+
+    private Comparator<Hit> comparator(Sort sort) {
+        Comparator<Hit> comparator = null;
+        for (Sort.Order order : sort) {
+            String property = order.getProperty();
+            Comparator<Hit> next = "price".equals(property)
+                    ? (a, b) -> Double.compare(sortablePrice(a.ordinal()), sortablePrice(b.ordinal()))
+                    : (a, b) -> compareValues(
+                            sortValue(docs.get(a.ordinal()), property), sortValue(docs.get(b.ordinal()), property));
+            next = order.isDescending() ? next.reversed() : next;
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        // El id desempata en la dirección del primer orden, igual que el adaptador de MongoDB
+        boolean descending = sort.stream().findFirst().map(Sort.Order::isDescending).orElse(false);
+        Comparator<Hit> byId = Comparator.comparing(hit -> docs.get(hit.ordinal()).getId());
+        byId = descending ? byId.reversed() : byId;
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    private static Sort withIdTieBreaker(Sort sort) {
+        return sort.stream().findFirst().map(Sort::by).orElse(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    /**
+     * Indica si el producto va después del cursor, con null antes que cualquier valor como en MongoDB
+     */
+    private static boolean isAfter(Product product, ProductCursor cursor) {
+        String field = cursor.getSortField();
+        int cmp = field == null || "id".equals(field)
+                ? 0
+                : compareValues(sortValue(product, field), cursor.getLastValue());
+        if (cmp == 0) {
+            cmp = product.getId().compareTo(cursor.getLastId());
+        }
+        return cursor.getDirection() == Sort.Direction.DESC ? cmp < 0 : cmp > 0;
+    }
+
+    private static Object sortValue(Product product, String field) {
+        return switch (field) {
+            case "id" -> product.getId();
+            case "name" -> product.getName();
+            case "description" -> product.getDescription();
+            case "category" -> product.getCategory();
+            case "brand" -> product.getBrand();
+            case "price" -> product.getPrice();
+            case "oldPrice" -> product.getOldPrice();
+            case "stock" -> product.getStock();
+            case "discountPercentage" -> product.getDiscountPercentage();
+            case "imageUrl" -> product.getImageUrl();
+            default -> {
+                try {
+                    yield new BeanWrapperImpl(product).getPropertyValue(field);
+                } catch (BeansException e) {
+                    // Igual que MongoDB: un campo inexistente ordena como null
+                    yield null;
+                }
+            }
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int compareValues(Object a, Object b) {
+        if (a == b) {
+            return 0;
+        }
+        if (a == null) {
+            return -1;
+        }
+        if (b == null) {
+            return 1;
+        }
+        if (a instanceof Number x && b instanceof Number y && a.getClass() != b.getClass()) {
+            return new BigDecimal(x.toString()).compareTo(new BigDecimal(y.toString()));
+        }
+        if (a instanceof Comparable comparable && a.getClass() == b.getClass()) {
+            return comparable.compareTo(b);
+        }
+        return a.toString().compareTo(b.toString());
+    }
+
+    private List<FacetCount> valueCounts(Map<String, RoaringBitmap> values, RoaringBitmap matches) {
+        List<FacetCount> counts = new ArrayList<>();
+        values.forEach((value, bitmap) -> {
+            long count = RoaringBitmap.andCardinality(bitmap, matches);
+            if (count > 0) {
+                counts.add(new FacetCount(value, count));
+            }
+        });
+        return counts.stream()
+                .sorted(Comparator.comparingLong(FacetCount::getCount).reversed()
+                        .thenComparing(FacetCount::getValue))
+                .limit(facetLimit)
+                .toList();
+    }
+
+    /**
+     * Mismos buckets y etiquetas que la faceta de precio de MongoDB ("25-50", "500+")
+     */
+    private List<FacetCount> priceCounts(RoaringBitmap matches) {
+        int buckets = priceBoundaries.size();
+        long[] counts = new long[buckets];
+        for (IntIterator it = matches.getIntIterator(); it.hasNext(); ) {
+            double price = prices[it.next()];
+            if (!Double.isNaN(price)) {
+                counts[bucketOf(price)]++;
+            }
+        }
+        List<FacetCount> result = new ArrayList<>();
+        for (int i = 0; i < buckets; i++) {
+            if (counts[i] > 0) {
+                String label = i < buckets - 1
+                        ? priceBoundaries.get(i).toPlainString() + "-" + priceBoundaries.get(i + 1).toPlainString()
+                        : priceBoundaries.get(buckets - 1).toPlainString() + "+";
+                result.add(new FacetCount(label, counts[i]));
+            }
+        }
+        return result;
+    }
+
+    private int bucketOf(double price) {
+        for (int i = 0; i < priceBoundaries.size() - 1; i++) {
+            if (price >= priceBoundaries.get(i).doubleValue() && price < priceBoundaries.get(i + 1).doubleValue()) {
+                return i;
+            }
+        }
+        // Fuera de los límites: bucket "other", que se informa como el último rango abierto
+        return priceBoundaries.size() - 1;
+    }
+
+    /**
+     * Verifica si dos términos difieren en a lo sumo una inserción, borrado, reemplazo o transposición
+     */
+    static boolean withinOneEdit(String a, String b) {
+        int lengthA = a.length();
+        int lengthB = b.length();
+        if (Math.abs(lengthA - lengthB) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < Math.min(lengthA, lengthB) && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (i == Math.min(lengthA, lengthB)) {
+            return true;
+        }
+        if (lengthA == lengthB) {
+            if (a.regionMatches(i + 1, b, i + 1, lengthA - i - 1)) {
+                return true;
+            }
+            return i + 1 < lengthA && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                    && a.regionMatches(i + 2, b, i + 2, lengthA - i - 2);
+        }
+        return lengthA > lengthB
+                ? a.regionMatches(i + 1, b, i, lengthB - i)
+                : a.regionMatches(i, b, i + 1, lengthA - i);
+    }
+
+    private static List<TextField> textFieldsOf(Class<?> type) {
+        List<TextField> fields = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            TextIndexed textIndexed = field.getAnnotation(TextIndexed.class);
+            if (textIndexed != null) {
+                ReflectionUtils.makeAccessible(field);
+                fields.add(new TextField(field, textIndexed.weight()));
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Resultado de una búsqueda paginada con el total exacto de coincidencias
+     */
+    @lombok.Value
+    public static class SearchHits {
+        List<Product> products;
+        long total;
+    }
+
+    private record Hit(int ordinal, float score) {
+    }
+
+    /**
+     * BM25 por campo de texto, ponderado por el peso de @TextIndexed y el tipo de coincidencia.
+     * El idf y el largo promedio se calculan una vez por consulta.
+     */
+    private final class QueryScorer {
+        private final int[] terms;
+        private final float[] boosts;
+        private final float[][] idf;
+        private final float[] averageLengths;
+
+        private QueryScorer(Map<String, Float> expanded) {
+            int documents = live.getCardinality();
+            String[] names = expanded.keySet().toArray(String[]::new);
+            terms = new int[names.length];
+            boosts = new float[names.length];
+            idf = new float[textFields.size()][names.length];
+            averageLengths = new float[textFields.size()];
+            for (int t = 0; t < names.length; t++) {
+                terms[t] = termIds.get(names[t]);
+                boosts[t] = expanded.get(names[t]);
+            }
+            for (int f = 0; f < textFields.size(); f++) {
+                TextField field = textFields.get(f);
+                averageLengths[f] = Math.max(1f, (float) field.totalLength / Math.max(1, documents));
+                for (int t = 0; t < terms.length; t++) {
+                    RoaringBitmap postings = field.postings.get(names[t]);
+                    int df = postings != null ? postings.getCardinality() : 0;
+                    idf[f][t] = (float) Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+                }
+            }
+        }
+
+        private float score(int ordinal) {
+            float score = 0f;
+            for (int f = 0; f < averageLengths.length; f++) {
+                TextField field = textFields.get(f);
+                int[] docTerms = field.terms.get(ordinal);
+                if (docTerms.length == 0) {
+                    continue;
+                }
+                float norm = K1 * (1 - B + B * docTerms.length / averageLengths[f]);
+                for (int t = 0; t < terms.length; t++) {
+                    int frequency = frequency(docTerms, terms[t]);
+                    if (frequency > 0) {
+                        score += field.weight * boosts[t] * idf[f][t] * frequency * (K1 + 1) / (frequency + norm);
+                    }
+                }
+            }
+            return score;
+        }
+    }
+
+    private static final class TextField {
+        private final Field field;
+        private final float weight;
+        private final Map<String, RoaringBitmap> postings = new HashMap<>();
+        // Términos de cada producto por ordinal, para la frecuencia y el largo en BM25
+        private final List<int[]> terms = new ArrayList<>();
+        private long totalLength;
+
+        private TextField(Field field, float weight) {
+            this.field = field;
+            this.weight = weight;
+        }
+
+        private String valueOf(Product product) {
+            Object value = ReflectionUtils.getField(field, product);
+            return value != null ? value.toString() : null;
+        }
+
+        private void clear() {
+            postings.clear();
+            terms.clear();
+            totalLength = 0;
+        }
+    }
+}
@@ -0,0 +1,544 @@
+package com.walmart.ecommerce.infrastructure.search;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.Suggestion;
+import com.walmart.ecommerce.domain.repositories.SuggestionRepository;
+import com.walmart.ecommerce.domain.repositories.SuggestionType;
+import com.walmart.ecommerce.infrastructure.persistence.ProductWriteListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Trie de prefijos para el autocompletado sobre nombres, marcas, categorías y tags.
+ * Cada nodo guarda las mejores sugerencias de su subárbol, de modo que una consulta cuesta
+ * lo que mide el prefijo y no la cantidad de productos. Además del inicio del texto, cada
+ * palabra que empieza con una letra es un punto de entrada ("runner" sugiere "Zapatillas Runner X").
+ * Se construye al iniciar la aplicación fuera del lock, sin frenar consultas ni escrituras: mientras
+ * tanto las consultas no devuelven sugerencias y las escrituras se encolan para aplicarse sobre el
+ * trie nuevo. Luego se mantiene con cada escritura. Guarda los campos
+ * sugeridos de cada producto para restar su aporte anterior sin depender del estado que informa
+ * quien escribe: un mismo cambio recibido dos veces (adaptador y change stream) no se duplica.
+ */
+@Component
+@Slf4j
+public class ProductSuggestionTrie implements SuggestionRepository, ProductWriteListener {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    /**
+     * Peso de un producto sin stock: sigue sugiriéndose, pero después de los disponibles
+     */
+    private static final double OUT_OF_STOCK_WEIGHT = 0.1;
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingDouble((Entry entry) -> entry.weight)
+            .reversed()
+            .thenComparing(entry -> entry.folded);
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxResults;
+    private final int maxPrefixLength;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, Entry> entries = new HashMap<>();
+    private Map<String, Product> sources = new HashMap<>();
+    private Node root = new Node();
+    // Escrituras recibidas durante una construcción; null si no hay ninguna en curso
+    private List<Runnable> pending;
+    private volatile boolean built;
+
+    public ProductSuggestionTrie(
+            MongoTemplate mongoTemplate,
+            @Value("${app.search.suggest.max-results:10}") int maxResults,
+            @Value("${app.search.suggest.max-prefix-length:24}") int maxPrefixLength) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxResults = maxResults;
+        this.maxPrefixLength = maxPrefixLength;
+    }
+
+    /**
+     * Construye el trie al terminar de iniciar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reconstruye el trie completo desde MongoDB, leyendo solo los campos que se sugieren.
+     * Hasta el reemplazo las consultas usan el trie anterior (o ninguno, en la primera construcción)
+     */
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<String, Entry> builtEntries = new HashMap<>();
+        Map<String, Product> builtSources = new HashMap<>();
+        Node builtRoot = new Node();
+        try {
+            Query query = new Query();
+            query.fields().include("name", "brand", "category", "tags", "stock");
+            try (Stream<Product> products = mongoTemplate.stream(query, Product.class)) {
+                products.forEach(product -> {
+                    contribute(builtEntries, product, 1, null);
+                    if (product.getId() != null) {
+                        builtSources.put(product.getId(), product);
+                    }
+                });
+            }
+
+            for (Entry entry : builtEntries.values()) {
+                for (String key : keys(entry)) {
+                    insert(builtRoot, key, entry);
+                }
+                entry.indexed = true;
+            }
+            rankSubtree(builtRoot);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            entries = builtEntries;
+            sources = builtSources;
+            root = builtRoot;
+            // Las escrituras que llegaron durante la lectura se aplican sobre el estado leído
+            List<Runnable> writes = pending;
+            pending = null;
+            writes.forEach(Runnable::run);
+            built = true;
+            log.info("Índice de sugerencias construido: {} sugerencias ({} escrituras durante la construcción)",
+                    entries.size(), writes.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Suggestion> findByPrefix(String prefix, int limit) {
+        String folded = TextAnalyzer.fold(prefix);
+        if (folded.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Hasta terminar la primera construcción no hay sugerencias
+        if (!built) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < Math.min(folded.length(), maxPrefixLength) && node != null; i++) {
+                node = node.child(folded.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            if (folded.length() <= maxPrefixLength) {
+                List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, node.top.length));
+                for (int i = 0; i < node.top.length && i < limit; i++) {
+                    suggestions.add(node.top[i].toSuggestion());
+                }
+                return suggestions;
+            }
+            // Las claves se truncan al largo máximo: el resto del prefijo se compara contra el texto completo
+            return Arrays.stream(node.entries)
+                    .filter(entry -> entry.folded.startsWith(folded) || entry.folded.contains(" " + folded))
+                    .sorted(RANKING)
+                    .limit(limit)
+                    .map(Entry::toSuggestion)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProductSaved(Product previous, Product current) {
+        write(() -> save(previous, current));
+    }
+
+    @Override
+    public void onProductDeleted(String id) {
+        write(() -> delete(id));
+    }
+
+    @Override
+    public void onAllDeleted() {
+        write(this::clear);
+    }
+
+    @Override
+    public void onResync() {
+        rebuild();
+    }
+
+    /**
+     * Peso de un producto: crece con el stock de forma logarítmica para que unas
+     * pocas unidades ya lo diferencien de uno agotado sin que el stock alto lo domine todo
+     */
+    static double weight(Product product) {
+        return product.isAvailable() ? 1 + Math.log1p(product.getStock()) : OUT_OF_STOCK_WEIGHT;
+    }
+
+    /**
+     * Aplica una escritura sobre el trie, o la encola si hay una construcción en curso.
+     * Antes de la primera construcción se descarta: esa construcción ya la leerá de MongoDB
+     */
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(change);
+            } else if (built) {
+                change.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void save(Product previous, Product current) {
+        Product before = previous;
+        if (current.getId() != null) {
+            // Lo indexado manda sobre el estado anterior informado, que puede estar ya aplicado
+            before = sources.put(current.getId(), suggested(current));
+        }
+        apply(before, current);
+    }
+
+    private void delete(String id) {
+        Product before = sources.remove(id);
+        if (before != null) {
+            apply(before, null);
+        }
+    }
+
+    private void clear() {
+        entries.clear();
+        sources.clear();
+        root = new Node();
+    }
+
+    /**
+     * Resta el aporte anterior del producto, suma el actual y reubica las sugerencias afectadas
+     */
+    private void apply(Product previous, Product current) {
+        Set<Entry> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (previous != null) {
+            contribute(entries, previous, -1, touched);
+        }
+        if (current != null) {
+            contribute(entries, current, 1, touched);
+        }
+        for (Entry entry : touched) {
+            if (entry.products <= 0) {
+                entries.remove(entry.id);
+                if (entry.indexed) {
+                    keys(entry).forEach(key -> remove(key, entry));
+                }
+            } else if (!entry.indexed) {
+                keys(entry).forEach(key -> rank(insert(root, key, entry)));
+                entry.indexed = true;
+            } else {
+                // Cambió solo el peso: se reordenan los nodos de cada camino
+                keys(entry).forEach(key -> rank(path(key)));
+            }
+        }
+    }
+
+    /**
+     * Copia con solo los campos que se sugieren, para no retener el producto completo
+     */
+    private static Product suggested(Product product) {
+        return Product.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .brand(product.getBrand())
+                .category(product.getCategory())
+                .tags(product.getTags())
+                .stock(product.getStock())
+                .build();
+    }
+
+    /**
+     * Suma (o resta, con signo negativo) el aporte de un producto a cada una de sus sugerencias
+     */
+    private static void contribute(Map<String, Entry> entries, Product product, int sign, Set<Entry> touched) {
+        double weight = weight(product);
+        contribute(entries, SuggestionType.PRODUCT, product.getName(), sign, weight, touched);
+        contribute(entries, SuggestionType.BRAND, product.getBrand(), sign, weight, touched);
+        contribute(entries, SuggestionType.CATEGORY, product.getCategory(), sign, weight, touched);
+        if (product.getTags() != null) {
+            product.getTags().forEach(tag -> contribute(entries, SuggestionType.TAG, tag, sign, weight, touched));
+        }
+    }
+
+    private static void contribute(Map<String, Entry> entries, SuggestionType type, String text, int sign,
+                                   double weight, Set<Entry> touched) {
+        String folded = TextAnalyzer.fold(text);
+        if (folded.isEmpty()) {
+            return;
+        }
+        String id = type.getKey() + ':' + folded;
+        Entry entry = sign > 0
+                ? entries.computeIfAbsent(id, key -> new Entry(id, text.trim(), type, folded))
+                : entries.get(id);
+        if (entry == null) {
+            return;
+        }
+        entry.products += sign;
+        entry.weight += sign * weight;
+        if (touched != null) {
+            touched.add(entry);
+        }
+    }
+
+    /**
+     * Claves bajo las que se indexa una sugerencia: el texto completo y cada sufijo que empieza
+     * en una palabra con letra (los números de modelo no son puntos de entrada), truncados al largo máximo
+     */
+    private List<String> keys(Entry entry) {
+        String text = entry.folded;
+        List<String> keys = new ArrayList<>(2);
+        for (int i = 0; i < text.length(); i++) {
+            if (i == 0 || (text.charAt(i - 1) == ' ' && !Character.isDigit(text.charAt(i)))) {
+                String key = text.substring(i, Math.min(text.length(), i + maxPrefixLength));
+                if (!keys.contains(key)) {
+                    keys.add(key);
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static List<Node> insert(Node root, String key, Entry entry) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+            path.add(node);
+        }
+        node.entries = append(node.entries, entry);
+        return path;
+    }
+
+    private void remove(String key, Entry entry) {
+        List<Node> path = path(key);
+        if (path.size() != key.length() + 1) {
+            return;
+        }
+        Node last = path.get(path.size() - 1);
+        last.entries = without(last.entries, entry);
+        // Poda los nodos que quedaron sin sugerencias ni hijos
+        for (int i = path.size() - 1; i > 0 && path.get(i).isEmpty(); i--) {
+            path.get(i - 1).removeChild(key.charAt(i - 1));
+        }
+        rank(path);
+    }
+
+    /**
+     * Nodos desde la raíz hasta donde llega la clave
+     */
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        for (int i = 0; node != null; i++) {
+            path.add(node);
+            node = i < key.length() ? node.child(key.charAt(i)) : null;
+        }
+        return path;
+    }
+
+    /**
+     * Recalcula las mejores sugerencias de un camino, de abajo hacia arriba
+     */
+    private void rank(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            rank(path.get(i));
+        }
+    }
+
+    private void rankSubtree(Node node) {
+        for (Node child : node.children) {
+            rankSubtree(child);
+        }
+        rank(node);
+    }
+
+    /**
+     * Las mejores sugerencias de un subárbol están entre las propias del nodo y las mejores de cada hijo
+     */
+    private void rank(Node node) {
+        if (node.entries.length == 0 && node.children.length == 1) {
+            // Un camino sin bifurcaciones comparte el arreglo del hijo
+            node.top = node.children[0].top;
+            return;
+        }
+        if (node.entries.length == 1 && node.children.length == 0) {
+            node.top = node.entries;
+            return;
+        }
+        Entry[] best = new Entry[maxResults];
+        int size = 0;
+        for (Entry entry : node.entries) {
+            size = offer(best, size, entry);
+        }
+        for (Node child : node.children) {
+            for (Entry entry : child.top) {
+                size = offer(best, size, entry);
+            }
+        }
+        node.top = size == best.length ? best : Arrays.copyOf(best, size);
+    }
+
+    /**
+     * Inserta la sugerencia en el ranking acotado si entra y no estaba (una misma sugerencia
+     * puede llegar por dos hijos cuando dos de sus palabras comparten prefijo)
+     */
+    private static int offer(Entry[] best, int size, Entry entry) {
+        int position = size;
+        for (int i = 0; i < size; i++) {
+            if (best[i] == entry) {
+                return size;
+            }
+            if (position == size && RANKING.compare(entry, best[i]) < 0) {
+                position = i;
+            }
+        }
+        if (position >= best.length) {
+            return size;
+        }
+        int moved = Math.min(size, best.length - 1) - position;
+        System.arraycopy(best, position, best, position + 1, moved);
+        best[position] = entry;
+        return Math.min(size + 1, best.length);
+    }
+
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        for (Entry existing : entries) {
+            if (existing == entry) {
+                return entries;
+            }
+        }
+        Entry[] appended = Arrays.copyOf(entries, entries.length + 1);
+        appended[entries.length] = entry;
+        return appended;
+    }
+
+    private static Entry[] without(Entry[] entries, Entry entry) {
+        Entry[] remaining = Arrays.stream(entries).filter(existing -> existing != entry).toArray(Entry[]::new);
+        return remaining.length == 0 ? NO_ENTRIES : remaining;
+    }
+
+    /**
+     * Nodo del trie: hijos ordenados por carácter, sugerencias que terminan en él
+     * y las mejores de todo su subárbol
+     */
+    private static final class Node {
+
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private Entry[] entries = NO_ENTRIES;
+        private Entry[] top = NO_ENTRIES;
+
+        private Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int position = -index - 1;
+            Node child = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            newLabels[position] = label;
+            newChildren[position] = child;
+            System.arraycopy(labels, position, newLabels, position + 1, labels.length - position);
+            System.arraycopy(children, position, newChildren, position + 1, children.length - position);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels.length == 0 ? NO_LABELS : newLabels;
+            children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+        }
+
+        private boolean isEmpty() {
+            return entries.length == 0 && children.length == 0;
+        }
+    }
+
+    /**
+     * Sugerencia indexada con su peso acumulado y la cantidad de productos que la aportan
+     */
+    private static final class Entry {
+
+        private final String id;
+        private final String text;
+        private final SuggestionType type;
+        private final String folded;
+        private double weight;
+        private int products;
+        private boolean indexed;
+
+        private Entry(String id, String text, SuggestionType type, String folded) {
+            this.id = id;
+            this.text = text;
+            this.type = type;
+            this.folded = folded;
+        }
+
+        private Suggestion toSuggestion() {
+            return new Suggestion(text, type, weight);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.walmart.ecommerce.infrastructure.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normaliza texto en español para el índice de búsqueda en memoria:
+ * minúsculas, sin acentos ("Lámpara" → "lampara"), sin stopwords
+ * y con una reducción liviana de plurales ("auriculares" → "auricular").
+ */
+public final class TextAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "al", "con", "de", "del", "e", "el", "en", "es", "la", "las", "lo", "los", "o", "para", "por",
+            "que", "se", "sin", "su", "sus", "u", "un", "una", "unas", "unos", "y");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Convierte el texto en los términos que se indexan o se buscan
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        for (String token : SEPARATORS.split(normalize(text))) {
+            if (!token.isEmpty() && !STOPWORDS.contains(token)) {
+                terms.add(stem(token));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Pasa a minúsculas y elimina los acentos
+     */
+    public static String normalize(String text) {
+        if (isAscii(text)) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("");
+    }
+
+    /**
+     * Normaliza y deja las palabras separadas por un único espacio ("Café  Espresso!" → "cafe espresso"),
+     * sin quitar stopwords ni plurales: es la forma que usa el autocompletado
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        return SEPARATORS.matcher(normalize(text)).replaceAll(" ").trim();
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reduce plurales regulares: "luces" → "luz", "auriculares" → "auricular", "zapatillas" → "zapatilla"
+     */
+    static String stem(String term) {
+        int length = term.length();
+        if (length <= 3 || term.charAt(length - 1) != 's' || Character.isDigit(term.charAt(length - 2))) {
+            return term;
+        }
+        if (length > 4 && term.endsWith("ces")) {
+            return term.substring(0, length - 3) + "z";
+        }
+        if (length > 4 && term.endsWith("es") && "rlndj".indexOf(term.charAt(length - 3)) >= 0) {
+            return term.substring(0, length - 2);
+        }
+        return term.substring(0, length - 1);
+    }
+}
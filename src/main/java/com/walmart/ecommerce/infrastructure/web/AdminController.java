@@ -0,0 +1,119 @@
+package com.walmart.ecommerce.infrastructure.web;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.walmart.ecommerce.application.cache.SearchResultCache;
+import com.walmart.ecommerce.infrastructure.cache.CachingProductRepository;
+import com.walmart.ecommerce.infrastructure.cache.EncodedResponseCache;
+import com.walmart.ecommerce.infrastructure.cache.ProductCacheStats;
+import com.walmart.ecommerce.infrastructure.persistence.IndexAdvice;
+import com.walmart.ecommerce.infrastructure.persistence.ProductIndexAdvisor;
+import com.walmart.ecommerce.infrastructure.persistence.ProductRepositoryAdapter;
+import com.walmart.ecommerce.infrastructure.persistence.SearchLatencyStats;
+import com.walmart.ecommerce.infrastructure.persistence.SlowQuery;
+import com.walmart.ecommerce.infrastructure.persistence.SlowQueryLog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST con endpoints operativos del servicio (estadísticas y mantenimiento).
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/v1/admin")
+@RequiredArgsConstructor
+@Tag(name = "Admin", description = "Endpoints operativos del catálogo")
+public class AdminController {
+
+    private final CachingProductRepository cachingProductRepository;
+    private final SearchResultCache searchResultCache;
+    private final EncodedResponseCache responseCache;
+    private final ProductRepositoryAdapter productRepositoryAdapter;
+    private final ProductIndexAdvisor productIndexAdvisor;
+    private final SlowQueryLog slowQueryLog;
+
+    @GetMapping("/cache/products")
+    @Operation(
+        summary = "Estadísticas del cache de productos",
+        description = "Retorna aciertos, fallos y expulsiones del cache local y del cache compartido"
+    )
+    public ResponseEntity<ProductCacheStats> getProductCacheStats() {
+        return ResponseEntity.ok(cachingProductRepository.stats());
+    }
+
+    @GetMapping("/cache/search")
+    @Operation(
+        summary = "Estadísticas del cache de búsquedas",
+        description = "Retorna aciertos, fallos, expulsiones y cargas agrupadas del cache de resultados de búsqueda"
+    )
+    public ResponseEntity<Map<String, Object>> getSearchCacheStats() {
+        CacheStats stats = searchResultCache.stats();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("hits", stats.hitCount());
+        response.put("misses", stats.missCount());
+        response.put("evictions", stats.evictionCount());
+        response.put("hitRate", stats.hitRate());
+        response.put("coalescedLoads", searchResultCache.coalescedLoads());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/cache/responses")
+    @Operation(
+        summary = "Estadísticas del cache de respuestas serializadas",
+        description = "Retorna aciertos, fallos, expulsiones y bytes ocupados por las respuestas JSON ya serializadas"
+    )
+    public ResponseEntity<Map<String, Object>> getResponseCacheStats() {
+        CacheStats stats = responseCache.stats();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("hits", stats.hitCount());
+        response.put("misses", stats.missCount());
+        response.put("evictions", stats.evictionCount());
+        response.put("hitRate", stats.hitRate());
+        response.put("bytes", responseCache.weightedSize());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/search/latency")
+    @Operation(
+        summary = "Latencias de búsqueda en MongoDB",
+        description = "Retorna el modo de consulta (parallel con hilos virtuales o sequential) y los tiempos "
+                + "promedio de página, total y búsqueda completa"
+    )
+    public ResponseEntity<SearchLatencyStats> getSearchLatencyStats() {
+        return ResponseEntity.ok(productRepositoryAdapter.latencyStats());
+    }
+
+    @GetMapping("/search/slow-queries")
+    @Operation(
+        summary = "Búsquedas lentas recientes",
+        description = "Retorna las últimas búsquedas cuyo find o count superó app.search.slow-query.threshold, "
+                + "con la forma de la consulta, la página pedida y, en las muestreadas, el explain con "
+                + "documentos examinados contra retornados y el índice usado"
+    )
+    public ResponseEntity<List<SlowQuery>> getSlowQueries() {
+        return ResponseEntity.ok(slowQueryLog.recent());
+    }
+
+    @GetMapping("/indexes/advice")
+    @Operation(
+        summary = "Recomendaciones de índices",
+        description = "Retorna las formas de consulta más usadas con el índice compuesto recomendado en orden ESR "
+                + "(igualdad, orden, rango), el índice existente que lo cubre y el plan actual según explain"
+    )
+    public ResponseEntity<List<IndexAdvice>> getIndexAdvice(@RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit debe ser mayor que 0");
+        }
+        return ResponseEntity.ok(productIndexAdvisor.advise(limit));
+    }
+}
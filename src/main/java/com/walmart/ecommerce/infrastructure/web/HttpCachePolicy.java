@@ -0,0 +1,65 @@
+package com.walmart.ecommerce.infrastructure.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Tiempos de cache HTTP y ETag de los endpoints de productos. El detalle usa el ETag de los bytes
+ * de la respuesta (ver EncodedResponseCache); los listados uno débil formado por la revisión compartida
+ * del catálogo y la petición normalizada, que se valida antes de consultar y vale entre instancias.
+ */
+@Component
+public class HttpCachePolicy {
+
+    private final CacheControl product;
+    private final CacheControl search;
+    private final CacheControl suggest;
+    private final CacheControl catalogLists;
+
+    public HttpCachePolicy(
+            @Value("${app.http.cache.product:60s}") Duration product,
+            @Value("${app.http.cache.search:30s}") Duration search,
+            @Value("${app.http.cache.suggest:5m}") Duration suggest,
+            @Value("${app.http.cache.catalog-lists:1h}") Duration catalogLists) {
+        this.product = maxAge(product);
+        this.search = maxAge(search);
+        this.suggest = maxAge(suggest);
+        this.catalogLists = maxAge(catalogLists);
+    }
+
+    public CacheControl product() {
+        return product;
+    }
+
+    public CacheControl search() {
+        return search;
+    }
+
+    public CacheControl suggest() {
+        return suggest;
+    }
+
+    /**
+     * Categorías y marcas: cambian muy poco y el ETag permite revalidarlas sin descargarlas
+     */
+    public CacheControl catalogLists() {
+        return catalogLists;
+    }
+
+    /**
+     * ETag débil de un listado: cambia con cada escritura del catálogo en cualquier instancia
+     */
+    public String catalogEtag(long revision, String canonical) {
+        String request = DigestUtils.md5DigestAsHex(canonical.getBytes(StandardCharsets.UTF_8));
+        return "W/\"" + revision + "-" + request + "\"";
+    }
+
+    private static CacheControl maxAge(Duration maxAge) {
+        return maxAge.isZero() ? CacheControl.noCache() : CacheControl.maxAge(maxAge).cachePublic();
+    }
+}
@@ -0,0 +1,41 @@
+package com.walmart.ecommerce.infrastructure.web;
+
+import com.walmart.ecommerce.infrastructure.ingest.CatalogIngestService;
+import com.walmart.ecommerce.infrastructure.ingest.IngestReport;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Endpoint de carga masiva. Reemplaza productos del catálogo sin autenticación, así que solo se
+ * registra cuando app.ingest.endpoint-enabled=true (por ejemplo en un entorno interno de carga).
+ */
+@RestController
+@Profile("!reactive")
+@ConditionalOnProperty(name = "app.ingest.endpoint-enabled", havingValue = "true")
+@RequestMapping("/v1/admin")
+@RequiredArgsConstructor
+@Tag(name = "Admin", description = "Endpoints operativos del catálogo")
+public class IngestController {
+
+    private final CatalogIngestService catalogIngestService;
+
+    @PostMapping(value = "/ingest", consumes = {"application/json", "application/x-ndjson"})
+    @Operation(
+        summary = "Carga masiva de productos",
+        description = "Recibe un arreglo JSON o NDJSON de productos y los inserta o reemplaza por ID en streaming, "
+                + "con lotes bulk sin orden. Retorna el reporte con docs/s y registros rechazados"
+    )
+    public ResponseEntity<IngestReport> ingestProducts(InputStream body) throws IOException {
+        return ResponseEntity.ok(catalogIngestService.ingest(body));
+    }
+}
@@ -0,0 +1,76 @@
+package com.walmart.ecommerce.infrastructure.web;
+
+import com.walmart.ecommerce.application.dto.ProductMapper;
+import com.walmart.ecommerce.infrastructure.events.ProductChangeFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+/**
+ * Expone los cambios del catálogo por Server-Sent Events para que los caches e índices externos
+ * se actualicen de forma incremental en lugar de volver a consultar el catálogo.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/v1/products")
+@Tag(name = "Products", description = "API de ecommerce de productos")
+@CrossOrigin(origins = "*")
+public class ProductChangeController {
+
+    private final ProductChangeFeed changeFeed;
+    private final ProductMapper productMapper;
+    private final Duration timeout;
+    private final int queueCapacity;
+    private final Duration heartbeat;
+
+    public ProductChangeController(
+            ProductChangeFeed changeFeed,
+            ProductMapper productMapper,
+            @Value("${app.events.sse.timeout:30m}") Duration timeout,
+            @Value("${app.events.sse.queue-capacity:1000}") int queueCapacity,
+            @Value("${app.events.sse.heartbeat:15s}") Duration heartbeat) {
+        this.changeFeed = changeFeed;
+        this.productMapper = productMapper;
+        this.timeout = timeout;
+        this.queueCapacity = queueCapacity;
+        this.heartbeat = heartbeat;
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Suscribirse a los cambios del catálogo",
+        description = "Emite por SSE un evento upsert, delete o reset por cada cambio, en orden. El id de cada "
+                + "evento es su token de reanudación: al reconectar con Last-Event-ID se reciben los eventos "
+                + "perdidos, o un reset si ya no están disponibles"
+    )
+    public SseEmitter changes(
+            @Parameter(description = "Token del último evento procesado (alternativa al header Last-Event-ID)")
+            @RequestParam(required = false) String after,
+
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        ProductChangeSseSubscriber subscriber =
+                new ProductChangeSseSubscriber(emitter, productMapper, queueCapacity, heartbeat);
+
+        ProductChangeFeed.Subscription subscription =
+                changeFeed.subscribe(lastEventId != null ? lastEventId : after, subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscriber.start(subscription.resumed(), subscription::cancel);
+        return emitter;
+    }
+}
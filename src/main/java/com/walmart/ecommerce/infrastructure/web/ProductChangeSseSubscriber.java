@@ -0,0 +1,112 @@
+package com.walmart.ecommerce.infrastructure.web;
+
+import com.walmart.ecommerce.application.dto.ProductChangeResponse;
+import com.walmart.ecommerce.application.dto.ProductMapper;
+import com.walmart.ecommerce.domain.events.ProductChangeType;
+import com.walmart.ecommerce.domain.events.ProductChanged;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Suscriptor SSE de los cambios del catálogo. El feed solo encola (nunca espera a la red) y un hilo
+ * propio de la conexión escribe los eventos. Si el cliente no da abasto y la cola se llena, la
+ * conexión se cierra: al reconectar con Last-Event-ID retoma desde el buffer del feed.
+ */
+@Slf4j
+class ProductChangeSseSubscriber implements Consumer<ProductChanged>, Runnable {
+
+    private final SseEmitter emitter;
+    private final ProductMapper productMapper;
+    private final BlockingQueue<ProductChanged> queue;
+    private final Duration heartbeat;
+
+    private volatile boolean open = true;
+    private volatile boolean overflowed;
+    private volatile boolean resumed = true;
+    private volatile Runnable onClose = () -> { };
+    private Thread sender;
+
+    ProductChangeSseSubscriber(SseEmitter emitter, ProductMapper productMapper, int queueCapacity,
+                               Duration heartbeat) {
+        this.emitter = emitter;
+        this.productMapper = productMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.heartbeat = heartbeat;
+    }
+
+    @Override
+    public void accept(ProductChanged event) {
+        if (open && !queue.offer(event)) {
+            overflowed = true;
+        }
+    }
+
+    /**
+     * Empieza a escribir; si la suscripción no pudo retomar, primero se envía un evento reset
+     */
+    void start(boolean resumed, Runnable onClose) {
+        this.resumed = resumed;
+        this.onClose = onClose;
+        sender = new Thread(this, "product-changes-sse");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    /**
+     * Detiene el envío; se llama cuando la conexión termina por cualquier motivo
+     */
+    void close() {
+        open = false;
+        if (sender != null) {
+            sender.interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            if (!resumed) {
+                emitter.send(SseEmitter.event()
+                        .name(ProductChangeType.RESET.getKey())
+                        .data(ProductChangeResponse.builder()
+                                .type(ProductChangeType.RESET.getKey())
+                                .timestamp(Instant.now())
+                                .build(), MediaType.APPLICATION_JSON));
+            }
+            while (open) {
+                if (overflowed) {
+                    log.debug("Suscriptor SSE sin capacidad, se cierra la conexión para que retome");
+                    emitter.complete();
+                    return;
+                }
+                ProductChanged event = queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    // Mantiene viva la conexión a través de proxies con timeout de inactividad
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                    continue;
+                }
+                emitter.send(SseEmitter.event()
+                        .id(event.getResumeToken())
+                        .name(event.getType().getKey())
+                        .data(productMapper.toChangeResponse(event), MediaType.APPLICATION_JSON));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            // El cliente se desconectó o la respuesta ya terminó
+            log.debug("Suscriptor SSE desconectado: {}", e.getMessage());
+        } finally {
+            open = false;
+            onClose.run();
+        }
+    }
+}
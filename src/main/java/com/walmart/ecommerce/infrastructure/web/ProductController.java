@@ -1,60 +1,155 @@
 package com.walmart.ecommerce.infrastructure.web;
 
+import com.walmart.ecommerce.application.cache.CatalogVersion;
+import com.walmart.ecommerce.application.cache.SearchCacheKey;
 import com.walmart.ecommerce.application.dto.PageResponse;
+import com.walmart.ecommerce.application.dto.ProductBatchResponse;
 import com.walmart.ecommerce.application.dto.ProductResponse;
 import com.walmart.ecommerce.application.dto.ProductSearchFilter;
+import com.walmart.ecommerce.application.dto.ProductSearchRequest;
+import com.walmart.ecommerce.application.dto.SuggestionResponse;
 import com.walmart.ecommerce.application.service.ProductService;
+import com.walmart.ecommerce.application.service.ProductSuggestionService;
+import com.walmart.ecommerce.domain.repositories.CountStrategy;
+import com.walmart.ecommerce.domain.repositories.FacetField;
+import com.walmart.ecommerce.infrastructure.cache.EncodedResponse;
+import com.walmart.ecommerce.infrastructure.cache.EncodedResponseCache;
+import com.walmart.ecommerce.infrastructure.cache.ResponseFormat;
+import com.walmart.ecommerce.infrastructure.persistence.CatalogRevision;
+import com.walmart.ecommerce.infrastructure.search.TextAnalyzer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Controlador REST para gestión del ecommerce de productos.
  * Expone endpoints siguiendo estándares RESTful.
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/v1/products")
 @RequiredArgsConstructor
 @Validated
 @Tag(name = "Products", description = "API de ecommerce de productos")
 @CrossOrigin(origins = "*")
+@Slf4j
 public class ProductController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+
     private final ProductService productService;
+    private final ProductSuggestionService suggestionService;
+    private final ObjectMapper objectMapper;
+    private final EncodedResponseCache responseCache;
+    private final CatalogVersion catalogVersion;
+    private final CatalogRevision catalogRevision;
+    private final HttpCachePolicy cachePolicy;
+
+    @GetMapping("/batch")
+    @Operation(
+        summary = "Obtener varios productos por ID",
+        description = "Retorna los productos pedidos en el mismo orden e informa los IDs inexistentes",
+        responses = @ApiResponse(responseCode = "200", description = "Productos encontrados",
+            content = @Content(schema = @Schema(implementation = ProductBatchResponse.class)))
+    )
+    public ResponseEntity<byte[]> getProductsByIds(
+            @Parameter(description = "IDs de los productos, separados por coma", required = true)
+            @RequestParam List<String> ids,
+
+            WebRequest request) {
+
+        return catalogResponse("batch|" + String.join(",", ids), cachePolicy.product(), request,
+                () -> productService.findByIds(ids));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(
+        summary = "Autocompletar búsqueda",
+        description = "Sugiere nombres de productos, marcas, categorías y tags con alguna palabra que empieza "
+                + "con el texto ingresado, ordenados por popularidad",
+        responses = @ApiResponse(responseCode = "200", description = "Sugerencias",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = SuggestionResponse.class))))
+    )
+    public ResponseEntity<byte[]> suggest(
+            @Parameter(description = "Texto ingresado hasta el momento", required = true)
+            @RequestParam String q,
+
+            @Parameter(description = "Cantidad máxima de sugerencias")
+            @RequestParam(defaultValue = "10") int limit,
+
+            WebRequest request) {
+
+        return catalogResponse("suggest|" + TextAnalyzer.fold(q) + "|" + limit, cachePolicy.suggest(), request,
+                () -> suggestionService.suggest(q, limit));
+    }
 
     @GetMapping("/{id}")
     @Operation(
         summary = "Obtener producto por ID",
         description = "Retorna el detalle completo de un producto específico",
         responses = {
-            @ApiResponse(responseCode = "200", description = "Producto encontrado"),
+            @ApiResponse(responseCode = "200", description = "Producto encontrado",
+                content = @Content(schema = @Schema(implementation = ProductResponse.class))),
             @ApiResponse(responseCode = "404", description = "Producto no encontrado", content = @Content)
         }
     )
-    public ResponseEntity<ProductResponse> getProductById(
+    public ResponseEntity<byte[]> getProductById(
             @Parameter(description = "ID del producto", required = true)
-            @PathVariable String id) {
+            @PathVariable String id,
 
-        ProductResponse product = productService.findById(id);
-        return ResponseEntity.ok(product);
+            WebRequest request) {
+
+        // El detalle se valida con el ETag fuerte de sus bytes, que se resuelve sin consultar si está en cache
+        ResponseFormat format = format(request);
+        EncodedResponse product = responseCache.get(EncodedResponseCache.productKey(id), format,
+                () -> productService.findById(id));
+        boolean gzip = product.getGzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? product.getGzipEtag() : product.getEtag();
+        if (notModified(request, etag)) {
+            return notModified(etag, cachePolicy.product());
+        }
+        return encoded(product, format, gzip, etag, cachePolicy.product());
     }
 
     @GetMapping
     @Operation(
         summary = "Buscar productos",
-        description = "Busca y filtra productos con paginación y ordenamiento. Todos los parámetros son opcionales."
+        description = "Busca y filtra productos con paginación y ordenamiento. Todos los parámetros son opcionales.",
+        responses = @ApiResponse(responseCode = "200", description = "Página de productos",
+            content = @Content(schema = @Schema(implementation = PageResponse.class)))
     )
-    public ResponseEntity<PageResponse<ProductResponse>> searchProducts(
+    public ResponseEntity<byte[]> searchProducts(
             @Parameter(description = "Texto a buscar en nombre o descripción")
             @RequestParam(required = false) String search,
             
@@ -75,6 +170,12 @@ public class ProductController {
             
             @Parameter(description = "Filtrar por tags")
             @RequestParam(required = false) List<String> tags,
+
+            @Parameter(description = "Solo productos con descuento")
+            @RequestParam(required = false) Boolean onSale,
+
+            @Parameter(description = "Descuento mínimo en porcentaje (0 a 100)")
+            @RequestParam(required = false) Integer minDiscount,
             
             @Parameter(description = "Número de página (empieza en 0)")
             @RequestParam(defaultValue = "0") int page,
@@ -82,11 +183,102 @@ public class ProductController {
             @Parameter(description = "Tamaño de página")
             @RequestParam(defaultValue = "20") int size,
             
-            @Parameter(description = "Campo para ordenar (price, name, stock)")
+            @Parameter(description = "Campo para ordenar (price, name, stock, discountPercentage)")
             @RequestParam(required = false) String sortBy,
             
             @Parameter(description = "Dirección de ordenamiento (asc, desc)")
-            @RequestParam(defaultValue = "asc") String sortDirection) {
+            @RequestParam(defaultValue = "asc") String sortDirection,
+
+            @Parameter(description = "Modo de paginación (offset, cursor)")
+            @RequestParam(defaultValue = "offset") String pagination,
+
+            @Parameter(description = "Cursor opaco devuelto en nextCursor; implica paginación por cursor")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Estrategia de conteo del total (exact, estimated, cached, none)")
+            @RequestParam(required = false) String count,
+
+            @Parameter(description = "Facetas a calcular junto a los resultados (category, brand, tags, price)")
+            @RequestParam(required = false) List<String> facets,
+
+            WebRequest request) {
+
+        ProductSearchFilter filter = ProductSearchFilter.builder()
+                .searchText(search)
+                .category(category)
+                .brand(brand)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStock(inStock)
+                .tags(tags)
+                .onSale(onSale)
+                .minDiscount(minDiscount)
+                .build();
+
+        return search(filter, page, size, sortBy, sortDirection, pagination, cursor, count, facets, request);
+    }
+
+    @PostMapping("/search")
+    @Operation(
+        summary = "Búsqueda compuesta",
+        description = "Busca con un cuerpo JSON que admite varias categorías y marcas ($in), tags con "
+                + "tagMatch any o all, rangos de precio y grupos anyOf combinados con OR. "
+                + "Se resuelve en una sola consulta con la misma paginación, orden y facetas que GET /v1/products.",
+        responses = @ApiResponse(responseCode = "200", description = "Página de productos",
+            content = @Content(schema = @Schema(implementation = PageResponse.class)))
+    )
+    public ResponseEntity<byte[]> searchProductsByQuery(
+            @RequestBody ProductSearchRequest query,
+
+            WebRequest request) {
+
+        // Es una consulta sin efectos: se valida con If-None-Match y comparte ETag y cache con el GET equivalente
+        return search(query.toFilter(), query.getPage(), query.getSize(), query.getSortBy(),
+                query.getSortDirection(), query.getPagination(), query.getCursor(), query.getCount(),
+                query.getFacets(), request);
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    @Operation(
+        summary = "Exportar productos",
+        description = "Exporta en NDJSON (un producto por línea) todos los productos que cumplen los filtros, "
+                + "recorriendo un cursor de MongoDB sin paginación y con memoria constante"
+    )
+    public void exportProducts(
+            @Parameter(description = "Texto a buscar en nombre o descripción")
+            @RequestParam(required = false) String search,
+
+            @Parameter(description = "Filtrar por categoría")
+            @RequestParam(required = false) String category,
+
+            @Parameter(description = "Filtrar por marca")
+            @RequestParam(required = false) String brand,
+
+            @Parameter(description = "Precio mínimo")
+            @RequestParam(required = false) BigDecimal minPrice,
+
+            @Parameter(description = "Precio máximo")
+            @RequestParam(required = false) BigDecimal maxPrice,
+
+            @Parameter(description = "Solo productos en stock")
+            @RequestParam(required = false) Boolean inStock,
+
+            @Parameter(description = "Filtrar por tags")
+            @RequestParam(required = false) List<String> tags,
+
+            @Parameter(description = "Solo productos con descuento")
+            @RequestParam(required = false) Boolean onSale,
+
+            @Parameter(description = "Descuento mínimo en porcentaje (0 a 100)")
+            @RequestParam(required = false) Integer minDiscount,
+
+            @Parameter(description = "Campo para ordenar (price, name, stock, discountPercentage)")
+            @RequestParam(required = false) String sortBy,
+
+            @Parameter(description = "Dirección de ordenamiento (asc, desc)")
+            @RequestParam(defaultValue = "asc") String sortDirection,
+
+            HttpServletResponse response) throws IOException {
 
         ProductSearchFilter filter = ProductSearchFilter.builder()
                 .searchText(search)
@@ -96,31 +288,213 @@ public class ProductController {
                 .maxPrice(maxPrice)
                 .inStock(inStock)
                 .tags(tags)
+                .onSale(onSale)
+                .minDiscount(minDiscount)
                 .build();
 
-        PageResponse<ProductResponse> response = productService.searchProducts(
-                filter, page, size, sortBy, sortDirection);
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+
+        ObjectWriter writer = objectMapper.writerFor(ProductResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long written = 0;
 
-        return ResponseEntity.ok(response);
+        // La escritura bloqueante sobre el output stream regula el ritmo de lectura del cursor
+        try (Stream<ProductResponse> products = productService.exportProducts(filter, sortBy, sortDirection);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            for (ProductResponse product : (Iterable<ProductResponse>) products::iterator) {
+                writer.writeValue(generator, product);
+                generator.writeRaw('\n');
+                if (++written % EXPORT_FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        }
+
+        log.debug("Exportación finalizada: {} productos", written);
     }
 
     @GetMapping("/categories")
     @Operation(
         summary = "Obtener categorías",
-        description = "Retorna todas las categorías de productos disponibles"
+        description = "Retorna todas las categorías de productos disponibles",
+        responses = @ApiResponse(responseCode = "200", description = "Categorías",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = String.class))))
     )
-    public ResponseEntity<List<String>> getCategories() {
-        List<String> categories = productService.getCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<byte[]> getCategories(WebRequest request) {
+        return catalogResponse("categories", cachePolicy.catalogLists(), request, productService::getCategories);
     }
 
     @GetMapping("/brands")
     @Operation(
         summary = "Obtener marcas",
-        description = "Retorna todas las marcas de productos disponibles"
+        description = "Retorna todas las marcas de productos disponibles",
+        responses = @ApiResponse(responseCode = "200", description = "Marcas",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = String.class))))
     )
-    public ResponseEntity<List<String>> getBrands() {
-        List<String> brands = productService.getBrands();
-        return ResponseEntity.ok(brands);
+    public ResponseEntity<byte[]> getBrands(WebRequest request) {
+        return catalogResponse("brands", cachePolicy.catalogLists(), request, productService::getBrands);
+    }
+
+    /**
+     * Resuelve una búsqueda desde el cache de respuestas serializadas; GET y POST con los mismos
+     * filtros comparten la entrada y el ETag
+     */
+    private ResponseEntity<byte[]> search(ProductSearchFilter filter, int page, int size, String sortBy,
+                                          String sortDirection, String pagination, String cursor, String count,
+                                          List<String> facets, WebRequest request) {
+        boolean byCursor = cursor != null || "cursor".equalsIgnoreCase(pagination);
+        CountStrategy countStrategy = count != null ? CountStrategy.from(count) : null;
+        Set<FacetField> facetFields = EnumSet.noneOf(FacetField.class);
+        if (facets != null) {
+            facets.forEach(facet -> facetFields.add(FacetField.from(facet)));
+        }
+
+        // El cursor es determinístico para un mismo catálogo, así que también identifica la página
+        String variant = (byCursor ? "cursor:" + Objects.toString(cursor, "") : "offset:" + countStrategy)
+                + "|" + facetFields;
+        int keyPage = byCursor ? 0 : page;
+        String canonical = SearchCacheKey.canonical(filter, keyPage, size, sortBy, sortDirection, variant);
+
+        return listing("search|" + canonical, version -> EncodedResponseCache.searchKey(
+                SearchCacheKey.of(version, filter, keyPage, size, sortBy, sortDirection, variant)),
+                cachePolicy.search(), request, () -> {
+            PageResponse<ProductResponse> response = byCursor
+                    ? productService.searchProductsByCursor(filter, cursor, size, sortBy, sortDirection)
+                    : productService.searchProducts(filter, page, size, sortBy, sortDirection, countStrategy);
+
+            if (facetFields.isEmpty()) {
+                return response;
+            }
+            // Se arma una copia: la página puede provenir del cache de búsquedas
+            return response.toBuilder()
+                    .facets(productService.getFacets(filter, facetFields))
+                    .build();
+        });
+    }
+
+    /**
+     * Formato pedido en el header Accept (JSON por defecto, CBOR para consumidores internos)
+     */
+    private static ResponseFormat format(WebRequest request) {
+        return ResponseFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    /**
+     * Respuesta derivada del catálogo (lotes, sugerencias, categorías, marcas), serializada una vez por
+     * versión del catálogo
+     */
+    private ResponseEntity<byte[]> catalogResponse(String canonical, CacheControl cacheControl, WebRequest request,
+                                                   Supplier<?> loader) {
+        return listing(canonical, version -> EncodedResponseCache.catalogKey(version, canonical), cacheControl,
+                request, loader);
+    }
+
+    /**
+     * Valida el If-None-Match contra la revisión compartida del catálogo y la petición normalizada antes de
+     * consultar: un 304 no toca MongoDB aunque la respuesta no esté en el cache de esta instancia. La revisión
+     * se lee antes que la versión local y que la consulta, así el ETag nunca rotula datos anteriores a ella.
+     */
+    private ResponseEntity<byte[]> listing(String canonical, LongFunction<String> cacheKey,
+                                           CacheControl cacheControl, WebRequest request, Supplier<?> loader) {
+        ResponseFormat format = format(request);
+        String etag = cachePolicy.catalogEtag(catalogRevision.current(), canonical + "|" + format);
+        if (notModified(request, etag)) {
+            return notModified(etag, cacheControl);
+        }
+
+        EncodedResponse encoded = responseCache.get(cacheKey.apply(catalogVersion.current()), format, loader);
+        boolean gzip = encoded.getGzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        return encoded(encoded, format, gzip, etag, cacheControl);
+    }
+
+    /**
+     * Comparación débil contra cada ETag de If-None-Match (o *), válida también para POST /search
+     */
+    private static boolean notModified(WebRequest request, String etag) {
+        String[] headers = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (headers == null) {
+            return false;
+        }
+        String opaque = opaqueTag(etag);
+        for (String header : headers) {
+            for (String candidate : header.split(",")) {
+                String tag = candidate.trim();
+                if ("*".equals(tag) || opaqueTag(tag).equals(opaque)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static ResponseEntity<byte[]> notModified(String etag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+    }
+
+    /**
+     * Si Accept-Encoding admite gzip según sus pesos: gzip;q=0 lo rechaza aunque lo nombre,
+     * y una entrada gzip tiene prioridad sobre el comodín
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double weight = weight(parts);
+            if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+                gzip = gzip == null ? weight : Math.max(gzip, weight);
+            } else if ("*".equals(coding)) {
+                any = weight;
+            }
+        }
+        return gzip != null ? gzip > 0 : any != null && any > 0;
+    }
+
+    private static double weight(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Escribe la respuesta serializada tal cual, comprimida si el cliente acepta gzip
+     */
+    private static ResponseEntity<byte[]> encoded(EncodedResponse response, ResponseFormat format, boolean gzip,
+                                                  String etag, CacheControl cacheControl) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .eTag(etag)
+                .cacheControl(cacheControl);
+        if (response.getGzip() != null) {
+            builder.varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        } else {
+            builder.varyBy(HttpHeaders.ACCEPT);
+        }
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.getGzip());
+        }
+        return builder.body(response.getBody());
     }
 }
@@ -0,0 +1,70 @@
+package com.walmart.ecommerce.infrastructure.web;
+
+import com.walmart.ecommerce.application.service.ProductService;
+import com.walmart.ecommerce.infrastructure.web.GlobalExceptionHandler.ErrorResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.LocalDateTime;
+
+/**
+ * Manejador de excepciones de la API reactiva.
+ * Responde con el mismo formato de error que GlobalExceptionHandler.
+ */
+@RestControllerAdvice
+@Profile("reactive")
+@Slf4j
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(ProductService.ProductNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleProductNotFound(
+            ProductService.ProductNotFoundException ex,
+            ServerWebExchange exchange) {
+
+        log.warn("Producto no encontrado: {}", ex.getMessage());
+        return error(HttpStatus.NOT_FOUND, ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgument(
+            IllegalArgumentException ex,
+            ServerWebExchange exchange) {
+
+        log.warn("Argumento inválido: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidInput(
+            ServerWebInputException ex,
+            ServerWebExchange exchange) {
+
+        log.warn("Petición inválida: {}", ex.getReason());
+        return error(HttpStatus.BAD_REQUEST, "Petición inválida: " + ex.getReason(), exchange);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGenericException(
+            Exception ex,
+            ServerWebExchange exchange) {
+
+        log.error("Error interno del servidor", ex);
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "Error interno del servidor", exchange);
+    }
+
+    private ResponseEntity<ErrorResponse> error(HttpStatus status, String message, ServerWebExchange exchange) {
+        ErrorResponse error = new ErrorResponse(
+                status.value(),
+                message,
+                exchange.getRequest().getPath().value(),
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(status).body(error);
+    }
+}
@@ -0,0 +1,168 @@
+package com.walmart.ecommerce.infrastructure.web;
+
+import com.walmart.ecommerce.application.dto.PageResponse;
+import com.walmart.ecommerce.application.dto.ProductBatchResponse;
+import com.walmart.ecommerce.application.dto.ProductResponse;
+import com.walmart.ecommerce.application.dto.ProductSearchFilter;
+import com.walmart.ecommerce.application.dto.ProductSearchRequest;
+import com.walmart.ecommerce.application.dto.SuggestionResponse;
+import com.walmart.ecommerce.application.service.ProductSuggestionService;
+import com.walmart.ecommerce.application.service.ReactiveProductService;
+import com.walmart.ecommerce.domain.repositories.CountStrategy;
+import com.walmart.ecommerce.domain.repositories.FacetField;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Controlador WebFlux con el mismo contrato /v1/products que ProductController.
+ * Se activa con el perfil reactive; ningún hilo del servidor espera a MongoDB.
+ */
+@RestController
+@RequestMapping("/v1/products")
+@RequiredArgsConstructor
+@Profile("reactive")
+@CrossOrigin(origins = "*")
+public class ReactiveProductController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final ReactiveProductService productService;
+    private final ProductSuggestionService suggestionService;
+
+    @GetMapping("/batch")
+    public Mono<ProductBatchResponse> getProductsByIds(@RequestParam List<String> ids) {
+        return productService.findByIds(ids);
+    }
+
+    @GetMapping("/suggest")
+    public Mono<List<SuggestionResponse>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        // El trie está en memoria: la consulta no bloquea
+        return Mono.fromCallable(() -> suggestionService.suggest(q, limit));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ProductResponse> getProductById(@PathVariable String id) {
+        return productService.findById(id);
+    }
+
+    @GetMapping
+    public Mono<PageResponse<ProductResponse>> searchProducts(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(required = false) Boolean onSale,
+            @RequestParam(required = false) Integer minDiscount,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(defaultValue = "offset") String pagination,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String count,
+            @RequestParam(required = false) List<String> facets) {
+
+        ProductSearchFilter filter = ProductSearchFilter.builder()
+                .searchText(search)
+                .category(category)
+                .brand(brand)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStock(inStock)
+                .tags(tags)
+                .onSale(onSale)
+                .minDiscount(minDiscount)
+                .build();
+
+        return search(filter, page, size, sortBy, sortDirection, pagination, cursor, count, facets);
+    }
+
+    @PostMapping("/search")
+    public Mono<PageResponse<ProductResponse>> searchProductsByQuery(@RequestBody ProductSearchRequest query) {
+        return search(query.toFilter(), query.getPage(), query.getSize(), query.getSortBy(),
+                query.getSortDirection(), query.getPagination(), query.getCursor(), query.getCount(),
+                query.getFacets());
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    public Flux<ProductResponse> exportProducts(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(required = false) Boolean onSale,
+            @RequestParam(required = false) Integer minDiscount,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection) {
+
+        ProductSearchFilter filter = ProductSearchFilter.builder()
+                .searchText(search)
+                .category(category)
+                .brand(brand)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStock(inStock)
+                .tags(tags)
+                .onSale(onSale)
+                .minDiscount(minDiscount)
+                .build();
+
+        // WebFlux escribe una línea por elemento y solo pide más al cursor cuando el cliente consume
+        return productService.exportProducts(filter, sortBy, sortDirection);
+    }
+
+    @GetMapping("/categories")
+    public Mono<List<String>> getCategories() {
+        return productService.getCategories();
+    }
+
+    @GetMapping("/brands")
+    public Mono<List<String>> getBrands() {
+        return productService.getBrands();
+    }
+
+    private Mono<PageResponse<ProductResponse>> search(ProductSearchFilter filter, int page, int size,
+                                                        String sortBy, String sortDirection, String pagination,
+                                                        String cursor, String count, List<String> facets) {
+        Mono<PageResponse<ProductResponse>> response;
+        if (cursor != null || "cursor".equalsIgnoreCase(pagination)) {
+            response = productService.searchProductsByCursor(filter, cursor, size, sortBy, sortDirection);
+        } else {
+            CountStrategy countStrategy = count != null ? CountStrategy.from(count) : null;
+            response = productService.searchProducts(filter, page, size, sortBy, sortDirection, countStrategy);
+        }
+
+        if (facets == null || facets.isEmpty()) {
+            return response;
+        }
+
+        Set<FacetField> facetFields = EnumSet.noneOf(FacetField.class);
+        facets.forEach(facet -> facetFields.add(FacetField.from(facet)));
+        // Página y facetas se resuelven en paralelo; se arma una copia porque la página puede venir del cache
+        return Mono.zip(response, productService.getFacets(filter, facetFields))
+                .map(result -> result.getT1().toBuilder().facets(result.getT2()).build());
+    }
+}
@@ -0,0 +1,54 @@
+package com.walmart.ecommerce.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.ProductCursor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductCursorCodecTest {
+
+    private final ProductCursorCodec codec = new ProductCursorCodec(new ObjectMapper());
+
+    @Test
+    @DisplayName("Should round-trip a cursor with a typed sort key")
+    void encodeDecode_roundTripsTypedValue() {
+        Product product = Product.builder().id("p-010").price(new BigDecimal("79.99")).build();
+        Sort sort = Sort.by(Sort.Direction.DESC, "price");
+
+        ProductCursor cursor = codec.cursorAfter(product, sort);
+        ProductCursor decoded = codec.decode(codec.encode(cursor), sort);
+
+        assertEquals(cursor, decoded);
+        assertEquals(new BigDecimal("79.99"), decoded.getLastValue());
+    }
+
+    @Test
+    @DisplayName("Should keep null sort keys and unsorted listings")
+    void encodeDecode_handlesNullKeyAndUnsorted() {
+        Product product = Product.builder().id("p-011").build();
+
+        ProductCursor byName = codec.cursorAfter(product, Sort.by("name"));
+        assertNull(codec.decode(codec.encode(byName), Sort.by("name")).getLastValue());
+
+        ProductCursor unsorted = codec.cursorAfter(product, Sort.unsorted());
+        assertEquals(unsorted, codec.decode(codec.encode(unsorted), Sort.unsorted()));
+    }
+
+    @Test
+    @DisplayName("Should reject cursors issued for a different sort or malformed tokens")
+    void decode_rejectsMismatchedOrInvalidCursor() {
+        Product product = Product.builder().id("p-012").stock(5).build();
+        String token = codec.encode(codec.cursorAfter(product, Sort.by("stock")));
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(token, Sort.by("price")));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("no-es-un-cursor", Sort.by("stock")));
+    }
+}
@@ -0,0 +1,57 @@
+package com.walmart.ecommerce.application.service;
+
+import com.walmart.ecommerce.application.dto.ProductSearchFilter;
+import com.walmart.ecommerce.domain.repositories.SortField;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductQueryPlannerTest {
+
+    private final ProductQueryPlanner planner = new ProductQueryPlanner(100, 10_000, 1_000);
+
+    @Test
+    @DisplayName("Should map sort keys to indexed paths and reject unknown ones")
+    void planSort_allowsOnlyIndexedKeys() {
+        ProductSearchFilter filter = ProductSearchFilter.builder().category("Audio").build();
+
+        assertEquals(Sort.by(Sort.Direction.DESC, "discountPercentage"),
+                planner.planSort(filter, "DiscountPercentage", "desc"));
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> planner.planSort(filter, "description", "asc"));
+        assertTrue(error.getMessage().contains("relevance, price"));
+    }
+
+    @Test
+    @DisplayName("Should sort by relevance only for text searches and never with cursors")
+    void planSort_relevanceNeedsSearchText() {
+        ProductSearchFilter text = ProductSearchFilter.builder().searchText("auriculares").build();
+
+        assertTrue(SortField.isRelevance(planner.planSort(text, "relevance", null)));
+        assertEquals(Sort.unsorted(), planner.planSort(new ProductSearchFilter(), "relevance", null));
+        assertThrows(IllegalArgumentException.class, () -> planner.planCursorSort(text, 20, "relevance", null));
+    }
+
+    @Test
+    @DisplayName("Should enforce the page size and reject deep skips, earlier when no index bounds them")
+    void planPage_guardsCost() {
+        ProductSearchFilter category = ProductSearchFilter.builder().category("Audio").build();
+        ProductSearchFilter onlyTags = ProductSearchFilter.builder().tags(List.of("bluetooth")).build();
+        ProductSearchFilter text = ProductSearchFilter.builder().searchText("auriculares").build();
+
+        Pageable page = planner.planPage(category, 500, 20, "price", "asc");
+        assertEquals(10_000, page.getOffset());
+        assertThrows(IllegalArgumentException.class, () -> planner.planPage(category, 0, 101, null, null));
+        assertThrows(IllegalArgumentException.class, () -> planner.planPage(category, 501, 20, "price", "asc"));
+        assertThrows(IllegalArgumentException.class, () -> planner.planPage(onlyTags, 51, 20, null, null));
+        assertThrows(IllegalArgumentException.class, () -> planner.planPage(text, 51, 20, "price", "asc"));
+        assertEquals(2_000, planner.planPage(text, 100, 20, "relevance", null).getOffset());
+    }
+}
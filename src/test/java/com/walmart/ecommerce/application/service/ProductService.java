@@ -1,25 +1,33 @@
 package com.walmart.ecommerce.application.service;
 
+import com.walmart.ecommerce.application.cache.CatalogVersion;
+import com.walmart.ecommerce.application.cache.SearchResultCache;
 import com.walmart.ecommerce.application.dto.PageResponse;
+import com.walmart.ecommerce.application.dto.ProductBatchResponse;
 import com.walmart.ecommerce.application.dto.ProductMapper;
 import com.walmart.ecommerce.application.dto.ProductResponse;
 import com.walmart.ecommerce.application.dto.ProductSearchFilter;
 import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.CountStrategy;
+import com.walmart.ecommerce.domain.repositories.CountedPage;
+import com.walmart.ecommerce.domain.repositories.FacetCount;
+import com.walmart.ecommerce.domain.repositories.FacetField;
 import com.walmart.ecommerce.domain.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -33,12 +41,20 @@ class ProductServiceTest {
     @Mock
     private ProductMapper productMapper;
 
-    @InjectMocks
+    @Mock
+    private ProductCursorCodec cursorCodec;
+
+    private CatalogVersion catalogVersion;
+
     private ProductService productService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        catalogVersion = new CatalogVersion();
+        productService = new ProductService(productRepository, productMapper, cursorCodec,
+                new SearchResultCache(true, 100, Duration.ofMinutes(1)), catalogVersion,
+                new ProductQueryPlanner(100, 10_000, 1_000), new SimpleMeterRegistry(), "exact", 100);
     }
 
     @Test
@@ -85,18 +101,17 @@ class ProductServiceTest {
     void searchProducts_withFilters_callsFindByFilters() {
         ProductSearchFilter filter = mock(ProductSearchFilter.class);
         when(filter.hasFilters()).thenReturn(true);
-        Page<Product> productPage = new PageImpl<>(List.of(new Product()));
+        CountedPage<Product> productPage = new CountedPage<>(
+                List.of(new Product()), Pageable.unpaged(), 1, CountStrategy.EXACT);
         PageResponse<ProductResponse> pageResponse = new PageResponse<>();
-        when(productRepository.findByFilters(
-                any(), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+        when(productRepository.findByFilters(any(), any(Pageable.class), any()))
                 .thenReturn(productPage);
         when(productMapper.toPageResponse(productPage)).thenReturn(pageResponse);
 
         PageResponse<ProductResponse> result = productService.searchProducts(filter, 0, 10, "name", "asc");
 
         assertEquals(pageResponse, result);
-        verify(productRepository).findByFilters(
-                any(), any(), any(), any(), any(), any(), any(), any(Pageable.class));
+        verify(productRepository).findByFilters(any(), any(Pageable.class), eq(CountStrategy.EXACT));
         verify(productMapper).toPageResponse(productPage);
     }
 
@@ -105,18 +120,33 @@ class ProductServiceTest {
     void searchProducts_withoutFilters_callsFindAll() {
         ProductSearchFilter filter = mock(ProductSearchFilter.class);
         when(filter.hasFilters()).thenReturn(false);
-        Page<Product> productPage = new PageImpl<>(List.of(new Product()));
+        CountedPage<Product> productPage = new CountedPage<>(
+                List.of(new Product()), Pageable.unpaged(), 1, CountStrategy.EXACT);
         PageResponse<ProductResponse> pageResponse = new PageResponse<>();
-        when(productRepository.findAll(any(Pageable.class))).thenReturn(productPage);
+        when(productRepository.findAll(any(Pageable.class), any())).thenReturn(productPage);
         when(productMapper.toPageResponse(productPage)).thenReturn(pageResponse);
 
         PageResponse<ProductResponse> result = productService.searchProducts(filter, 0, 10, null, null);
 
         assertEquals(pageResponse, result);
-        verify(productRepository).findAll(any(Pageable.class));
+        verify(productRepository).findAll(any(Pageable.class), eq(CountStrategy.EXACT));
         verify(productMapper).toPageResponse(productPage);
     }
 
+    @Test
+    @DisplayName("Should pass the requested count strategy to the repository")
+    void searchProducts_withCountStrategy_passesItToRepository() {
+        ProductSearchFilter filter = mock(ProductSearchFilter.class);
+        when(filter.hasFilters()).thenReturn(false);
+        CountedPage<Product> productPage = new CountedPage<>(
+                List.of(new Product()), Pageable.unpaged(), 1, CountStrategy.NONE);
+        when(productRepository.findAll(any(Pageable.class), any())).thenReturn(productPage);
+
+        productService.searchProducts(filter, 0, 10, null, null, CountStrategy.NONE);
+
+        verify(productRepository).findAll(any(Pageable.class), eq(CountStrategy.NONE));
+    }
+
     @Test
     @DisplayName("Should return list of categories")
     void getCategories_returnsList() {
@@ -140,4 +170,83 @@ class ProductServiceTest {
         assertEquals(brands, result);
         verify(productRepository).findDistinctBrands();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return facet counts keyed by facet name")
+    void getFacets_returnsCountsKeyedByName() {
+        ProductSearchFilter filter = ProductSearchFilter.builder().category("Ropa").build();
+        List<FacetCount> brands = List.of(new FacetCount("ModaYa", 2));
+        when(productRepository.computeFacets(any(), eq(Set.of(FacetField.BRAND))))
+                .thenReturn(Map.of(FacetField.BRAND, brands));
+
+        Map<String, List<FacetCount>> result = productService.getFacets(filter, Set.of(FacetField.BRAND));
+
+        assertEquals(Map.of("brand", brands), result);
+    }
+
+    @Test
+    @DisplayName("Should serve equivalent searches from cache until the catalog version changes")
+    void searchProducts_cachesByCanonicalKeyAndVersion() {
+        CountedPage<Product> productPage = new CountedPage<>(
+                List.of(new Product()), Pageable.unpaged(), 1, CountStrategy.EXACT);
+        PageResponse<ProductResponse> pageResponse = new PageResponse<>();
+        when(productRepository.findByFilters(any(), any(Pageable.class), any())).thenReturn(productPage);
+        when(productMapper.toPageResponse(productPage)).thenReturn(pageResponse);
+
+        productService.searchProducts(ProductSearchFilter.builder()
+                .searchText(" Zapatillas ").tags(List.of("running", "outdoor")).minPrice(new BigDecimal("20.00"))
+                .build(), 0, 10, "price", "asc");
+        productService.searchProducts(ProductSearchFilter.builder()
+                .searchText("zapatillas").tags(List.of("outdoor", "running")).minPrice(new BigDecimal("20"))
+                .build(), 0, 10, "price", "asc");
+        verify(productRepository, times(1)).findByFilters(any(), any(Pageable.class), any());
+
+        // Los tags llegan sin recortar a la consulta, así que tampoco se recortan en la clave
+        productService.searchProducts(ProductSearchFilter.builder()
+                .searchText("zapatillas").tags(List.of(" outdoor", "running")).minPrice(new BigDecimal("20"))
+                .build(), 0, 10, "price", "asc");
+        verify(productRepository, times(2)).findByFilters(any(), any(Pageable.class), any());
+
+        catalogVersion.bump();
+        productService.searchProducts(ProductSearchFilter.builder()
+                .searchText("zapatillas").tags(List.of("outdoor", "running")).minPrice(new BigDecimal("20"))
+                .build(), 0, 10, "price", "asc");
+        verify(productRepository, times(3)).findByFilters(any(), any(Pageable.class), any());
+    }
+
+    @Test
+    @DisplayName("Should not share a cache key between values that contain the key separators")
+    void searchProducts_escapesSeparatorsInCacheKey() {
+        CountedPage<Product> productPage = new CountedPage<>(
+                List.of(new Product()), Pageable.unpaged(), 1, CountStrategy.EXACT);
+        when(productRepository.findByFilters(any(), any(Pageable.class), any())).thenReturn(productPage);
+        when(productMapper.toPageResponse(productPage)).thenReturn(new PageResponse<>());
+
+        productService.searchProducts(ProductSearchFilter.builder()
+                .tags(List.of("a,b")).build(), 0, 10, null, null);
+        productService.searchProducts(ProductSearchFilter.builder()
+                .tags(List.of("a", "b")).build(), 0, 10, null, null);
+        productService.searchProducts(ProductSearchFilter.builder()
+                .category("hogar|").brand("acme").build(), 0, 10, null, null);
+        productService.searchProducts(ProductSearchFilter.builder()
+                .category("hogar").brand("|acme").build(), 0, 10, null, null);
+
+        verify(productRepository, times(4)).findByFilters(any(), any(Pageable.class), any());
+    }
+
+    @Test
+    @DisplayName("Should return batch results in request order and report missing IDs")
+    void findByIds_preservesOrderAndReportsMissing() {
+        Product first = Product.builder().id("p-001").build();
+        Product second = Product.builder().id("p-002").build();
+        when(productRepository.findAllById(List.of("p-002", "p-999", "p-001")))
+                .thenReturn(List.of(first, second));
+        when(productMapper.toResponse(first)).thenReturn(ProductResponse.builder().id("p-001").build());
+        when(productMapper.toResponse(second)).thenReturn(ProductResponse.builder().id("p-002").build());
+
+        ProductBatchResponse result = productService.findByIds(List.of("p-002", "p-999", "p-001", "p-002"));
+
+        assertEquals(List.of("p-002", "p-001"), result.getProducts().stream().map(ProductResponse::getId).toList());
+        assertEquals(List.of("p-999"), result.getMissing());
+    }
+}
@@ -0,0 +1,104 @@
+package com.walmart.ecommerce.application.service;
+
+import com.walmart.ecommerce.application.cache.CatalogVersion;
+import com.walmart.ecommerce.application.cache.SearchResultCache;
+import com.walmart.ecommerce.application.dto.PageResponse;
+import com.walmart.ecommerce.application.dto.ProductBatchResponse;
+import com.walmart.ecommerce.application.dto.ProductMapper;
+import com.walmart.ecommerce.application.dto.ProductResponse;
+import com.walmart.ecommerce.application.dto.ProductSearchFilter;
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.CountStrategy;
+import com.walmart.ecommerce.domain.repositories.CountedPage;
+import com.walmart.ecommerce.domain.repositories.ReactiveProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveProductServiceTest {
+
+    @Mock
+    private ReactiveProductRepository productRepository;
+
+    @Mock
+    private ProductCursorCodec cursorCodec;
+
+    private ReactiveProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        productService = new ReactiveProductService(productRepository, new ProductMapper(), cursorCodec,
+                new SearchResultCache(true, 100, Duration.ofMinutes(1)), new CatalogVersion(),
+                new ProductQueryPlanner(100, 10_000, 1_000), "exact", 2);
+    }
+
+    @Test
+    @DisplayName("Should signal ProductNotFoundException when product does not exist")
+    void findById_signalsNotFound() {
+        when(productRepository.findById("p-999")).thenReturn(Mono.empty());
+
+        Mono<ProductResponse> result = productService.findById("p-999");
+
+        assertThrows(ProductService.ProductNotFoundException.class, result::block);
+    }
+
+    @Test
+    @DisplayName("Should share a single in-flight query between identical concurrent searches")
+    void searchProducts_coalescesConcurrentSearches() {
+        Sinks.One<CountedPage<Product>> pending = Sinks.one();
+        when(productRepository.findByFilters(any(), any(Pageable.class), any())).thenReturn(pending.asMono());
+        ProductSearchFilter filter = ProductSearchFilter.builder().category("Audio").build();
+
+        CompletableFuture<PageResponse<ProductResponse>> first =
+                productService.searchProducts(filter, 0, 10, null, "asc", null).toFuture();
+        CompletableFuture<PageResponse<ProductResponse>> second =
+                productService.searchProducts(filter, 0, 10, null, "asc", null).toFuture();
+        assertFalse(first.isDone());
+
+        pending.tryEmitValue(new CountedPage<>(List.of(product("p-001")), PageRequest.of(0, 10), 1,
+                CountStrategy.EXACT));
+
+        assertEquals("p-001", first.join().getContent().get(0).getId());
+        assertSame(first.join(), second.join());
+        verify(productRepository, times(1)).findByFilters(any(), any(Pageable.class), any());
+    }
+
+    @Test
+    @DisplayName("Should keep the requested order, report missing IDs and enforce the batch limit")
+    void findByIds_keepsOrderAndReportsMissing() {
+        when(productRepository.findAllById(List.of("p-002", "p-404")))
+                .thenReturn(Flux.just(product("p-002")));
+
+        ProductBatchResponse response = productService.findByIds(List.of("p-002", " p-404 ", "p-002")).block();
+
+        assertEquals(List.of("p-002"), response.getProducts().stream().map(ProductResponse::getId).toList());
+        assertEquals(List.of("p-404"), response.getMissing());
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.findByIds(List.of("a", "b", "c")).block());
+    }
+
+    private static Product product(String id) {
+        return Product.builder().id(id).name("Producto " + id).build();
+    }
+}
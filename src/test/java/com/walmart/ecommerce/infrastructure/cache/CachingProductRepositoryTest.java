@@ -0,0 +1,155 @@
+package com.walmart.ecommerce.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.ecommerce.application.cache.CatalogVersion;
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.events.ProductChangeType;
+import com.walmart.ecommerce.domain.events.ProductChanged;
+import com.walmart.ecommerce.domain.repositories.ProductRepository;
+import com.walmart.ecommerce.infrastructure.events.ProductChangeFeed;
+import com.walmart.ecommerce.infrastructure.persistence.CatalogRevision;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingProductRepositoryTest {
+
+    private ProductRepository delegate;
+    private InMemorySharedProductCache sharedCache;
+    private EncodedResponseCache responseCache;
+    private CatalogRevision catalogRevision;
+    private CachingProductRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(ProductRepository.class);
+        sharedCache = new InMemorySharedProductCache();
+        ObjectProvider<SharedProductCache> provider = new StaticListableBeanFactory(Map.of("sharedCache", sharedCache))
+                .getBeanProvider(SharedProductCache.class);
+        CatalogVersion catalogVersion = new CatalogVersion();
+        responseCache = new EncodedResponseCache(new ObjectMapper(), new MappingJackson2CborHttpMessageConverter(),
+                catalogVersion, true, DataSize.ofMegabytes(1), Duration.ofMinutes(5), DataSize.ofKilobytes(1));
+        catalogRevision = mock(CatalogRevision.class);
+        repository = new CachingProductRepository(delegate, provider, catalogVersion, catalogRevision, responseCache, 100,
+                Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Should hit the database once and serve repeated reads from the local tier")
+    void findById_cachesLocally() {
+        Product product = Product.builder().id("p-001").name("Zapatillas").build();
+        when(delegate.findById("p-001")).thenReturn(Optional.of(product));
+
+        repository.findById("p-001");
+        repository.findById("p-001");
+
+        verify(delegate, times(1)).findById("p-001");
+        assertEquals(1, repository.stats().getLocalHits());
+        assertTrue(sharedCache.get("p-001").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should serve from the shared tier when the local tier misses")
+    void findById_usesSharedTier() {
+        sharedCache.put(Product.builder().id("p-002").build());
+
+        assertTrue(repository.findById("p-002").isPresent());
+
+        verify(delegate, times(0)).findById("p-002");
+        assertEquals(1, repository.stats().getSharedHits());
+    }
+
+    @Test
+    @DisplayName("Should evict saved products from both tiers")
+    void save_evictsAffectedEntries() {
+        Product product = Product.builder().id("p-003").name("Original").build();
+        Product updated = Product.builder().id("p-003").name("Actualizado").build();
+        when(delegate.findById("p-003")).thenReturn(Optional.of(product), Optional.of(updated));
+        when(delegate.saveAll(List.of(updated))).thenReturn(List.of(updated));
+
+        repository.findById("p-003");
+        repository.saveAll(List.of(updated));
+
+        assertTrue(sharedCache.get("p-003").isEmpty());
+        assertEquals("Actualizado", repository.findById("p-003").orElseThrow().getName());
+        verify(delegate, times(2)).findById("p-003");
+        verify(catalogRevision).advance();
+    }
+
+    @Test
+    @DisplayName("Should not cache a read that raced with a write to the same product")
+    void findById_skipsStaleReadAfterConcurrentWrite() {
+        Product stale = Product.builder().id("p-004").name("Original").build();
+        Product updated = Product.builder().id("p-004").name("Actualizado").build();
+        when(delegate.save(updated)).thenReturn(updated);
+        // La escritura termina mientras la lectura todavía no volvió del repositorio
+        when(delegate.findById("p-004")).thenAnswer(invocation -> {
+            repository.save(updated);
+            return Optional.of(stale);
+        }).thenReturn(Optional.of(updated));
+
+        assertEquals("Original", repository.findById("p-004").orElseThrow().getName());
+
+        assertTrue(sharedCache.get("p-004").isEmpty());
+        assertEquals("Actualizado", repository.findById("p-004").orElseThrow().getName());
+        verify(delegate, times(2)).findById("p-004");
+    }
+
+    @Test
+    @DisplayName("Should serve encoded bytes until a write to the product evicts them")
+    void save_evictsEncodedResponse() {
+        Product updated = Product.builder().id("p-004").name("Actualizado").build();
+        when(delegate.save(updated)).thenReturn(updated);
+        String key = EncodedResponseCache.productKey("p-004");
+
+        EncodedResponse first = responseCache.get(key, () -> Product.builder().id("p-004").name("Original").build());
+        EncodedResponse hit = responseCache.get(key, () -> updated);
+        repository.save(updated);
+        EncodedResponse reloaded = responseCache.get(key, () -> updated);
+
+        assertSame(first, hit);
+        assertTrue(new String(reloaded.getBody(), StandardCharsets.UTF_8).contains("Actualizado"));
+        assertNotEquals(first.getEtag(), reloaded.getEtag());
+    }
+
+    @Test
+    @DisplayName("Should evict products changed by other instances when the change stream reports them")
+    void onProductChanged_evictsChangeStreamEvents() {
+        when(delegate.findById("p-005")).thenReturn(Optional.of(Product.builder().id("p-005").build()));
+        repository.findById("p-005");
+
+        repository.onProductChanged(change("p-005", ProductChangeFeed.SOURCE_ADAPTER));
+        repository.findById("p-005");
+        verify(delegate, times(1)).findById("p-005");
+
+        repository.onProductChanged(change("p-005", ProductChangeFeed.SOURCE_CHANGE_STREAM));
+        repository.findById("p-005");
+        verify(delegate, times(2)).findById("p-005");
+        // La revisión compartida la incrementa la instancia que escribió
+        verify(catalogRevision, never()).advance();
+    }
+
+    private static ProductChanged change(String id, String source) {
+        return ProductChanged.builder().type(ProductChangeType.UPSERT).productId(id).source(source).build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.walmart.ecommerce.infrastructure.events;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.events.ProductChangeType;
+import com.walmart.ecommerce.domain.events.ProductChanged;
+import com.walmart.ecommerce.infrastructure.persistence.ProductWriteListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ProductChangeFeedTest {
+
+    private List<Object> published;
+    private ProductChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        published = new ArrayList<>();
+        feed = new ProductChangeFeed(published::add, 3);
+    }
+
+    @Test
+    @DisplayName("Should publish adapter writes in order and replay the ones missed after a resume token")
+    void subscribe_replaysEventsAfterResumeToken() {
+        feed.onProductSaved(null, product("p-001"));
+        ProductChanged second = feed.publish(ProductChangeType.DELETE, "p-002", null, null,
+                ProductChangeFeed.SOURCE_ADAPTER);
+        feed.onProductSaved(null, product("p-003"));
+
+        List<ProductChanged> received = new ArrayList<>();
+        ProductChangeFeed.Subscription subscription = feed.subscribe(second.getResumeToken(), received::add);
+        feed.onAllDeleted();
+
+        assertTrue(subscription.resumed());
+        assertEquals(List.of(3L, 4L), received.stream().map(ProductChanged::getSequence).toList());
+        assertEquals(ProductChangeType.RESET, received.get(1).getType());
+        assertEquals(4, published.size());
+
+        subscription.cancel();
+        feed.onProductSaved(null, product("p-004"));
+        assertEquals(2, received.size());
+    }
+
+    @Test
+    @DisplayName("Should report a failed resume once the token left the buffer")
+    void subscribe_reportsTokenOutsideBuffer() {
+        String first = feed.publish(ProductChangeType.UPSERT, "p-001", product("p-001"), null,
+                ProductChangeFeed.SOURCE_ADAPTER).getResumeToken();
+        for (int i = 2; i <= 4; i++) {
+            feed.onProductSaved(null, product("p-00" + i));
+        }
+
+        List<ProductChanged> received = new ArrayList<>();
+        assertFalse(feed.subscribe(first, received::add).resumed());
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should run Spring listeners outside the feed lock and still deliver them in sequence order")
+    void publish_runsListenersOutsideLockInOrder() throws InterruptedException {
+        List<Long> sequences = new CopyOnWriteArrayList<>();
+        ProductChangeFeed[] holder = new ProductChangeFeed[1];
+        Thread writer = new Thread(() -> holder[0].onProductSaved(null, product("p-002")));
+        holder[0] = new ProductChangeFeed(event -> {
+            sequences.add(((ProductChanged) event).getSequence());
+            if (sequences.size() == 1) {
+                // Mientras el listener trabaja, otro hilo publica sin quedar bloqueado
+                writer.start();
+                try {
+                    writer.join(5_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, 3);
+
+        holder[0].onProductSaved(null, product("p-001"));
+
+        assertFalse(writer.isAlive());
+        assertEquals(List.of(1L, 2L), sequences);
+    }
+
+    @Test
+    @DisplayName("Should leave adapter writes to the change stream while it is active")
+    void onProductSaved_skippedWhileChangeStreamActive() {
+        feed.setChangeStreamActive(true);
+        feed.onProductSaved(null, product("p-001"));
+        feed.publish(ProductChangeType.UPSERT, "p-001", product("p-001"), "8263A1",
+                ProductChangeFeed.SOURCE_CHANGE_STREAM);
+
+        assertEquals(1, published.size());
+        assertEquals("8263A1", ((ProductChanged) published.get(0)).getResumeToken());
+    }
+
+    @Test
+    @DisplayName("Should relay change-stream events to the write listeners and ignore adapter events")
+    void relay_appliesChangeStreamEventsOnly() {
+        ProductWriteListener listener = mock(ProductWriteListener.class);
+        ProductChangeRelay relay = new ProductChangeRelay(List.of(listener, feed));
+
+        relay.onProductChanged(feed.publish(ProductChangeType.UPSERT, "p-001", product("p-001"), null,
+                ProductChangeFeed.SOURCE_ADAPTER));
+        verify(listener, never()).onProductChanged(any());
+
+        relay.onProductChanged(feed.publish(ProductChangeType.UPSERT, "p-001", product("p-001"), "8263A1",
+                ProductChangeFeed.SOURCE_CHANGE_STREAM));
+        relay.onProductChanged(feed.publish(ProductChangeType.DELETE, "p-002", null, "8263A2",
+                ProductChangeFeed.SOURCE_CHANGE_STREAM));
+        relay.onProductChanged(feed.publish(ProductChangeType.RESET, null, null, "8263A3",
+                ProductChangeFeed.SOURCE_CHANGE_STREAM));
+
+        verify(listener).onProductChanged(product("p-001"));
+        verify(listener).onProductDeleted("p-002");
+        verify(listener).onResync();
+    }
+
+    private static Product product(String id) {
+        return Product.builder().id(id).name("Producto " + id).build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.walmart.ecommerce.infrastructure.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogIngestServiceTest {
+
+    private ProductRepository productRepository;
+    private CatalogIngestService ingestService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.bulkUpsert(anyList()))
+                .thenAnswer(invocation -> ((List<Product>) invocation.getArgument(0)).size());
+        ingestService = new CatalogIngestService(productRepository, new ObjectMapper(), 2, 1, 2, 10);
+    }
+
+    @Test
+    @DisplayName("Should write valid products in batches and report rejected records")
+    void ingest_writesBatchesAndReportsRejections() throws IOException {
+        String json = """
+                [
+                  {"id":"p-001","name":"Zapatillas","price":79.99,"stock":25},
+                  {"id":"p-002","name":"Camisa","price":34.50},
+                  {"name":"Sin ID","price":10},
+                  {"id":"p-003","name":"Cafetera","price":"no-es-precio"},
+                  {"id":"p-004","name":"Mochila","price":49.90,"stock":40},
+                  {"id":"p-005","name":"Jogger","price":29.90}
+                ]
+                """;
+
+        IngestReport report = ingestService.ingest(stream(json));
+
+        assertEquals(6, report.getRead());
+        assertEquals(4, report.getWritten());
+        assertEquals(2, report.getRejected());
+        assertEquals(2, report.getBatches());
+        assertEquals(2, report.getRejections().size());
+        assertTrue(report.getRejections().get(0).contains("sin id"));
+        verify(productRepository, times(2)).bulkUpsert(anyList());
+    }
+
+    @Test
+    @DisplayName("Should reject records without id or name, with a missing or negative price or negative stock")
+    void ingest_rejectsInvalidRecords() throws IOException {
+        String ndjson = """
+                {"id":" ","name":"Sin ID","price":10}
+                {"id":"p-001","price":10}
+                {"id":"p-002","name":"Sin precio"}
+                {"id":"p-003","name":"Precio negativo","price":-1}
+                {"id":"p-004","name":"Stock negativo","price":10,"stock":-5}
+                {"id":"p-005","name":"Gratis","price":0,"stock":0}
+                """;
+
+        IngestReport report = ingestService.ingest(stream(ndjson));
+
+        assertEquals(6, report.getRead());
+        assertEquals(1, report.getWritten());
+        assertEquals(5, report.getRejected());
+        List<String> rejections = report.getRejections();
+        assertTrue(rejections.get(0).endsWith("sin id"));
+        assertTrue(rejections.get(1).startsWith("#2 p-001") && rejections.get(1).endsWith("sin nombre"));
+        assertTrue(rejections.get(2).endsWith("precio ausente o negativo"));
+        assertTrue(rejections.get(3).endsWith("precio ausente o negativo"));
+        assertTrue(rejections.get(4).endsWith("stock negativo"));
+    }
+
+    @Test
+    @DisplayName("Should accept newline-delimited JSON")
+    void ingest_acceptsNdjson() throws IOException {
+        String ndjson = """
+                {"id":"p-001","name":"Zapatillas","price":79.99}
+                {"id":"p-002","name":"Camisa","price":34.50}
+                {"id":"p-003","name":"Cafetera","price":129.00}
+                """;
+
+        IngestReport report = ingestService.ingest(stream(ndjson));
+
+        assertEquals(3, report.getWritten());
+        assertEquals(0, report.getRejected());
+    }
+
+    @Test
+    @DisplayName("Should fail with a clear error on malformed JSON")
+    void ingest_rejectsMalformedJson() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ingestService.ingest(stream("[{\"id\":\"p-001\",\"name\":")));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,101 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductFacetIndexTest {
+
+    private MongoTemplate mongoTemplate;
+    private ProductFacetIndex facetIndex;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Product.class), eq(Document.class)))
+                .thenReturn(results(new Document("_id", "Ropa").append("count", 2)))
+                .thenReturn(results(new Document("_id", "ModaYa").append("count", 2)));
+        facetIndex = new ProductFacetIndex(mongoTemplate);
+        facetIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should serve categories and brands from memory after the initial build")
+    void categories_areServedWithoutQueryingAgain() {
+        assertEquals(List.of("Ropa"), facetIndex.categories());
+        assertEquals(List.of("ModaYa"), facetIndex.brands());
+        assertEquals(List.of("Ropa"), facetIndex.categories());
+
+        verify(mongoTemplate, times(2)).aggregate(any(Aggregation.class), eq(Product.class), eq(Document.class));
+    }
+
+    @Test
+    @DisplayName("Should move counts between values when a product changes category")
+    void onProductSaved_updatesCounts() {
+        Product before = Product.builder().id("p-002").category("Ropa").brand("ModaYa").build();
+        Product after = Product.builder().id("p-002").category("Calzado").brand("ModaYa").build();
+
+        facetIndex.onProductSaved(before, after);
+        facetIndex.onProductSaved(null, Product.builder().id("p-100").category("Hogar").brand("HomeBrew").build());
+
+        assertEquals(Map.of("Calzado", 1L, "Hogar", 1L, "Ropa", 1L), facetIndex.categoryCounts());
+        assertEquals(List.of("HomeBrew", "ModaYa"), facetIndex.brands());
+    }
+
+    @Test
+    @DisplayName("Should drop a value when its last product moves away")
+    void onProductSaved_removesEmptyValues() {
+        facetIndex.onProductSaved(
+                Product.builder().category("Ropa").brand("ModaYa").build(),
+                Product.builder().category("Hogar").brand("HomeBrew").build());
+        facetIndex.onProductSaved(
+                Product.builder().category("Ropa").brand("ModaYa").build(),
+                Product.builder().category("Hogar").brand("HomeBrew").build());
+
+        assertEquals(List.of("Hogar"), facetIndex.categories());
+        assertEquals(Map.of("HomeBrew", 2L), facetIndex.brandCounts());
+    }
+
+    @Test
+    @DisplayName("Should reconcile change-stream events with one aggregation instead of applying them twice")
+    void onProductChanged_reconcilesOnce() {
+        Product before = Product.builder().id("p-002").category("Ropa").brand("ModaYa").build();
+        Product after = Product.builder().id("p-002").category("Calzado").brand("ModaYa").build();
+        facetIndex.onProductSaved(before, after);
+
+        // El eco del change stream (y los cambios de otras instancias) no ajustan los conteos
+        facetIndex.onProductChanged(after);
+        facetIndex.onProductDeleted("p-001");
+        assertEquals(Map.of("Calzado", 1L, "Ropa", 1L), facetIndex.categoryCounts());
+
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Product.class), eq(Document.class)))
+                .thenReturn(results(new Document("_id", "Calzado").append("count", 1)))
+                .thenReturn(results(new Document("_id", "ModaYa").append("count", 1)));
+        facetIndex.syncChanges();
+        facetIndex.syncChanges();
+
+        assertEquals(Map.of("Calzado", 1L), facetIndex.categoryCounts());
+        assertEquals(Map.of("ModaYa", 1L), facetIndex.brandCounts());
+        verify(mongoTemplate, times(4)).aggregate(any(Aggregation.class), eq(Product.class), eq(Document.class));
+    }
+
+    private static AggregationResults<Document> results(Document... documents) {
+        return new AggregationResults<>(List.of(documents), new Document());
+    }
+}
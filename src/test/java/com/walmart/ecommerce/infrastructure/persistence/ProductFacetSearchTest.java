@@ -0,0 +1,48 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.walmart.ecommerce.domain.repositories.FacetCount;
+import com.walmart.ecommerce.domain.repositories.FacetField;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductFacetSearchTest {
+
+    @Test
+    @DisplayName("Should label price buckets with the configured boundaries, not the doubles MongoDB returns")
+    void compute_labelsPriceBucketsWithConfiguredBoundaries() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        Document facets = new Document("price", List.of(
+                new Document("_id", 0.0).append("count", 4),
+                new Document("_id", 12.5).append("count", 3),
+                new Document("_id", new Decimal128(new BigDecimal("25.00"))).append("count", 2),
+                new Document("_id", "other").append("count", 1)));
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(facets), new Document()));
+        ProductFacetSearch facetSearch = new ProductFacetSearch(mongoTemplate, mock(ProductFacetIndex.class), 20,
+                List.of(new BigDecimal("0"), new BigDecimal("12.5"), new BigDecimal("25"), new BigDecimal("50")));
+
+        List<FacetCount> prices = facetSearch.compute(
+                new Query(Criteria.where("category").is("Audio")), true, Set.of(FacetField.PRICE))
+                .get(FacetField.PRICE);
+
+        assertEquals(List.of(new FacetCount("0-12.5", 4), new FacetCount("12.5-25", 3),
+                new FacetCount("25-50", 2), new FacetCount("50+", 1)), prices);
+    }
+}
@@ -0,0 +1,93 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.ProductCriteria;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductIndexAdvisorTest {
+
+    @Test
+    @DisplayName("Should order recommended index keys by equality, sort and range")
+    void queryShape_followsEsrRule() {
+        ProductCriteria criteria = ProductCriteria.builder().category("Audio").inStock(true)
+                .minPrice(BigDecimal.TEN).build();
+
+        QueryShape shape = QueryShape.of(criteria, Sort.by(Sort.Direction.DESC, "price", "id"));
+
+        assertEquals(List.of("category", "price", "_id", "stock"), List.copyOf(shape.indexKeys().keySet()));
+        assertEquals("eq=category;sort=price+_id;range=stock", shape.toString());
+        assertEquals(shape, QueryShape.parse(shape.toString()));
+        assertEquals(shape, QueryShape.of(shape.sampleCriteria(), shape.sampleSort()));
+    }
+
+    @Test
+    @DisplayName("Should detect collection scans, in-memory sorts and the index used by the winning plan")
+    void summarizePlan_readsWinningPlan() {
+        Document collectionScan = new Document("queryPlanner", new Document("winningPlan",
+                new Document("stage", "SORT").append("inputStage", new Document("stage", "COLLSCAN"))));
+        Document indexScan = new Document("queryPlanner", new Document("winningPlan",
+                new Document("queryPlan", new Document("stage", "FETCH").append("inputStage",
+                        new Document("stage", "IXSCAN").append("indexName", "esr_category_price")))));
+
+        IndexAdvice scan = ProductIndexAdvisor.summarizePlan(collectionScan, IndexAdvice.builder());
+        IndexAdvice indexed = ProductIndexAdvisor.summarizePlan(indexScan, IndexAdvice.builder());
+
+        assertEquals("SORT>COLLSCAN", scan.getPlan());
+        assertTrue(scan.isCollectionScan());
+        assertTrue(scan.isBlockingSort());
+        assertEquals("FETCH>IXSCAN", indexed.getPlan());
+        assertEquals("esr_category_price", indexed.getPlanIndex());
+        assertFalse(indexed.isCollectionScan());
+    }
+
+    @Test
+    @DisplayName("Should create missing declared indexes and drop only undeclared managed ones")
+    void provision_reconcilesManagedIndexes() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        IndexOperations indexOps = mock(IndexOperations.class);
+        when(mongoTemplate.indexOps(Product.class)).thenReturn(indexOps);
+        when(indexOps.getIndexInfo()).thenReturn(List.of(
+                index("category_1", "category"),
+                index("esr_brand_price", "brand", "price"),
+                index("esr_onSale_discountPercentage", "onSale", "discountPercentage")));
+
+        new ProductIndexAdvisor(mongoTemplate, new QueryExplainer(mongoTemplate), 10,
+                List.of("eq=category;sort=price;range=price", "eq=onSale;sort=discountPercentage;range="),
+                true, true).provision();
+
+        ArgumentCaptor<Index> created = ArgumentCaptor.forClass(Index.class);
+        verify(indexOps).ensureIndex(created.capture());
+        assertEquals("esr_category_price", created.getValue().getIndexOptions().getString("name"));
+        verify(indexOps).dropIndex("esr_brand_price");
+        verify(indexOps, never()).dropIndex("category_1");
+        verify(indexOps, never()).dropIndex("esr_onSale_discountPercentage");
+    }
+
+    private static IndexInfo index(String name, String... fields) {
+        List<IndexField> indexFields = Arrays.stream(fields)
+                .map(field -> IndexField.create(field, Sort.Direction.ASC))
+                .toList();
+        return new IndexInfo(indexFields, name, false, false, null);
+    }
+}
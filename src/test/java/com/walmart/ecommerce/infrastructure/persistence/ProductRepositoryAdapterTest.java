@@ -0,0 +1,267 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.CountStrategy;
+import com.walmart.ecommerce.domain.repositories.CountedPage;
+import com.walmart.ecommerce.domain.repositories.ProductCriteria;
+import com.walmart.ecommerce.domain.repositories.ProductCursor;
+import com.walmart.ecommerce.domain.repositories.SortField;
+import com.walmart.ecommerce.domain.repositories.TagMatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductRepositoryAdapterTest {
+
+    private MongoTemplate mongoTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private SlowQueryLog slowQueryLog;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        slowQueryLog = mock(SlowQueryLog.class);
+    }
+
+    @Test
+    @DisplayName("Should run the count while the page query is still in flight when an executor is available")
+    void findByFilters_countsInParallel() {
+        CountDownLatch countStarted = new CountDownLatch(1);
+        when(mongoTemplate.count(any(Query.class), eq(Product.class))).thenAnswer(invocation -> {
+            countStarted.countDown();
+            return 42L;
+        });
+        // La página solo termina si el conteo arrancó mientras ella seguía en curso
+        when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenAnswer(invocation -> {
+            assertTrue(countStarted.await(5, TimeUnit.SECONDS));
+            return List.of(product("p-001"));
+        });
+
+        ProductRepositoryAdapter adapter = adapter(new SimpleAsyncTaskExecutor("test-count-"));
+        CountedPage<Product> page = adapter.findByFilters(criteria(), PageRequest.of(0, 1), CountStrategy.EXACT);
+
+        assertEquals(42, page.getTotalElements());
+        assertEquals("parallel", adapter.latencyStats().getMode());
+        assertEquals(1, adapter.latencyStats().getSearches());
+    }
+
+    @Test
+    @DisplayName("Should query sequentially and skip the count when the page reveals the total")
+    void findByFilters_sequentialSkipsDeducibleCount() {
+        when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(List.of(product("p-001")));
+
+        ProductRepositoryAdapter adapter = adapter(null);
+        CountedPage<Product> page = adapter.findByFilters(criteria(), PageRequest.of(0, 10), CountStrategy.EXACT);
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals("sequential", adapter.latencyStats().getMode());
+        assertEquals(0.0, adapter.latencyStats().getAvgCountMillis());
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Product.class));
+    }
+
+    @Test
+    @DisplayName("Should not report count latency when a cached total is served without querying")
+    void findByFilters_cachedTotalRecordsNoCountLatency() {
+        when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(List.of(product("p-001")));
+        when(mongoTemplate.count(any(Query.class), eq(Product.class))).thenReturn(30L);
+
+        ProductRepositoryAdapter adapter = adapter(null);
+        adapter.findByFilters(criteria(), PageRequest.of(1, 1), CountStrategy.CACHED);
+        adapter.findByFilters(criteria(), PageRequest.of(1, 1), CountStrategy.CACHED);
+
+        verify(mongoTemplate, times(1)).count(any(Query.class), eq(Product.class));
+        verify(slowQueryLog, times(1)).inspect(any(), any(), any(), any(), anyLong(), eq(0L), eq(1));
+        assertEquals(1, meterRegistry.get(CatalogQueryMetrics.QUERY_TIMER)
+                .tags("operation", "count").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should time find and count separately, tagged by active filters and sort field")
+    void findByFilters_recordsQueryMetricsByShape() {
+        when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(List.of(product("p-001")));
+        when(mongoTemplate.count(any(Query.class), eq(Product.class))).thenReturn(30L);
+        ProductCriteria criteria = ProductCriteria.builder().category("Audio").minPrice(BigDecimal.TEN).build();
+
+        adapter(null).findByFilters(criteria, PageRequest.of(1, 1, Sort.by("price")), CountStrategy.EXACT);
+        adapter(null).findByFilters(criteria, PageRequest.of(0, 1, Sort.by("$where")), CountStrategy.EXACT);
+
+        assertEquals(1, meterRegistry.get(CatalogQueryMetrics.QUERY_TIMER)
+                .tags("operation", "find", "filters", "category+price", "sort", "price").timer().count());
+        assertEquals(1, meterRegistry.get(CatalogQueryMetrics.QUERY_TIMER)
+                .tags("operation", "count", "filters", "category+price", "sort", "price").timer().count());
+        assertEquals(1, meterRegistry.get(CatalogQueryMetrics.QUERY_TIMER)
+                .tags("operation", "find", "sort", "other").timer().count());
+        assertEquals(1, meterRegistry.get(CatalogQueryMetrics.RESULTS_SUMMARY)
+                .tags("filters", "category+price", "sort", "price").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should filter deals on the stored read model fields")
+    void buildFilterQuery_filtersOnStoredDiscount() {
+        Query query = ProductRepositoryAdapter.buildFilterQuery(
+                ProductCriteria.builder().onSale(true).minDiscount(30).build());
+
+        String filter = query.getQueryObject().toJson();
+        assertTrue(filter.contains("\"onSale\": true"));
+        assertTrue(filter.contains("\"discountPercentage\": {\"$gte\": 30}"));
+    }
+
+    @Test
+    @DisplayName("Should compile value lists, all-tags and OR groups into a single query")
+    void buildFilterQuery_compilesMultiValueAndOrGroups() {
+        Query query = ProductRepositoryAdapter.buildFilterQuery(ProductCriteria.builder()
+                .categories(List.of("Audio", "Gaming"))
+                .tags(List.of("bluetooth", "gamer"))
+                .tagMatch(TagMatch.ALL)
+                .anyOf(List.of(
+                        ProductCriteria.builder().brand("Sony").build(),
+                        ProductCriteria.builder().brands(List.of("JBL")).maxPrice(new BigDecimal("100")).build()))
+                .build());
+
+        List<Document> clauses = query.getQueryObject().getList("$and", Document.class);
+        assertEquals(new Document("category", new Document("$in", List.of("Audio", "Gaming"))), clauses.get(0));
+        assertEquals(new Document("tags", new Document("$all", List.of("bluetooth", "gamer"))), clauses.get(1));
+        List<Document> groups = clauses.get(2).getList("$or", Document.class);
+        assertEquals(new Document("brand", "Sony"), groups.get(0));
+        assertEquals(List.of(new Document("brand", "JBL"),
+                        new Document("price", new Document("$lte", new Decimal128(new BigDecimal("100"))))),
+                groups.get(1).getList("$and", Document.class));
+    }
+
+    @Test
+    @DisplayName("Should translate the relevance sort to the text score and drop it from the field sort")
+    void withRelevance_sortsByTextScore() {
+        Query query = ProductRepositoryAdapter.buildFilterQuery(
+                ProductCriteria.builder().searchText("auriculares").build());
+
+        Pageable planned = ProductRepositoryAdapter.withRelevance(query, PageRequest.of(2, 20, SortField.relevance()));
+        query.with(planned);
+
+        assertEquals(Sort.unsorted(), planned.getSort());
+        assertEquals(40, planned.getOffset());
+        assertEquals(new Document("score", new Document("$meta", "textScore")), query.getSortObject());
+    }
+
+    @Test
+    @DisplayName("Should compute the read model right before a product is written")
+    void readModelCallback_storesDiscount() {
+        Product product = Product.builder().id("p-001").price(new BigDecimal("79.99"))
+                .oldPrice(new BigDecimal("99.99")).build();
+
+        new ProductReadModelCallback().onBeforeConvert(product, "products");
+
+        assertEquals(true, product.getOnSale());
+        assertEquals(20, product.getDiscountPercentage());
+    }
+
+    @Test
+    @DisplayName("Should store prices as Decimal128 and compare price ranges numerically")
+    void priceMapping_usesDecimal128() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        Document stored = new Document();
+        converter.write(Product.builder().id("p-001").price(new BigDecimal("79.99"))
+                .oldPrice(new BigDecimal("99.99")).build(), stored);
+        Query query = ProductRepositoryAdapter.buildFilterQuery(ProductCriteria.builder()
+                .minPrice(new BigDecimal("10")).maxPrice(new BigDecimal("100")).build());
+        Document mapped = new QueryMapper(converter).getMappedObject(query.getQueryObject(),
+                mappingContext.getPersistentEntity(Product.class));
+        Document range = mapped.getList("$and", Document.class).get(0).get("price", Document.class);
+
+        assertEquals(new Decimal128(new BigDecimal("79.99")), stored.get("price"));
+        assertEquals(new Decimal128(new BigDecimal("99.99")), stored.get("oldPrice"));
+        assertEquals(new Decimal128(BigDecimal.TEN), range.get("$gte"));
+        assertEquals(new Decimal128(new BigDecimal("100")), range.get("$lte"));
+        assertTrue(ProductRepositoryAdapter.buildKeysetCriteria(new ProductCursor("price",
+                        Sort.Direction.ASC, new BigDecimal("79.99"), "p-001"))
+                .getCriteriaObject().toJson().contains("{\"price\": {\"$gt\": {\"$numberDecimal\": \"79.99\"}}}"));
+    }
+
+    @Test
+    @DisplayName("Should continue a filtered descending cursor into null sort values without a second $and")
+    void buildKeysetCriteria_combinesWithFiltersAtNullBoundary() {
+        Query query = ProductRepositoryAdapter.buildFilterQuery(
+                ProductCriteria.builder().category("Audio").inStock(false).minDiscount(10).build());
+
+        query.addCriteria(ProductRepositoryAdapter.buildKeysetCriteria(
+                new ProductCursor("stock", Sort.Direction.DESC, null, "p-010")));
+
+        Document filter = query.getQueryObject();
+        assertEquals(2, filter.getList("$and", Document.class).size());
+        assertEquals(null, filter.get("stock"));
+        assertTrue(filter.containsKey("stock"));
+        assertEquals(new Document("$lt", "p-010"), filter.get("id"));
+    }
+
+    @Test
+    @DisplayName("Should keep only the last version of each id in a write batch")
+    void lastPerId_dedupesBatch() {
+        Product first = Product.builder().id("p-001").name("Primera").build();
+        Product last = Product.builder().id("p-001").name("Última").build();
+        Product unsaved = Product.builder().name("Sin id").build();
+        List<Product> unique = List.of(product("p-001"), product("p-002"));
+
+        assertEquals(List.of(product("p-002"), unsaved, last, unsaved),
+                ProductRepositoryAdapter.lastPerId(List.of(first, product("p-002"), unsaved, last, unsaved)));
+        assertSame(unique, ProductRepositoryAdapter.lastPerId(unique));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProductRepositoryAdapter adapter(AsyncTaskExecutor executor) {
+        ObjectProvider<AsyncTaskExecutor> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(executor);
+        return new ProductRepositoryAdapter(mock(MongoProductRepository.class), mongoTemplate,
+                new QueryCountCache(Duration.ofSeconds(30), 100), mock(ProductFacetIndex.class),
+                mock(ProductFacetSearch.class), List.of(), 500, provider, new SearchLatencyRecorder(),
+                new CatalogQueryMetrics(meterRegistry), mock(ProductIndexAdvisor.class),
+                slowQueryLog, true);
+    }
+
+    private static ProductCriteria criteria() {
+        return ProductCriteria.builder().category("Audio").build();
+    }
+
+    private static Product product(String id) {
+        return Product.builder().id(id).name("Producto " + id).build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.walmart.ecommerce.infrastructure.persistence;
+
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SlowQueryLogTest {
+
+    private static final long MILLI = 1_000_000;
+
+    @Test
+    @DisplayName("Should keep only queries over the threshold, newest first, within the ring capacity")
+    void inspect_keepsSlowQueriesInRing() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(mock(QueryExplainer.class), Duration.ofMillis(100), 2, 0);
+
+        slowQueryLog.inspect("eq=category;sort=;range=", new Query(), null, PageRequest.of(0, 20),
+                5 * MILLI, 0, 20);
+        slowQueryLog.inspect("eq=brand;sort=;range=", new Query(), null, PageRequest.of(1, 20),
+                150 * MILLI, 0, 20);
+        slowQueryLog.inspect("eq=;sort=price;range=", new Query(), new Query(), PageRequest.of(2, 20),
+                10 * MILLI, 300 * MILLI, 20);
+        slowQueryLog.inspect("eq=tags;sort=;range=", new Query(), null, PageRequest.of(3, 20),
+                200 * MILLI, 0, 20);
+
+        List<SlowQuery> recent = slowQueryLog.recent();
+        assertEquals(List.of("eq=tags;sort=;range=", "eq=;sort=price;range="),
+                recent.stream().map(SlowQuery::getShape).toList());
+        assertEquals(300.0, recent.get(1).getCountMillis());
+        assertNull(recent.get(0).getExplain());
+    }
+
+    @Test
+    @DisplayName("Should attach executionStats of the slower operation when the query is sampled")
+    void inspect_attachesSampledExplain() throws InterruptedException {
+        QueryExplainer explainer = mock(QueryExplainer.class);
+        Document executionStats = new Document("queryPlanner", new Document("winningPlan",
+                new Document("stage", "FETCH").append("inputStage",
+                        new Document("stage", "IXSCAN").append("indexName", "category_1"))))
+                .append("executionStats", new Document("nReturned", 20).append("executionTimeMillis", 140)
+                        .append("totalKeysExamined", 5000).append("totalDocsExamined", 5000));
+        when(explainer.explainFind(any(Query.class), eq(QueryExplainer.EXECUTION_STATS))).thenReturn(executionStats);
+        SlowQueryLog slowQueryLog = new SlowQueryLog(explainer, Duration.ofMillis(100), 10, 1.0);
+
+        slowQueryLog.inspect("eq=category;sort=price;range=", new Query(), null,
+                PageRequest.of(0, 20, Sort.by("price")), 150 * MILLI, 0, 20);
+
+        // El explain corre en otro hilo
+        long deadline = System.currentTimeMillis() + 5000;
+        while (slowQueryLog.recent().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        SlowQuery.Explain explain = slowQueryLog.recent().get(0).getExplain();
+        assertEquals("find", explain.getOperation());
+        assertEquals("FETCH>IXSCAN", explain.getPlan());
+        assertEquals("category_1", explain.getIndexName());
+        assertEquals(5000, explain.getDocsExamined());
+        assertTrue(explain.getDocsExamined() > explain.getReturned());
+    }
+}
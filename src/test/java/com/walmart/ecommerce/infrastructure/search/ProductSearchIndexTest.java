@@ -0,0 +1,263 @@
+package com.walmart.ecommerce.infrastructure.search;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.FacetCount;
+import com.walmart.ecommerce.domain.repositories.FacetField;
+import com.walmart.ecommerce.domain.repositories.ProductCriteria;
+import com.walmart.ecommerce.domain.repositories.ProductCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+
+    private MongoTemplate mongoTemplate;
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        List<Product> catalog = List.of(
+                product("p-001", "Lámpara de escritorio LED", "Luz cálida regulable", "Hogar", "HomeBrew", "45.00", 10),
+                product("p-002", "Auriculares inalámbricos", "Cancelación de ruido, bluetooth", "Audio", "Sony", "199.99", 5),
+                product("p-003", "Parlante portátil", "Sonido potente, ideal para auriculares y fiestas", "Audio", "JBL", "89.90", 0),
+                product("p-004", "Auriculares gamer", "Micrófono desmontable", "Gaming", "Logitech", "59.90", 20),
+                product("p-005", "Cafetera espresso", "Presión de 15 bares", "Cocina", "HomeBrew", "129.00", 3));
+
+        mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenAnswer(invocation -> catalog.stream());
+        index = new ProductSearchIndex(mongoTemplate, 20, List.of(
+                new BigDecimal("0"), new BigDecimal("50"), new BigDecimal("100")));
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should match regardless of accents, plurals, partial words and single typos")
+    void search_normalizesQueryTerms() {
+        assertEquals(List.of("p-001"), ids(search("lampara")));
+        assertEquals(List.of("p-001"), ids(search("LÁMPARAS")));
+        assertEquals(List.of("p-005"), ids(search("cafet")));
+        assertEquals(List.of("p-005"), ids(search("cafetrea")));
+    }
+
+    @Test
+    @DisplayName("Should rank name matches above description matches using the text index weights")
+    void search_ranksByBm25WithFieldWeights() {
+        ProductSearchIndex.SearchHits hits = search("auriculares");
+
+        assertEquals(3, hits.getTotal());
+        assertEquals("p-003", ids(hits).get(2));
+    }
+
+    @Test
+    @DisplayName("Should combine category, stock and price filters and sort by price")
+    void search_appliesFiltersAndSort() {
+        ProductCriteria criteria = ProductCriteria.builder()
+                .category("Audio")
+                .minPrice(new BigDecimal("50"))
+                .build();
+
+        assertEquals(List.of("p-002", "p-003"),
+                ids(index.search(criteria, Sort.by(Sort.Direction.DESC, "price"), 0, 10)));
+        assertEquals(List.of("p-002"),
+                ids(index.search(criteria.toBuilder().inStock(true).build(), Sort.unsorted(), 0, 10)));
+        assertEquals(List.of("p-003", "p-004"), ids(index.search(
+                ProductCriteria.builder().maxPrice(new BigDecimal("89.90")).minPrice(new BigDecimal("59.90")).build(),
+                Sort.by(Sort.Direction.DESC, "price"), 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Should accept any of several categories and any of the OR groups")
+    void search_appliesMultiValueAndAnyOfFilters() {
+        Sort byPrice = Sort.by(Sort.Direction.ASC, "price");
+
+        assertEquals(List.of("p-004", "p-005"), ids(index.search(
+                ProductCriteria.builder().categories(List.of("Gaming", "Cocina")).build(), byPrice, 0, 10)));
+        assertEquals(List.of("p-001", "p-003", "p-005"), ids(index.search(ProductCriteria.builder()
+                .anyOf(List.of(
+                        ProductCriteria.builder().category("Audio").maxPrice(new BigDecimal("100")).build(),
+                        ProductCriteria.builder().brand("HomeBrew").inStock(true).build()))
+                .build(), byPrice, 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Should keep filters, text and facets current after writes")
+    void onProductSaved_updatesIndexIncrementally() {
+        Product moved = product("p-005", "Cafetera de goteo", "Jarra térmica", "Hogar", "HomeBrew", "49.00", 3);
+        index.onProductSaved(null, moved);
+        index.onProductSaved(null, product("p-006", "Tostadora", "Dos ranuras", "Cocina", "HomeBrew", "35.00", 8));
+
+        assertEquals(List.of("p-005"), ids(search("goteo")));
+        assertEquals(0, search("espresso").getTotal());
+
+        Map<FacetField, List<FacetCount>> facets = index.facets(
+                ProductCriteria.builder().brand("HomeBrew").build(), Set.of(FacetField.CATEGORY, FacetField.PRICE));
+        assertEquals(List.of(new FacetCount("Hogar", 2), new FacetCount("Cocina", 1)), facets.get(FacetField.CATEGORY));
+        assertEquals(List.of(new FacetCount("0-50", 3)), facets.get(FacetField.PRICE));
+    }
+
+    @Test
+    @DisplayName("Should keep the price order current when products are repriced, added or lose their price")
+    void onProductSaved_movesRepricedProductsInPriceOrder() {
+        Sort byPrice = Sort.by(Sort.Direction.ASC, "price");
+        index.onProductSaved(null, product("p-002", "Auriculares inalámbricos", "Bluetooth", "Audio", "Sony", "19.99", 5));
+        index.onProductSaved(null, product("p-001", "Lámpara de escritorio LED", "Luz", "Hogar", "HomeBrew", "150.00", 4));
+        index.onProductSaved(null, product("p-004", "Auriculares gamer", "Micrófono", "Gaming", "Logitech", "59.90", 0));
+        index.onProductSaved(null, Product.builder().id("p-003").name("Parlante portátil").category("Audio").build());
+        index.onProductSaved(null, product("p-006", "Tostadora", "Dos ranuras", "Cocina", "HomeBrew", "59.90", 8));
+
+        assertEquals(List.of("p-003", "p-002", "p-004", "p-006", "p-005", "p-001"),
+                index.searchAll(ProductCriteria.empty(), byPrice).stream().map(Product::getId).toList());
+        assertEquals(List.of("p-004", "p-006", "p-005"), ids(index.search(ProductCriteria.builder()
+                .minPrice(new BigDecimal("50")).maxPrice(new BigDecimal("130")).build(), byPrice, 0, 10)));
+        assertEquals(List.of("p-001", "p-002", "p-003", "p-004", "p-005", "p-006"),
+                pages(ProductCriteria.empty(), Sort.by(Sort.Direction.ASC, "id")));
+    }
+
+    @Test
+    @DisplayName("Should keep serving the previous index during a rebuild and replay the writes it missed")
+    void rebuild_swapsFreshIndexAndReplaysConcurrentWrites() {
+        List<Product> catalog = List.of(
+                product("p-001", "Lámpara de escritorio LED", "Luz cálida regulable", "Hogar", "HomeBrew", "45.00", 10),
+                product("p-002", "Auriculares inalámbricos", "Bluetooth", "Audio", "Sony", "199.99", 5));
+        List<Long> sizesDuringRebuild = new ArrayList<>();
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenAnswer(invocation -> {
+            // Mientras se lee MongoDB las consultas no esperan y responden con el índice anterior
+            sizesDuringRebuild.add(index.size());
+            index.onProductSaved(null, product("p-007", "Tostadora", "Dos ranuras", "Cocina", "HomeBrew", "35.00", 8));
+            return catalog.stream();
+        });
+
+        index.onResync();
+
+        assertEquals(List.of(5L), sizesDuringRebuild);
+        assertEquals(3, index.size());
+        assertEquals(List.of("p-007"), ids(search("tostadora")));
+        assertEquals(0, search("cafetera").getTotal());
+        assertEquals(List.of("p-007", "p-001", "p-002"), index.searchAll(ProductCriteria.empty(),
+                Sort.by(Sort.Direction.ASC, "price")).stream().map(Product::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should drop deleted products from text, filters, price order and facets")
+    void onProductDeleted_removesProduct() {
+        index.onProductDeleted("p-004");
+        index.onProductDeleted("p-404");
+
+        assertEquals(List.of("p-002", "p-003"), ids(search("auriculares")));
+        assertEquals(List.of("p-001", "p-003", "p-005", "p-002"), index.searchAll(ProductCriteria.empty(),
+                Sort.by(Sort.Direction.ASC, "price")).stream().map(Product::getId).toList());
+        assertTrue(index.facets(ProductCriteria.empty(), Set.of(FacetField.CATEGORY)).get(FacetField.CATEGORY)
+                .stream().noneMatch(count -> count.getValue().equals("Gaming")));
+
+        index.onProductSaved(null, product("p-004", "Auriculares gamer", "Micrófono", "Gaming", "Logitech", "59.90", 20));
+
+        assertEquals(3, search("auriculares").getTotal());
+    }
+
+    @Test
+    @DisplayName("Should page with a keyset cursor in the requested order")
+    void searchAfter_continuesFromCursor() {
+        Sort byPrice = Sort.by(Sort.Direction.ASC, "price");
+        List<Product> first = index.searchAfter(ProductCriteria.empty(), null, byPrice, 2);
+        Product last = first.get(1);
+
+        List<Product> next = index.searchAfter(ProductCriteria.empty(),
+                new ProductCursor("price", Sort.Direction.ASC, last.getPrice(), last.getId()), byPrice, 2);
+
+        assertEquals(List.of("p-001", "p-004"), first.stream().map(Product::getId).toList());
+        assertEquals(List.of("p-003", "p-005"), next.stream().map(Product::getId).toList());
+        assertTrue(ProductSearchIndex.withinOneEdit("auricular", "auricualr"));
+    }
+
+    @Test
+    @DisplayName("Should seek the cursor in price and id order, keeping ties by id, missing prices and filters")
+    void searchAfter_seeksCursorPosition() {
+        index.onProductSaved(null, product("p-006", "Auriculares básicos", "Con cable", "Audio", "Genérica", "59.90", 7));
+        index.onProductSaved(null, Product.builder().id("p-000").name("Muestra").category("Audio").build());
+        ProductCriteria audio = ProductCriteria.builder().category("Audio").build();
+
+        assertEquals(List.of("p-002", "p-005", "p-003", "p-006", "p-004", "p-001", "p-000"),
+                pages(ProductCriteria.empty(), Sort.by(Sort.Direction.DESC, "price")));
+        assertEquals(List.of("p-000", "p-006", "p-003", "p-002"), pages(audio, Sort.by(Sort.Direction.ASC, "price")));
+        assertEquals(List.of("p-006", "p-003", "p-002", "p-000"), pages(audio, Sort.by(Sort.Direction.DESC, "id")));
+        assertEquals(List.of("p-000", "p-001", "p-002", "p-003", "p-004", "p-005", "p-006"),
+                pages(ProductCriteria.empty(), Sort.unsorted()));
+    }
+
+    @Test
+    @DisplayName("Should filter deals by minimum discount and list the biggest discounts first")
+    void search_filtersAndSortsByDiscount() {
+        Product smallDeal = product("p-002", "Auriculares inalámbricos", "Bluetooth", "Audio", "Sony", "180.00", 5);
+        smallDeal.setOldPrice(new BigDecimal("199.99"));
+        Product bigDeal = product("p-004", "Auriculares gamer", "Micrófono", "Gaming", "Logitech", "29.95", 20);
+        bigDeal.setOldPrice(new BigDecimal("59.90"));
+        bigDeal.refreshReadModel();
+        index.onProductSaved(null, smallDeal);
+        index.onProductSaved(null, bigDeal);
+
+        Sort biggestDeals = Sort.by(Sort.Direction.DESC, "discountPercentage");
+        assertEquals(List.of("p-004", "p-002"),
+                ids(index.search(ProductCriteria.builder().onSale(true).build(), biggestDeals, 0, 10)));
+        assertEquals(List.of("p-004"),
+                ids(index.search(ProductCriteria.builder().minDiscount(20).build(), biggestDeals, 0, 10)));
+        assertEquals(50, bigDeal.getDiscountPercentage());
+    }
+
+    private ProductSearchIndex.SearchHits search(String text) {
+        return index.search(ProductCriteria.builder().searchText(text).build(), Sort.unsorted(), 0, 10);
+    }
+
+    private static List<String> ids(ProductSearchIndex.SearchHits hits) {
+        return hits.getProducts().stream().map(Product::getId).toList();
+    }
+
+    /**
+     * Recorre todas las páginas de a dos productos, armando cada cursor desde el último de la página
+     */
+    private List<String> pages(ProductCriteria criteria, Sort sort) {
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc("id"));
+        List<String> ids = new ArrayList<>();
+        ProductCursor cursor = null;
+        List<Product> page;
+        do {
+            page = index.searchAfter(criteria, cursor, sort, 2);
+            page.forEach(product -> ids.add(product.getId()));
+            if (!page.isEmpty()) {
+                Product last = page.get(page.size() - 1);
+                Object value = "price".equals(order.getProperty()) ? last.getPrice() : last.getId();
+                cursor = new ProductCursor(order.getProperty(), order.getDirection(), value, last.getId());
+            }
+        } while (page.size() == 2);
+        return ids;
+    }
+
+    private static Product product(String id, String name, String description, String category, String brand,
+                                   String price, int stock) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .category(category)
+                .brand(brand)
+                .price(new BigDecimal(price))
+                .stock(stock)
+                .tags(List.of())
+                .build();
+    }
+}
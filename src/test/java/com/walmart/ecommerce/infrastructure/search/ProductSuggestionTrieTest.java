@@ -0,0 +1,136 @@
+package com.walmart.ecommerce.infrastructure.search;
+
+import com.walmart.ecommerce.domain.entities.Product;
+import com.walmart.ecommerce.domain.repositories.Suggestion;
+import com.walmart.ecommerce.domain.repositories.SuggestionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSuggestionTrieTest {
+
+    private ProductSuggestionTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        List<Product> catalog = List.of(
+                product("p-001", "Zapatillas Runner X", "Calzado", "SportCo", 25, "running"),
+                product("p-002", "Zapatos de cuero", "Calzado", "Clásicos", 0, "formal"),
+                product("p-003", "Auriculares Sony WH-1000", "Audio", "Sony", 5, "wireless"),
+                product("p-004", "Parlante Sony portátil", "Audio", "Sony", 40, "wireless"),
+                product("p-005", "Cafetera espresso", "Cocina", "HomeBrew", 3, "café"));
+
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenAnswer(invocation -> catalog.stream());
+        trie = new ProductSuggestionTrie(mongoTemplate, 5, 24);
+        trie.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should suggest by prefix of any word, ignoring case and accents, ranked by stock weight")
+    void findByPrefix_matchesWordPrefixesRankedByWeight() {
+        assertEquals(List.of("Zapatillas Runner X", "Zapatos de cuero"), texts(trie.findByPrefix("ZAPA", 5)));
+        assertEquals(List.of("running", "Zapatillas Runner X"), texts(trie.findByPrefix("runn", 5)));
+        assertEquals(List.of("Clásicos"), texts(trie.findByPrefix("clasi", 5)));
+        assertEquals(List.of("café", "Cafetera espresso"), texts(trie.findByPrefix("caf", 5)));
+
+        List<Suggestion> sony = trie.findByPrefix("son", 5);
+        assertEquals(new Suggestion("Sony", SuggestionType.BRAND, sony.get(0).getWeight()), sony.get(0));
+        assertEquals(List.of("Sony", "Parlante Sony portátil", "Auriculares Sony WH-1000"), texts(sony));
+    }
+
+    @Test
+    @DisplayName("Should honor the limit and return nothing for unknown or blank prefixes")
+    void findByPrefix_respectsLimit() {
+        assertEquals(2, trie.findByPrefix("a", 2).size());
+        assertTrue(trie.findByPrefix("xyz", 5).isEmpty());
+        assertTrue(trie.findByPrefix("  ", 5).isEmpty());
+        // Los números de modelo no son puntos de entrada
+        assertTrue(trie.findByPrefix("1000", 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep suggestions and ranking up to date on writes")
+    void onProductSaved_updatesSuggestions() {
+        Product zapatos = product("p-002", "Zapatos de cuero", "Calzado", "Clásicos", 0, "formal");
+        Product restocked = product("p-002", "Zapatos de cuero", "Calzado", "Clásicos", 500, "formal");
+        trie.onProductSaved(zapatos, restocked);
+
+        assertEquals(List.of("Zapatos de cuero", "Zapatillas Runner X"), texts(trie.findByPrefix("zapa", 5)));
+
+        Product renamed = product("p-002", "Mocasines de cuero", "Calzado", "Nuevos Clásicos", 500, "formal");
+        trie.onProductSaved(restocked, renamed);
+
+        assertEquals(List.of("Zapatillas Runner X"), texts(trie.findByPrefix("zapa", 5)));
+        assertEquals(List.of("Mocasines de cuero"), texts(trie.findByPrefix("moca", 5)));
+        assertEquals(List.of("Nuevos Clásicos"), texts(trie.findByPrefix("clasi", 5)));
+
+        trie.onProductSaved(null, product("p-006", "Zapatillas trail", "Calzado", "SportCo", 1, "outdoor"));
+
+        assertEquals(List.of("Zapatillas Runner X", "Zapatillas trail"), texts(trie.findByPrefix("zapatillas", 5)));
+    }
+
+    @Test
+    @DisplayName("Should apply change-stream upserts and deletes once per product")
+    void changeStreamEvents_areIdempotent() {
+        Product restocked = product("p-002", "Zapatos de cuero", "Calzado", "Clásicos", 500, "formal");
+        trie.onProductSaved(null, restocked);
+        trie.onProductSaved(null, restocked);
+
+        List<Suggestion> clasicos = trie.findByPrefix("clasi", 5);
+        assertEquals(1, clasicos.size());
+        assertEquals(ProductSuggestionTrie.weight(restocked), clasicos.get(0).getWeight(), 1e-9);
+
+        trie.onProductDeleted("p-002");
+        trie.onProductDeleted("p-002");
+
+        assertTrue(trie.findByPrefix("clasi", 5).isEmpty());
+        assertEquals(List.of("Zapatillas Runner X"), texts(trie.findByPrefix("zapa", 5)));
+    }
+
+    @Test
+    @DisplayName("Should return nothing before the first build and apply writes that arrive while building")
+    void rebuild_appliesWritesReceivedDuringBuild() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        ProductSuggestionTrie building = new ProductSuggestionTrie(mongoTemplate, 5, 24);
+        Product lamp = product("p-010", "Lámpara de pie", "Hogar", "Luz", 4, "living");
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenAnswer(invocation -> {
+            // Escrituras concurrentes a la lectura de la colección, que ya no las verá
+            building.onProductSaved(null, product("p-011", "Lámpara de escritorio", "Hogar", "Luz", 9, "oficina"));
+            building.onProductDeleted("p-010");
+            return Stream.of(lamp);
+        });
+
+        assertTrue(building.findByPrefix("lamp", 5).isEmpty());
+        building.rebuild();
+
+        assertEquals(List.of("Lámpara de escritorio"), texts(building.findByPrefix("lamp", 5)));
+    }
+
+    private static Product product(String id, String name, String category, String brand, int stock, String tag) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .category(category)
+                .brand(brand)
+                .stock(stock)
+                .tags(List.of(tag))
+                .build();
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::getText).toList();
+    }
+}
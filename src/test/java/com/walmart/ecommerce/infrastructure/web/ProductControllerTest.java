@@ -0,0 +1,198 @@
+package com.walmart.ecommerce.infrastructure.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.walmart.ecommerce.application.cache.CatalogVersion;
+import com.walmart.ecommerce.application.dto.PageResponse;
+import com.walmart.ecommerce.application.dto.ProductResponse;
+import com.walmart.ecommerce.application.dto.ProductSearchFilter;
+import com.walmart.ecommerce.application.service.ProductService;
+import com.walmart.ecommerce.application.service.ProductSuggestionService;
+import com.walmart.ecommerce.domain.repositories.TagMatch;
+import com.walmart.ecommerce.infrastructure.cache.EncodedResponseCache;
+import com.walmart.ecommerce.infrastructure.persistence.CatalogRevision;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ProductControllerTest {
+
+    private ProductService productService;
+    private CatalogVersion catalogVersion;
+    private CatalogRevision catalogRevision;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        catalogVersion = new CatalogVersion();
+        catalogRevision = mock(CatalogRevision.class);
+        when(catalogRevision.current()).thenReturn(7L);
+        mockMvc = mockMvc(catalogVersion);
+    }
+
+    @Test
+    @DisplayName("Should answer 304 before searching, also on an instance that has nothing cached")
+    void searchProducts_shortCircuitsOnMatchingEtag() throws Exception {
+        when(productService.searchProducts(any(), anyInt(), anyInt(), any(), any(), any()))
+                .thenReturn(PageResponse.<ProductResponse>builder().content(List.of()).build());
+
+        String etag = mockMvc.perform(get("/v1/products").param("category", "Audio"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=30, public"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertTrue(etag.startsWith("W/\"7-"));
+
+        // Otra instancia (o un reinicio) con la misma revisión valida el ETag sin consultar
+        mockMvc(new CatalogVersion()).perform(get("/v1/products").param("category", "Audio")
+                        .header("If-None-Match", "\"other\", " + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+        verify(productService, times(1)).searchProducts(any(), anyInt(), anyInt(), any(), any(), any());
+
+        // Una escritura en cualquier instancia avanza la revisión (y con ella la versión local)
+        // y el ETag deja de coincidir
+        catalogVersion.bump();
+        when(catalogRevision.current()).thenReturn(8L);
+        mockMvc.perform(get("/v1/products").param("category", "Audio").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+        verify(productService, times(2)).searchProducts(any(), anyInt(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should revalidate a POST search with the ETag of the equivalent GET")
+    void searchProductsByQuery_answersConditionalRequests() throws Exception {
+        when(productService.searchProducts(any(), anyInt(), anyInt(), any(), any(), any()))
+                .thenReturn(PageResponse.<ProductResponse>builder().content(List.of()).build());
+
+        String etag = mockMvc.perform(get("/v1/products").param("tags", "bluetooth"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(post("/v1/products/search").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tags\": [\"bluetooth\"]}")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(post("/v1/products/search").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tags\": [\"wireless\"]}")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should honour q-values in Accept-Encoding")
+    void acceptsGzip_parsesQualityValues() {
+        assertTrue(ProductController.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ProductController.acceptsGzip("br;q=1.0, *;q=0.5"));
+        assertFalse(ProductController.acceptsGzip("gzip;q=0"));
+        assertFalse(ProductController.acceptsGzip("*, gzip;q=0.0"));
+        assertFalse(ProductController.acceptsGzip("identity"));
+        assertFalse(ProductController.acceptsGzip(null));
+    }
+
+    @Test
+    @DisplayName("Should negotiate CBOR for product detail with its own ETag and decimal prices")
+    void getProductById_negotiatesCbor() throws Exception {
+        when(productService.findById("p-001")).thenReturn(ProductResponse.builder()
+                .id("p-001").name("Audífonos").price(new BigDecimal("129.99")).build());
+
+        MockHttpServletResponse json = mockMvc.perform(get("/v1/products/p-001"))
+                .andExpect(header().string("Content-Type", "application/json"))
+                .andReturn().getResponse();
+        MockHttpServletResponse cbor = mockMvc.perform(get("/v1/products/p-001")
+                        .header("Accept", "application/cbor, application/json;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/cbor"))
+                .andReturn().getResponse();
+
+        ProductResponse decoded = new CBORMapper().readValue(cbor.getContentAsByteArray(), ProductResponse.class);
+        assertEquals(new BigDecimal("129.99"), decoded.getPrice());
+        assertTrue(cbor.getContentAsByteArray().length < json.getContentAsByteArray().length);
+        assertNotEquals(json.getHeader("ETag"), cbor.getHeader("ETag"));
+        assertTrue(cbor.getHeaders("Vary").contains("Accept"));
+    }
+
+    @Test
+    @DisplayName("Should run a JSON search body with value lists and OR groups as one search")
+    void searchProductsByQuery_mapsBodyToSingleFilter() throws Exception {
+        when(productService.searchProducts(any(), anyInt(), anyInt(), any(), any(), any()))
+                .thenReturn(PageResponse.<ProductResponse>builder().content(List.of()).build());
+        String body = """
+                {"categories": ["Audio", "Gaming"], "tags": ["bluetooth"], "tagMatch": "all",
+                 "anyOf": [{"brands": ["Sony"]}, {"maxPrice": 100, "inStock": true}],
+                 "size": 10, "sortBy": "price"}
+                """;
+
+        mockMvc.perform(post("/v1/products/search").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<ProductSearchFilter> filter = ArgumentCaptor.forClass(ProductSearchFilter.class);
+        verify(productService).searchProducts(filter.capture(), eq(0), eq(10), eq("price"), eq("asc"), any());
+        assertEquals(List.of("Audio", "Gaming"), filter.getValue().getCategories());
+        assertEquals(TagMatch.ALL, filter.getValue().getTagMatch());
+        assertEquals(List.of("Sony"), filter.getValue().getAnyOf().get(0).getBrands());
+        assertEquals(new BigDecimal("100"), filter.getValue().getAnyOf().get(1).getMaxPrice());
+
+        mockMvc.perform(post("/v1/products/search").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tags\": [\"bluetooth\"], \"tagMatch\": \"some\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should revalidate categories without querying while the catalog is unchanged")
+    void getCategories_usesLongLivedCacheControl() throws Exception {
+        when(productService.getCategories()).thenReturn(List.of("Audio"));
+
+        String etag = mockMvc.perform(get("/v1/products/categories"))
+                .andExpect(header().string("Cache-Control", "max-age=3600, public"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/v1/products/categories").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        verify(productService, times(1)).getCategories();
+
+        // Otra instancia (o un reinicio) con el mismo catálogo valida el mismo ETag
+        mockMvc(new CatalogVersion()).perform(get("/v1/products/categories").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(productService, times(1)).getCategories();
+    }
+
+    private MockMvc mockMvc(CatalogVersion catalogVersion) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        EncodedResponseCache responseCache = new EncodedResponseCache(objectMapper,
+                new MappingJackson2CborHttpMessageConverter(), catalogVersion, true,
+                DataSize.ofMegabytes(1), Duration.ofMinutes(5), DataSize.ofKilobytes(1));
+        HttpCachePolicy cachePolicy = new HttpCachePolicy(Duration.ofSeconds(60),
+                Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofHours(1));
+        return MockMvcBuilders.standaloneSetup(new ProductController(productService,
+                mock(ProductSuggestionService.class), objectMapper, responseCache, catalogVersion, catalogRevision,
+                cachePolicy))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+}